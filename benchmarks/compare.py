@@ -0,0 +1,81 @@
+"""
+Compares two JMH JSON result files, such as a baseline and a new run.
+
+Usage: python compare.py baseline.json current.json [threshold]
+
+Prints the change in score and in bytes allocated per operation for every
+benchmark in both files. Exits with 1 if any score got worse by more than
+threshold (default 0.10, or 10%).
+"""
+
+import json
+import sys
+
+ALLOCATION = "gc.alloc.rate.norm"
+
+
+def load(path: str) -> dict:
+    """
+    Reads a result file into a map of benchmark name and parameters to results
+    """
+
+    with open(path) as file:
+        results = json.load(file)
+
+    benchmarks = {}
+
+    for result in results:
+        params = ",".join(f"{k}={v}" for k, v in sorted(result.get("params", {}).items()))
+        name = result["benchmark"].rsplit(".", 2)[-2:]
+        key = ".".join(name) + (f" [{params}]" if params else "")
+
+        allocation = result.get("secondaryMetrics", {}).get(ALLOCATION, {}).get("score")
+        benchmarks[key] = (result["primaryMetric"]["score"], result["primaryMetric"]["scoreUnit"],
+                           result["mode"], allocation)
+
+    return benchmarks
+
+
+def change(old: float, new: float) -> float:
+    return (new - old) / old if old else 0.0
+
+
+def main() -> int:
+    if len(sys.argv) < 3:
+        print(__doc__)
+        return 2
+
+    baseline = load(sys.argv[1])
+    current = load(sys.argv[2])
+    threshold = float(sys.argv[3]) if len(sys.argv) > 3 else 0.10
+    regressions = 0
+
+    print(f"{'Benchmark':60} {'Baseline':>14} {'Current':>14} {'Change':>8} {'B/op':>16}")
+
+    for key in sorted(baseline.keys() & current.keys()):
+        old, unit, mode, old_alloc = baseline[key]
+        new, _, _, new_alloc = current[key]
+
+        # Throughput is better higher; every other mode is a time, better lower
+        worse = -change(old, new) if mode == "thrpt" else change(old, new)
+        flag = ""
+
+        if worse > threshold:
+            flag = " REGRESSION"
+            regressions += 1
+
+        alloc = ""
+
+        if old_alloc is not None and new_alloc is not None:
+            alloc = f"{old_alloc:.0f} -> {new_alloc:.0f}"
+
+        print(f"{key:60} {old:>10.3f} {unit:3} {new:>10.3f} {unit:3} {change(old, new):>+8.1%} {alloc:>16}{flag}")
+
+    for key in sorted(baseline.keys() - current.keys()):
+        print(f"{key:60} missing from {sys.argv[2]}")
+
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
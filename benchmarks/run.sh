@@ -0,0 +1,18 @@
+#!/bin/sh
+# Builds the project and benchmarks, then runs JMH with allocation
+# profiling and writes the results as JSON.
+#
+# Usage: ./run.sh [output.json] [JMH options...]
+# Example: ./run.sh results/baseline.json TableBenchmark -p rows=1000
+set -e
+
+cd "$(dirname "$0")"
+
+output=${1:-results/$(date +%Y%m%d-%H%M%S).json}
+[ $# -gt 0 ] && shift
+
+mvn -B -q -f ../pom.xml install -DskipTests
+mvn -B -q package
+
+mkdir -p "$(dirname "$output")"
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$output" "$@"
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.MultiMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks putting and getting values of mixed classes in a {@link MultiMap}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiMapBenchmark {
+
+    /**
+     * The number of values put in one measured batch
+     */
+    private static final int PUTS = 1024;
+
+    @Param({"16", "1024"})
+    private int keys;
+
+    @Param({"8", "256"})
+    private int valuesPerKey;
+
+    private MultiMap<String> map;
+    private String[] keyNames;
+    private Object[] added;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        map = new MultiMap<>();
+        keyNames = new String[keys];
+        added = new Object[1024];
+
+        for(int i = 0; i < added.length; i++) {
+            added[i] = new Object();
+        }
+
+        for(int i = 0; i < keys; i++) {
+            keyNames[i] = "KEY" + i;
+
+            for(int j = 0; j < valuesPerKey; j++) {
+                // Alternate classes so getValuesByClass has something to pick out
+                map.put(keyNames[i], j % 2 == 0 ? (Object) (double) j : (Object) ("V" + j));
+            }
+        }
+    }
+
+    private String nextKey() {
+        if(++next == keys) {
+            next = 0;
+        }
+
+        return keyNames[next];
+    }
+
+    /**
+     * Scores the time to put {@value #PUTS} values. The map is rebuilt
+     * before each batch, so it only grows by one batch.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = PUTS)
+    @Measurement(iterations = 20, batchSize = PUTS)
+    public MultiMap<String> put() {
+        // Reuse values so the reverse index stays the same size
+        map.put(this.nextKey(), added[next & (added.length - 1)]);
+        return map;
+    }
+
+    @Benchmark
+    public ArrayList<Object> get() {
+        return map.get(this.nextKey());
+    }
+
+    @Benchmark
+    public List<Double> getValuesByClass() {
+        return map.getValuesByClass(this.nextKey(), Double.class);
+    }
+}
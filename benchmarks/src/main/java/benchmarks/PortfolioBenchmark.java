@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import trading.Portfolio;
+import trading.assets.Stock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks valuing a {@link Portfolio}, from its running total
+ * and from scratch, and repricing a held position
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PortfolioBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int positions;
+
+    private Portfolio portfolio;
+    private Stock[] stocks;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        portfolio = new Portfolio();
+        stocks = new Stock[positions];
+
+        for(int i = 0; i < positions; i++) {
+            stocks[i] = new Stock("S" + i, 16);
+            stocks[i].setPrice(10 + i % 100);
+            stocks[i].setAmount(1 + i % 10);
+            portfolio.addAsset(stocks[i]);
+        }
+    }
+
+    @Benchmark
+    public double value() {
+        return portfolio.value();
+    }
+
+    @Benchmark
+    public long recalculateValue() {
+        return portfolio.recalculateValue();
+    }
+
+    @Benchmark
+    public double repriceAndValue() {
+        if(++next == positions) {
+            next = 0;
+        }
+
+        stocks[next].setPriceMicros(stocks[next].getPriceMicros() ^ 1);
+        return portfolio.value();
+    }
+}
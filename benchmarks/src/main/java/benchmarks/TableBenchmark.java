@@ -0,0 +1,142 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.ColumnarTable;
+import utilities.Table;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filtering, mapping and adding columns to
+ * row-based and columnar tables
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableBenchmark {
+
+    /**
+     * The number of columns added in one measured batch
+     */
+    private static final int ADDED_COLUMNS = 100;
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    @Param({"8"})
+    private int cols;
+
+    private Table<Double> table;
+    private ColumnarTable columnar;
+
+    /**
+     * Fresh tables for benchmarks that grow them. Rebuilt before each
+     * batch rather than each call, so the setup is not timed along with
+     * a call much cheaper than it, and the tables only grow by one batch.
+     */
+    @State(Scope.Thread)
+    public static class FreshTables {
+        private Table<Double> table;
+        private ColumnarTable columnar;
+
+        @Setup(Level.Iteration)
+        public void setUp(TableBenchmark benchmark) {
+            table = benchmark.newTable();
+            columnar = benchmark.newColumnarTable();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = this.newTable();
+        columnar = this.newColumnarTable();
+    }
+
+    private Table<Double> newTable() {
+        Table<Double> table = Table.TableBuilder.build(rows, cols);
+
+        for(int row = 0; row < rows; row++) {
+            for(int col = 0; col < cols; col++) {
+                table.addValueToRow((double) (row * cols + col), row);
+            }
+        }
+
+        return table;
+    }
+
+    private ColumnarTable newColumnarTable() {
+        ColumnarTable columnar = Table.TableBuilder.buildColumnar(rows, cols, ColumnarTable.ColumnType.DOUBLE);
+
+        for(int row = 0; row < rows; row++) {
+            for(int col = 0; col < cols; col++) {
+                columnar.setDouble(row * cols + col, row, col);
+            }
+        }
+
+        return columnar;
+    }
+
+    @Benchmark
+    public ArrayList<Double> filter() {
+        return table.filter(x -> x % 2 == 0);
+    }
+
+    @Benchmark
+    public ArrayList<Number> filterColumnar() {
+        return columnar.filter(x -> x.doubleValue() % 2 == 0);
+    }
+
+    @Benchmark
+    public double[] filterColumnarColumn() {
+        return columnar.filterDoubleColumn(0, x -> x % 2 == 0);
+    }
+
+    @Benchmark
+    public Table<Double> map() {
+        table.map(x -> -x);
+        return table;
+    }
+
+    @Benchmark
+    public ColumnarTable mapColumnarColumn() {
+        columnar.mapDoubleColumn(0, x -> -x);
+        return columnar;
+    }
+
+    /**
+     * Scores the time to add {@value #ADDED_COLUMNS} columns
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = ADDED_COLUMNS)
+    @Measurement(iterations = 20, batchSize = ADDED_COLUMNS)
+    public Table<Double> addColumn(FreshTables fresh) {
+        return fresh.table.addColumn("Added");
+    }
+
+    /**
+     * Scores the time to add {@value #ADDED_COLUMNS} columns
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = ADDED_COLUMNS)
+    @Measurement(iterations = 20, batchSize = ADDED_COLUMNS)
+    public ColumnarTable addColumnColumnar(FreshTables fresh) {
+        return fresh.columnar.addColumn("Added");
+    }
+}
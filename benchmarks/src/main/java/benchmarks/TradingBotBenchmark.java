@@ -0,0 +1,97 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import trading.TradingBot;
+import trading.assets.Stock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks buying and selling through a {@link TradingBot},
+ * from one thread and from several threads sharing a bot
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradingBotBenchmark {
+
+    /**
+     * A bot shared by every benchmark thread
+     */
+    @State(Scope.Benchmark)
+    public static class SharedBot {
+        private TradingBot bot;
+
+        @Setup
+        public void setUp() {
+            bot = new TradingBot(1_000_000_000);
+        }
+    }
+
+    /**
+     * The stocks one thread trades. Each thread has its own
+     * symbols, so threads contend on the bot and not on positions.
+     */
+    @State(Scope.Thread)
+    public static class ThreadStocks {
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        @Param({"16", "1024"})
+        private int symbols;
+
+        private Stock[] stocks;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            int thread = THREADS.getAndIncrement();
+            stocks = new Stock[symbols];
+
+            for(int i = 0; i < symbols; i++) {
+                stocks[i] = new Stock("T" + thread + "S" + i, 16);
+                stocks[i].setPrice(10 + i % 100);
+                stocks[i].setAmount(1);
+            }
+        }
+
+        private Stock next() {
+            if(++next == stocks.length) {
+                next = 0;
+            }
+
+            return stocks[next];
+        }
+    }
+
+    /**
+     * Buys a stock and sells it back, so cash and holdings stay level
+     */
+    @Benchmark
+    public TradingBot buyAndSell(SharedBot shared, ThreadStocks stocks) {
+        Stock stock = stocks.next();
+
+        shared.bot.buyAsset(stock);
+        shared.bot.sellAsset(stock);
+        return shared.bot;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TradingBot buyAndSellContended(SharedBot shared, ThreadStocks stocks) {
+        return this.buyAndSell(shared, stocks);
+    }
+}
@@ -1,6 +1,12 @@
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import trading.metrics.AllocationGauge;
+
+@SpringBootApplication(scanBasePackages = "trading.metrics")
 public class Main {
 
     public static void main(String[] args) {
-
+        AllocationGauge.enable();
+        SpringApplication.run(Main.class, args);
     }
 }
@@ -0,0 +1,93 @@
+package trading;
+
+import utilities.Asset;
+import utilities.Side;
+
+/**
+ * An order to buy or sell an asset's amount at its current price.
+ *
+ * <p>
+ * Orders are submitted in bulk through {@link TradingBot#submitBatch(java.util.List)},
+ * which reports the outcome of each order with one of the result codes below.
+ * </p>
+ */
+public class Order {
+
+    /**
+     * The order was filled
+     */
+    public static final byte FILLED = 0;
+
+    /**
+     * The batch was rejected because the bot could not afford it
+     */
+    public static final byte INSUFFICIENT_FUNDS = 1;
+
+    /**
+     * The order sells more of an asset than the bot holds
+     */
+    public static final byte NOT_HELD = 2;
+
+    /**
+     * The order was valid but not applied because
+     * another order in its batch was rejected
+     */
+    public static final byte NOT_APPLIED = 3;
+
+    /**
+     * The order trades an amount that is not positive
+     */
+    public static final byte INVALID = 4;
+
+    private final Side side;
+    private final Asset asset;
+
+    /**
+     * Constructs an order
+     *
+     * @param side Whether to buy or sell
+     * @param asset The asset to trade
+     */
+    public Order(Side side, Asset asset) {
+        this.side = side;
+        this.asset = asset;
+    }
+
+    /**
+     * An order to buy <code>asset</code>
+     *
+     * @param asset The asset to buy
+     * @return The order
+     */
+    public static Order buy(Asset asset) {
+        return new Order(Side.BUY, asset);
+    }
+
+    /**
+     * An order to sell <code>asset</code>
+     *
+     * @param asset The asset to sell
+     * @return The order
+     */
+    public static Order sell(Asset asset) {
+        return new Order(Side.SELL, asset);
+    }
+
+    /**
+     * Whether the order buys or sells
+     *
+     * @return The order's side
+     */
+    public Side getSide() {
+        return side;
+    }
+
+    /**
+     * The asset traded by the order
+     *
+     * @return The order's asset
+     */
+    public Asset getAsset() {
+        return asset;
+    }
+}
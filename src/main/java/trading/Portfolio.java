@@ -1,62 +1,281 @@
 package trading;
 
+import trading.markets.MarketSnapshot;
 import utilities.Asset;
+import utilities.AssetListener;
+import utilities.Money;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A set of traded assets and the
  * number of shares held of each.
+ *
+ * <p>
+ * Holdings are kept as one position per symbol. The portfolio owns its
+ * positions: the first asset added in a symbol opens a new lot of that
+ * asset, and later assets only add to the lot's amount, so the objects
+ * callers pass in are never changed. Removing an asset takes its amount
+ * back off the position. Assets without a symbol are each their own
+ * position.
+ * </p>
+ *
+ * <p>
+ * Each position follows the price of the asset that opened it, so a
+ * position opened from a market's asset is valued at the market price.
+ * </p>
+ *
+ * A portfolio is thread-safe. Changes to different symbols
+ * do not block each other.
  */
 public class Portfolio {
 
-    private final ArrayList<Asset> assets;
+    private final ConcurrentHashMap<Object, Asset> positions;
+    private final ConcurrentHashMap<Object, Asset> sources;
+    private final LongAdder value;
+
+    /**
+     * Keeps {@link #value} in step with the held positions
+     */
+    private final AssetListener valueTracker = new AssetListener() {
+        @Override
+        public void onValueChange(Asset asset, long oldValue, long newValue) {
+            value.add(newValue - oldValue);
+        }
+    };
+
+    /**
+     * Moves each position to the price of the asset that opened it
+     */
+    private final AssetListener priceFollower = new AssetListener() {
+        @Override
+        public void onPriceChange(Asset asset, long oldPrice, long newPrice) {
+            Asset position = positions.get(keyOf(asset));
+
+            if(position != null) {
+                position.setPriceMicros(newPrice, asset.getLastTimestamp());
+            }
+        }
+    };
 
     public Portfolio() {
-        assets = new ArrayList<>();
+        positions = new ConcurrentHashMap<>();
+        sources = new ConcurrentHashMap<>();
+        value = new LongAdder();
     }
 
     /**
-     * An <code>ArrayList</code> of assets held
-     * by this portfolio
+     * The positions held by this portfolio, one
+     * <code>Asset</code> per symbol
      *
-     * @return An <code>ArrayList</code> of assets held
+     * @return A read-only view of the assets held
      *         by this portfolio
      */
-    public ArrayList<Asset> getAssets() {
-        return assets;
+    public Collection<Asset> getAssets() {
+        return Collections.unmodifiableCollection(positions.values());
+    }
+
+    /**
+     * The amount held in a symbol
+     *
+     * @param symbol The ticker symbol
+     * @return The amount held, or <code>0</code> if the symbol is not held
+     */
+    public int getPosition(String symbol) {
+        Asset position = symbol == null ? null : positions.get(symbol);
+        return position == null ? 0 : position.getAmount();
+    }
+
+    /**
+     * The amount held in the asset's position
+     *
+     * @param asset The asset
+     * @return The amount held, or <code>0</code> if the position is not held
+     */
+    public int amountOf(Asset asset) {
+        Asset position = positions.get(keyOf(asset));
+        return position == null ? 0 : position.getAmount();
     }
 
     /**
-     * The value of this portfolio
+     * Determines if this portfolio holds a position in the asset's symbol
+     *
+     * @param asset The asset
+     * @return If the asset's position is held
+     */
+    public boolean holds(Asset asset) {
+        return positions.containsKey(keyOf(asset));
+    }
+
+    /**
+     * The value of this portfolio. Kept up to date as held
+     * assets change, so this does not visit the assets.
      *
      * @return The value of this portfolio
      */
     public double value() {
-        double val = 0;
+        return Money.toDouble(this.valueMicros());
+    }
+
+    /**
+     * The value of this portfolio in micro-units
+     *
+     * @return The value of this portfolio in micro-units
+     */
+    public long valueMicros() {
+        return value.sum();
+    }
+
+    /**
+     * Calculates the value of this portfolio from scratch
+     * by pricing every held asset. Useful for checking
+     * {@link #valueMicros()}.
+     *
+     * @return The value of this portfolio in micro-units
+     */
+    public long recalculateValue() {
+        long val = 0;
+
+        for(Asset asset : positions.values()) {
+            val += asset.calculateValue();
+        }
+
+        return val;
+    }
+
+    /**
+     * Values this portfolio at a snapshot's prices. Every position is
+     * priced from the same snapshot, so the value is consistent even while
+     * prices are changing; held symbols missing from the snapshot use their
+     * own current price.
+     *
+     * @param snapshot The prices to value at
+     * @return The value of this portfolio in micro-units
+     */
+    public long valueMicrosAt(MarketSnapshot snapshot) {
+        long val = 0;
 
-        for(Asset asset : assets) {
-            val += asset.calculatePrice();
+        for(Asset asset : positions.values()) {
+            int index = snapshot.indexOf(asset.getSymbol());
+            long price = index < 0 ? asset.getPriceMicros() : snapshot.getPrice(index);
+            val += Money.times(price, asset.getAmount());
         }
 
         return val;
     }
 
     /**
-     * Adds an <code>Asset</code> to this portfolio
+     * Adds an <code>Asset</code> to this portfolio. If its symbol
+     * is already held, its amount is added to that position.
      *
      * @param asset The asset
      */
     public void addAsset(Asset asset) {
-        this.assets.add(asset);
+        this.addAsset(asset, asset.getAmount());
+    }
+
+    /**
+     * Adds an amount of an asset to this portfolio. Opens a position
+     * following the asset's price if its symbol is not held yet.
+     *
+     * @param asset The asset
+     * @param amount The amount to add, must be positive
+     */
+    public void addAsset(Asset asset, int amount) {
+        if(amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+
+        this.positions.compute(keyOf(asset), (key, position) -> {
+            if(position != null) {
+                position.setAmount(Math.addExact(position.getAmount(), amount));
+                return position;
+            }
+
+            Asset lot = asset.newLot(amount);
+
+            synchronized(lot) {
+                lot.addListener(valueTracker);
+                this.value.add(lot.calculateValue());
+            }
+
+            this.sources.put(key, asset);
+            asset.addListener(priceFollower);
+            return lot;
+        });
+    }
+
+    /**
+     * Removes an <code>Asset</code>'s amount from the position in its symbol
+     *
+     * @param asset The asset
+     * @return The amount actually removed, less than the asset's
+     *         amount if less was held
+     */
+    public int removeAsset(Asset asset) {
+        return this.removeAsset(asset, asset.getAmount());
     }
 
     /**
-     * Removes an <code>Asset</code> from this portfolio
+     * Removes an amount from the position in an asset's symbol.
+     * The position is closed once nothing is left.
      *
      * @param asset The asset
+     * @param amount The amount to remove
+     * @return The amount actually removed, less than <code>amount</code>
+     *         if less was held
+     */
+    public int removeAsset(Asset asset, int amount) {
+        int[] removed = new int[1];
+
+        if(amount <= 0) {
+            return 0;
+        }
+
+        this.positions.computeIfPresent(keyOf(asset), (key, position) -> {
+            int held = position.getAmount();
+            removed[0] = Math.min(amount, held);
+
+            if(removed[0] < held) {
+                position.setAmount(held - removed[0]);
+                return position;
+            }
+
+            Asset source = this.sources.remove(key);
+
+            if(source != null) {
+                source.removeListener(priceFollower);
+            }
+
+            synchronized(position) {
+                position.removeListener(valueTracker);
+                this.value.add(-position.calculateValue());
+            }
+
+            return null;
+        });
+
+        return removed[0];
+    }
+
+    /**
+     * The asset whose price the position in an asset's symbol follows
+     *
+     * @return The asset that opened the position, or <code>null</code>
+     *         if it is not held
+     */
+    Asset sourceOf(Asset asset) {
+        return this.sources.get(keyOf(asset));
+    }
+
+    /**
+     * The key of the position an asset belongs to: its symbol,
+     * or the asset itself if it has none
      */
-    public void removeAsset(Asset asset) {
-        this.assets.remove(asset);
+    static Object keyOf(Asset asset) {
+        return asset.getSymbol() == null ? asset : asset.getSymbol();
     }
 }
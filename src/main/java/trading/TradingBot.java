@@ -1,38 +1,70 @@
 package trading;
 
+import trading.metrics.Counter;
+import trading.metrics.Metrics;
+import trading.metrics.Timer;
 import utilities.Asset;
+import utilities.Market;
+import utilities.Money;
+import utilities.Side;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An automatic bot that trades shares of stocks.
  * Has a portfolio and money.
+ *
+ * <p>
+ * Cash is kept in {@link Money} micro-units so that trading never
+ * accumulates rounding error. The <code>double</code> getters convert
+ * at the edges.
+ * </p>
+ *
+ * A bot can be traded from many threads at once. Cash is updated with
+ * compare-and-set, so concurrent buys can never overdraw it, and sales
+ * are only paid for the amount actually taken out of the portfolio, so
+ * concurrent sales can never create cash. No operation holds a lock
+ * shared by the whole bot.
+ *
+ * <p>
+ * Besides buying at the current price, a bot can place limit orders on a
+ * {@link Market}. Buy orders reserve their full cost up front; fills below
+ * the limit and cancellations return the difference. Sell orders reserve
+ * their quantity until they fill or are cancelled, so open sells can never
+ * add up to more than is held.
+ * </p>
  */
-public class TradingBot {
+public class TradingBot implements Market.Participant {
+
+    private static final Timer BUY_TIMER = Metrics.timer("tradingBot.buyAsset");
+    private static final Timer SELL_TIMER = Metrics.timer("tradingBot.sellAsset");
+    private static final Counter INSUFFICIENT_FUNDS = Metrics.counter("tradingBot.insufficientFunds");
 
-    private Portfolio portfolio;
-    private final double startingCash;
-    private double currentCash;
-    private final HashMap<Asset, Double> initialAssetBuyPrice;
+    private final Portfolio portfolio;
+    private final long startingCash;
+    private final AtomicLong currentCash;
+    private final ConcurrentHashMap<Object, Long> initialAssetBuyPrice;
+    private final ConcurrentHashMap<Object, Integer> reservedSales;
 
     public TradingBot() {
-        this.portfolio = new Portfolio();
-        this.startingCash = 0;
-        this.currentCash = this.startingCash;
-        this.initialAssetBuyPrice = new HashMap<>();
+        this(0);
     }
 
     public TradingBot(double startingCash) {
-        this.startingCash = startingCash;
-        this.currentCash = this.startingCash;
-        this.initialAssetBuyPrice = new HashMap<>();
+        this(startingCash, new Portfolio());
     }
 
     public TradingBot(double startingCash, Portfolio portfolio) {
-        this.startingCash = startingCash;
-        this.currentCash = this.startingCash;
+        this.startingCash = Money.of(startingCash);
+        this.currentCash = new AtomicLong(this.startingCash);
         this.portfolio = portfolio;
-        this.initialAssetBuyPrice = new HashMap<>();
+        this.initialAssetBuyPrice = new ConcurrentHashMap<>();
+        this.reservedSales = new ConcurrentHashMap<>();
     }
 
     /**
@@ -50,7 +82,7 @@ public class TradingBot {
      * @return The bot's starting cash
      */
     public double getStartingCash() {
-        return startingCash;
+        return Money.toDouble(startingCash);
     }
 
     /**
@@ -59,7 +91,16 @@ public class TradingBot {
      * @return The bot's current cash
      */
     public double getCurrentCash() {
-        return currentCash;
+        return Money.toDouble(currentCash.get());
+    }
+
+    /**
+     * The bot's current cash in micro-units
+     *
+     * @return The bot's current cash in micro-units
+     */
+    public long getCurrentCashMicros() {
+        return currentCash.get();
     }
 
     /**
@@ -68,32 +109,340 @@ public class TradingBot {
      * @param currentCash The amount of money
      */
     public void setCurrentCash(double currentCash) {
-        this.currentCash = currentCash;
+        this.currentCash.set(Money.of(currentCash));
     }
 
     /**
-     * Buys an asset
+     * Buys the asset's amount at its current price
      *
      * @param asset The asset to buy
      */
     public void buyAsset(Asset asset) {
-        if(this.currentCash < asset.getPrice()) {
-            throw new RuntimeException("Insufficient funds!");
-        }
+        long start = BUY_TIMER.start();
+
+        try {
+            long price = asset.getPriceMicros();
+            int amount = asset.getAmount();
+            long cost = Money.times(price, amount);
+            long cash;
+
+            if(amount <= 0) {
+                throw new IllegalArgumentException("Amount must be positive");
+            }
+
+            do {
+                cash = this.currentCash.get();
 
-        this.currentCash -= asset.getPrice();
-        this.portfolio.addAsset(asset);
-        this.initialAssetBuyPrice.put(asset, asset.getPrice());
+                if(cash < cost) {
+                    INSUFFICIENT_FUNDS.increment();
+                    throw new RuntimeException("Insufficient funds!");
+                }
+            } while(!this.currentCash.compareAndSet(cash, cash - cost));
+
+            this.portfolio.addAsset(asset, amount);
+            this.initialAssetBuyPrice.putIfAbsent(Portfolio.keyOf(asset), price);
+        } finally {
+            BUY_TIMER.stop(start);
+        }
     }
 
     /**
-     * Sells an asset
+     * Sells the asset's amount at its current price. Only what is
+     * held and not reserved by open sell orders is sold and paid for.
      *
      * @param asset The asset to sell
+     * @return The amount sold
+     */
+    public int sellAsset(Asset asset) {
+        long start = SELL_TIMER.start();
+
+        try {
+            long price = asset.getPriceMicros();
+            int[] sold = new int[1];
+
+            // Under the reservation's lock, so no sell order can reserve what is being sold
+            this.reservedSales.compute(Portfolio.keyOf(asset), (key, reserved) -> {
+                int amount = Math.min(asset.getAmount(), this.portfolio.amountOf(asset) - (reserved == null ? 0 : reserved));
+                sold[0] = this.portfolio.removeAsset(asset, amount);
+                return reserved;
+            });
+
+            this.currentCash.addAndGet(Money.times(price, sold[0]));
+            this.forgetBuyPrice(asset);
+            return sold[0];
+        } finally {
+            SELL_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * The amount of an asset's position that can be sold: what is held,
+     * less what open sell orders have reserved
+     *
+     * @param asset The asset
+     * @return The amount available to sell
+     */
+    public int available(Asset asset) {
+        return this.portfolio.amountOf(asset) - this.reservedSales.getOrDefault(Portfolio.keyOf(asset), 0);
+    }
+
+    /**
+     * Places a limit order on a market.
+     *
+     * <p>
+     * A buy reserves <code>limitPrice * quantity</code> of cash until it fills
+     * or is cancelled. A sell reserves its quantity and must not exceed the
+     * amount {@link #available available} to sell. Fills open, grow and
+     * shrink the position in the asset's symbol. If the market throws, the
+     * part of the order it had not filled or cancelled is returned.
+     * </p>
+     *
+     * @param market The market
+     * @param asset The asset to trade
+     * @param side Whether to buy or sell
+     * @param limitPrice The worst acceptable price in micro-units
+     * @param quantity The quantity to trade
+     * @return The id of the order, for cancelling it
+     * @param <T> The type of asset traded on the market
+     */
+    public <T extends Asset> long placeOrder(Market<T> market, T asset, Side side, long limitPrice, int quantity) {
+        if(quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        if(side == Side.BUY) {
+            long cost = Money.times(limitPrice, quantity);
+            long cash;
+
+            do {
+                cash = this.currentCash.get();
+
+                if(cash < cost) {
+                    INSUFFICIENT_FUNDS.increment();
+                    throw new RuntimeException("Insufficient funds!");
+                }
+            } while(!this.currentCash.compareAndSet(cash, cash - cost));
+        } else {
+            this.reservedSales.compute(Portfolio.keyOf(asset), (key, reserved) -> {
+                int open = reserved == null ? 0 : reserved;
+
+                if(this.portfolio.amountOf(asset) - open < quantity) {
+                    throw new IllegalStateException("Cannot sell more of " + key + " than is held");
+                }
+
+                return open + quantity;
+            });
+        }
+
+        OpenOrder order = new OpenOrder(this);
+
+        try {
+            return market.submit(order, asset, side, limitPrice, quantity);
+        } catch(RuntimeException e) {
+            // The market may have filled or cancelled part of the order before it threw
+            int unreported = quantity - order.reported;
+
+            if(unreported > 0) {
+                this.onCancel(asset, side, limitPrice, unreported);
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public void onFill(Asset asset, Side side, long limitPrice, long price, int quantity) {
+        if(side == Side.BUY) {
+            this.currentCash.addAndGet(Money.times(limitPrice - price, quantity));
+
+            this.portfolio.addAsset(asset, quantity);
+            this.initialAssetBuyPrice.putIfAbsent(Portfolio.keyOf(asset), price);
+        } else {
+            int sold = this.portfolio.removeAsset(asset, quantity);
+            this.currentCash.addAndGet(Money.times(price, sold));
+            this.release(asset, quantity);
+            this.forgetBuyPrice(asset);
+        }
+    }
+
+    @Override
+    public void onCancel(Asset asset, Side side, long limitPrice, int quantity) {
+        if(side == Side.BUY) {
+            this.currentCash.addAndGet(Money.times(limitPrice, quantity));
+        } else {
+            this.release(asset, quantity);
+        }
+    }
+
+    /**
+     * Passes an order's fills and cancels on to its bot, counting
+     * how much of the order they cover
+     */
+    private static final class OpenOrder implements Market.Participant {
+        private final TradingBot bot;
+        private int reported;
+
+        private OpenOrder(TradingBot bot) {
+            this.bot = bot;
+        }
+
+        @Override
+        public void onFill(Asset asset, Side side, long limitPrice, long price, int quantity) {
+            reported += quantity;
+            bot.onFill(asset, side, limitPrice, price, quantity);
+        }
+
+        @Override
+        public void onCancel(Asset asset, Side side, long limitPrice, int quantity) {
+            reported += quantity;
+            bot.onCancel(asset, side, limitPrice, quantity);
+        }
+    }
+
+    /**
+     * Releases quantity reserved by a sell order
+     */
+    private void release(Asset asset, int quantity) {
+        this.reservedSales.computeIfPresent(Portfolio.keyOf(asset), (key, reserved) -> reserved > quantity ? reserved - quantity : null);
+    }
+
+    /**
+     * Drops the buy price of an asset's position once it is closed
+     */
+    private void forgetBuyPrice(Asset asset) {
+        this.initialAssetBuyPrice.computeIfPresent(Portfolio.keyOf(asset), (key, price) -> this.portfolio.holds(asset) ? price : null);
+    }
+
+    /**
+     * Buys and sells a batch of assets as one unit. Each order
+     * trades its asset's amount.
+     *
+     * <p>
+     * Prices are read once per order. The batch is checked up front: every
+     * amount must be positive, the amounts sold of each symbol, summed over
+     * the batch, must be available to sell, and the bot must afford the
+     * batch's net cost, counting the proceeds of its sales. Sales are then
+     * taken out of the portfolio, each under its symbol's reservation so no
+     * sell order can reserve the same shares, cash is taken in a single
+     * atomic step and the purchases are added. If any check fails, or a
+     * concurrent trade takes holdings the batch is selling, the sales already
+     * taken are put back. Positions the batch closed are reopened following
+     * the asset they followed before.
+     * </p>
+     *
+     * @param orders The orders
+     * @return One result code per order, such as {@link Order#FILLED}
+     */
+    public byte[] submitBatch(List<Order> orders) {
+        int count = orders.size();
+        byte[] results = new byte[count];
+        long[] prices = new long[count];
+        HashMap<Object, Integer> sold = new HashMap<>();
+        long netCost = 0;
+        boolean rejected = false;
+
+        for(int i = 0; i < count; i++) {
+            Order order = orders.get(i);
+            Asset asset = order.getAsset();
+            int amount = asset.getAmount();
+            prices[i] = asset.getPriceMicros();
+
+            if(amount <= 0) {
+                results[i] = Order.INVALID;
+                rejected = true;
+            } else if(order.getSide() == Side.BUY) {
+                netCost = Math.addExact(netCost, Money.times(prices[i], amount));
+            } else if(sold.merge(Portfolio.keyOf(asset), amount, Integer::sum) <= this.available(asset)) {
+                netCost = Math.subtractExact(netCost, Money.times(prices[i], amount));
+            } else {
+                results[i] = Order.NOT_HELD;
+                rejected = true;
+            }
+        }
+
+        if(rejected) {
+            return this.reject(results, Order.NOT_APPLIED);
+        }
+
+        int[] taken = new int[count];
+        Asset[] sources = new Asset[count];
+
+        for(int i = 0; i < count; i++) {
+            Order order = orders.get(i);
+
+            if(order.getSide() == Side.SELL) {
+                Asset asset = order.getAsset();
+                int amount = asset.getAmount();
+                int index = i;
+
+                // Under the reservation's lock, so no sell order can reserve what is being sold
+                this.reservedSales.compute(Portfolio.keyOf(asset), (key, reserved) -> {
+                    if(this.portfolio.amountOf(asset) - (reserved == null ? 0 : reserved) >= amount) {
+                        sources[index] = this.portfolio.sourceOf(asset);
+                        taken[index] = this.portfolio.removeAsset(asset, amount);
+                    }
+
+                    return reserved;
+                });
+
+                if(taken[i] < amount) {
+                    // Sold or reserved concurrently since the check; put back what this batch took
+                    this.undoSales(sources, taken, i + 1);
+                    results[i] = Order.NOT_HELD;
+                    return this.reject(results, Order.NOT_APPLIED);
+                }
+            }
+        }
+
+        long cash;
+
+        do {
+            cash = this.currentCash.get();
+
+            if(cash < netCost) {
+                this.undoSales(sources, taken, count);
+                Arrays.fill(results, Order.INSUFFICIENT_FUNDS);
+                return results;
+            }
+        } while(!this.currentCash.compareAndSet(cash, cash - netCost));
+
+        for(int i = 0; i < count; i++) {
+            Order order = orders.get(i);
+
+            if(order.getSide() == Side.BUY) {
+                this.portfolio.addAsset(order.getAsset(), order.getAsset().getAmount());
+                this.initialAssetBuyPrice.putIfAbsent(Portfolio.keyOf(order.getAsset()), prices[i]);
+            } else {
+                this.forgetBuyPrice(order.getAsset());
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Marks every order that was not rejected with <code>code</code>
+     */
+    private byte[] reject(byte[] results, byte code) {
+        for(int i = 0; i < results.length; i++) {
+            if(results[i] == Order.FILLED) {
+                results[i] = code;
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Puts back the amounts a batch took from the portfolio before order
+     * <code>end</code>, through the assets their positions followed
      */
-    public void sellAsset(Asset asset) {
-        this.currentCash += asset.getPrice();
-        this.portfolio.removeAsset(asset);
+    private void undoSales(Asset[] sources, int[] taken, int end) {
+        for(int i = 0; i < end; i++) {
+            if(taken[i] > 0) {
+                this.portfolio.addAsset(sources[i], taken[i]);
+            }
+        }
     }
 
     /**
@@ -102,7 +451,16 @@ public class TradingBot {
      * @return The amount of profit made by the bot
      */
     public double profit() {
-        return this.netWorth() - this.startingCash;
+        return Money.toDouble(this.profitMicros());
+    }
+
+    /**
+     * The bot's profit in micro-units
+     *
+     * @return The amount of profit made by the bot in micro-units
+     */
+    public long profitMicros() {
+        return this.netWorthMicros() - this.startingCash;
     }
 
     /**
@@ -111,7 +469,7 @@ public class TradingBot {
      * @return If the bot profited
      */
     public boolean profited() {
-        return this.profit() > 0;
+        return this.profitMicros() > 0;
     }
 
     /**
@@ -121,16 +479,27 @@ public class TradingBot {
      * @return The bot's net worth
      */
     public double netWorth() {
-        return this.portfolio.value() + this.currentCash;
+        return Money.toDouble(this.netWorthMicros());
+    }
+
+    /**
+     * The bot's net worth in micro-units
+     *
+     * @return The bot's net worth in micro-units
+     */
+    public long netWorthMicros() {
+        return this.portfolio.valueMicros() + this.currentCash.get();
     }
 
     /**
-     * The price the asset was bought for by the bot
+     * The price the bot first paid for the position the asset belongs to.
+     * Forgotten once the position is closed.
      *
      * @param asset The asset
-     * @return The initial price paid for the asset
+     * @return The initial price paid for the asset's position, or
+     *         <code>0</code> if it is not held
      */
     public double getInitialBuyPrice(Asset asset) {
-        return initialAssetBuyPrice.get(asset);
+        return Money.toDouble(initialAssetBuyPrice.getOrDefault(Portfolio.keyOf(asset), 0L));
     }
 }
@@ -1,6 +1,7 @@
 package trading.assets;
 
 import utilities.Asset;
+import utilities.Money;
 
 /**
  * A stock traded on the open market.
@@ -8,8 +9,55 @@ import utilities.Asset;
  */
 public class Stock extends Asset {
 
+    public Stock() {
+        super();
+    }
+
+    /**
+     * Constructs a stock
+     *
+     * @param historyCapacity The number of previous prices to retain
+     */
+    public Stock(int historyCapacity) {
+        super(historyCapacity);
+    }
+
+    /**
+     * Constructs a stock
+     *
+     * @param symbol The stock's ticker symbol
+     */
+    public Stock(String symbol) {
+        super(symbol);
+    }
+
+    /**
+     * Constructs a stock
+     *
+     * @param symbol The stock's ticker symbol
+     * @param historyCapacity The number of previous prices to retain
+     */
+    public Stock(String symbol, int historyCapacity) {
+        super(symbol, historyCapacity);
+    }
+
+    @Override
+    public long calculateValue() {
+        return Money.times(this.getPriceMicros(), this.getAmount());
+    }
+
+    /**
+     * Creates a lot of this stock. Lots keep
+     * only their latest price.
+     *
+     * @param amount The number of shares held by the lot
+     * @return The new lot
+     */
     @Override
-    public double calculatePrice() {
-        return this.getPrice() * this.getAmount();
+    public Stock newLot(int amount) {
+        Stock lot = new Stock(this.getSymbol(), 1);
+        lot.setPriceMicros(this.getPriceMicros());
+        lot.setAmount(amount);
+        return lot;
     }
 }
@@ -0,0 +1,356 @@
+package trading.backtest;
+
+import trading.TradingBot;
+import trading.assets.Stock;
+import trading.markets.ImmediateMarket;
+import utilities.Asset;
+import utilities.AssetListener;
+import utilities.ColumnarTable;
+import utilities.Money;
+import utilities.Side;
+import utilities.Status;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Replays a {@link BarSeries} through a {@link TradingBot}.
+ *
+ * <p>
+ * Each run gets a fresh bot and a fresh {@link Stock}. For every bar the
+ * stock's price is set to the bar's close, which updates its status through
+ * its trend detector, held positions are marked to the close, and the
+ * strategy is called. Status changes are passed to the strategy once the
+ * bar's close has been applied, and a strategy can tune the detector in
+ * {@link Strategy#onStart}. Orders placed through the {@link Context} fill
+ * straight away at the close. The bot's net worth is recorded in an
+ * equity curve.
+ * </p>
+ *
+ * Runs share nothing but the read-only bars, so {@link #sweep} runs
+ * many parameterizations at once, one per core.
+ */
+public class Backtest {
+
+    /**
+     * The column of the equity curve holding bar times
+     */
+    public static final int TIME_COLUMN = 0;
+
+    /**
+     * The column of the equity curve holding net worth
+     */
+    public static final int EQUITY_COLUMN = 1;
+
+    /**
+     * The state of one run, handed to its {@link Strategy}
+     */
+    public static final class Context {
+        private final BarSeries bars;
+        private final TradingBot bot;
+        private final Stock stock;
+        private final ImmediateMarket<Stock> market;
+        private int index;
+        private int trades;
+
+        private Context(BarSeries bars, TradingBot bot, Stock stock) {
+            this.bars = bars;
+            this.bot = bot;
+            this.stock = stock;
+            this.market = new ImmediateMarket<>();
+        }
+
+        /**
+         * The bars being replayed
+         *
+         * @return The bars of the run
+         */
+        public BarSeries getBars() {
+            return bars;
+        }
+
+        /**
+         * The index of the current bar
+         *
+         * @return The current bar's index
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * The bot being traded
+         *
+         * @return The run's bot
+         */
+        public TradingBot getBot() {
+            return bot;
+        }
+
+        /**
+         * The stock being traded, priced at the current bar's close
+         *
+         * @return The run's stock
+         */
+        public Stock getStock() {
+            return stock;
+        }
+
+        /**
+         * The number of shares held
+         *
+         * @return The number of shares held
+         */
+        public int getPosition() {
+            return bot.getPortfolio().getPosition(stock.getSymbol());
+        }
+
+        /**
+         * The number of orders filled so far
+         *
+         * @return The number of trades
+         */
+        public int getTrades() {
+            return trades;
+        }
+
+        /**
+         * Buys shares at the current close
+         *
+         * @param quantity The number of shares
+         * @return If the shares were bought, <code>false</code> if cash is short
+         */
+        public boolean buy(int quantity) {
+            long price = stock.getPriceMicros();
+
+            if(quantity <= 0 || bot.getCurrentCashMicros() < Money.times(price, quantity)) {
+                return false;
+            }
+
+            bot.placeOrder(market, stock, Side.BUY, price, quantity);
+            trades++;
+            return true;
+        }
+
+        /**
+         * Sells held shares at the current close
+         *
+         * @param quantity The number of shares
+         * @return If the shares were sold, <code>false</code> if not enough are held
+         */
+        public boolean sell(int quantity) {
+            if(quantity <= 0 || this.getPosition() < quantity) {
+                return false;
+            }
+
+            bot.placeOrder(market, stock, Side.SELL, stock.getPriceMicros(), quantity);
+            trades++;
+            return true;
+        }
+    }
+
+    /**
+     * The outcome of one run
+     */
+    public static final class Result {
+        private final ColumnarTable equity;
+        private final long finalEquity;
+        private final double maxDrawdown;
+        private final int trades;
+
+        private Result(ColumnarTable equity, long finalEquity, double maxDrawdown, int trades) {
+            this.equity = equity;
+            this.finalEquity = finalEquity;
+            this.maxDrawdown = maxDrawdown;
+            this.trades = trades;
+        }
+
+        /**
+         * The equity curve, with bar times in {@link #TIME_COLUMN}
+         * and net worth in {@link #EQUITY_COLUMN}
+         *
+         * @return The equity curve
+         */
+        public ColumnarTable getEquity() {
+            return equity;
+        }
+
+        /**
+         * The bot's net worth after the last bar
+         *
+         * @return The final net worth in micro-units
+         */
+        public long getFinalEquityMicros() {
+            return finalEquity;
+        }
+
+        /**
+         * The bot's net worth after the last bar
+         *
+         * @return The final net worth
+         */
+        public double getFinalEquity() {
+            return Money.toDouble(finalEquity);
+        }
+
+        /**
+         * The largest fall in net worth from a previous peak,
+         * as a fraction of that peak
+         *
+         * @return The maximum drawdown, between <code>0</code> and <code>1</code>
+         */
+        public double getMaxDrawdown() {
+            return maxDrawdown;
+        }
+
+        /**
+         * The number of orders filled
+         *
+         * @return The number of trades
+         */
+        public int getTrades() {
+            return trades;
+        }
+    }
+
+    /**
+     * Records the status changes of a run's stock until
+     * they are passed on to the strategy
+     */
+    private static final class StatusChanges implements AssetListener {
+        private boolean changed;
+        private Status oldStatus;
+        private Status newStatus;
+
+        @Override
+        public void onStatusChange(Asset asset, Status oldStatus, Status newStatus) {
+            if(!changed) {
+                this.oldStatus = oldStatus;
+                changed = true;
+            }
+
+            this.newStatus = newStatus;
+        }
+    }
+
+    private final BarSeries bars;
+    private final double startingCash;
+    private int equityInterval;
+
+    /**
+     * Constructs a backtest
+     *
+     * @param bars The bars to replay
+     * @param startingCash The cash each bot starts with
+     */
+    public Backtest(BarSeries bars, double startingCash) {
+        this.bars = bars;
+        this.startingCash = startingCash;
+        this.equityInterval = 1;
+    }
+
+    /**
+     * The number of bars between points of the equity curve
+     *
+     * @return The equity interval
+     */
+    public int getEquityInterval() {
+        return equityInterval;
+    }
+
+    /**
+     * Sets the number of bars between points of the equity curve.
+     * Recording every bar of a large sweep takes a lot of memory.
+     *
+     * @param equityInterval The equity interval, at least <code>1</code>
+     * @return The backtest
+     */
+    public Backtest setEquityInterval(int equityInterval) {
+        if(equityInterval <= 0) {
+            throw new IllegalArgumentException("Equity interval must be positive");
+        }
+
+        this.equityInterval = equityInterval;
+        return this;
+    }
+
+    /**
+     * Runs a strategy over the bars
+     *
+     * @param strategy The strategy
+     * @return The outcome of the run
+     */
+    public Result run(Strategy strategy) {
+        TradingBot bot = new TradingBot(startingCash);
+        Stock stock = new Stock(bars.getSymbol());
+        Context context = new Context(bars, bot, stock);
+
+        int size = bars.size();
+        ColumnarTable equity = new ColumnarTable(size / equityInterval + 1, 2)
+                .addColumn("Time", ColumnarTable.ColumnType.LONG)
+                .addColumn("Equity", ColumnarTable.ColumnType.DOUBLE);
+
+        long peak = bot.netWorthMicros();
+        double maxDrawdown = 0;
+
+        StatusChanges statusChanges = new StatusChanges();
+        stock.addListener(statusChanges);
+        strategy.onStart(context);
+
+        for(int i = 0; i < size; i++) {
+            long time = bars.getTime(i);
+            long close = bars.getClose(i);
+
+            context.index = i;
+            stock.setPriceMicros(close, time);
+
+            // Passed on once the price update is over, so held positions are already marked to the close
+            if(statusChanges.changed) {
+                statusChanges.changed = false;
+
+                if(statusChanges.oldStatus != statusChanges.newStatus) {
+                    strategy.onStatusChange(context, statusChanges.oldStatus, statusChanges.newStatus);
+                }
+            }
+
+            strategy.onBar(context);
+
+            long netWorth = bot.netWorthMicros();
+
+            if(netWorth > peak) {
+                peak = netWorth;
+            } else if(peak > 0) {
+                maxDrawdown = Math.max(maxDrawdown, (double) (peak - netWorth) / peak);
+            }
+
+            if(i % equityInterval == 0 || i == size - 1) {
+                int row = equity.getRowCount();
+                equity.addRow();
+                equity.setLong(time, row, TIME_COLUMN);
+                equity.setDouble(Money.toDouble(netWorth), row, EQUITY_COLUMN);
+            }
+        }
+
+        return new Result(equity, bot.netWorthMicros(), maxDrawdown, context.trades);
+    }
+
+    /**
+     * Runs one strategy per parameter set, in parallel
+     *
+     * @param parameters The parameter sets
+     * @param strategies Creates a new strategy for a parameter set
+     * @return The outcome of each run, in the order of <code>parameters</code>
+     * @param <P> The type of a parameter set
+     */
+    public <P> List<Result> sweep(List<P> parameters, Function<P, Strategy> strategies) {
+        Result[] results = new Result[parameters.size()];
+
+        IntStream.range(0, results.length)
+                .parallel()
+                .forEach(i -> results[i] = this.run(strategies.apply(parameters.get(i))));
+
+        return Arrays.asList(results);
+    }
+}
@@ -0,0 +1,178 @@
+package trading.backtest;
+
+import trading.data.QuoteImporter;
+import utilities.Money;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A read-only series of price bars for one symbol, oldest first.
+ *
+ * <p>
+ * Each field is a primitive array, so years of minute bars take a few
+ * contiguous blocks of memory, and one series can be shared by any number
+ * of backtests running at once. Times are epoch nanoseconds and prices
+ * are {@link Money} micro-units.
+ * </p>
+ */
+public final class BarSeries {
+
+    private final String symbol;
+    private final long[] times;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final long[] volume;
+
+    /**
+     * Constructs a series. The arrays are used as given, not copied.
+     *
+     * @param symbol The ticker symbol of the bars
+     * @param times The start time of each bar in epoch nanoseconds, ascending
+     * @param open The opening price of each bar in micro-units
+     * @param high The highest price of each bar in micro-units
+     * @param low The lowest price of each bar in micro-units
+     * @param close The closing price of each bar in micro-units
+     * @param volume The volume traded in each bar
+     */
+    public BarSeries(String symbol, long[] times, long[] open, long[] high, long[] low, long[] close, long[] volume) {
+        int size = times.length;
+
+        if(open.length != size || high.length != size || low.length != size
+                || close.length != size || volume.length != size) {
+            throw new IllegalArgumentException("Bar fields must all have the same length");
+        }
+
+        this.symbol = symbol;
+        this.times = times;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    /**
+     * Loads a series from a CSV file with the columns
+     * <code>time,open,high,low,close,volume</code>.
+     *
+     * <p>
+     * Times are epoch seconds. A first line that does not
+     * start with a digit is taken to be a header and skipped.
+     * </p>
+     *
+     * @param symbol The ticker symbol of the bars
+     * @param file The CSV file
+     * @return The bars in the file
+     * @throws IOException If the file cannot be read
+     */
+    public static BarSeries load(String symbol, Path file) throws IOException {
+        long[][] fields = new long[6][1024];
+        int[] size = {0};
+
+        try(InputStream in = Files.newInputStream(file)) {
+            new QuoteImporter().importBars(in, (time, open, high, low, close, volume) -> {
+                if(size[0] == fields[0].length) {
+                    for(int i = 0; i < fields.length; i++) {
+                        fields[i] = Arrays.copyOf(fields[i], size[0] + (size[0] >> 1));
+                    }
+                }
+
+                fields[0][size[0]] = time;
+                fields[1][size[0]] = open;
+                fields[2][size[0]] = high;
+                fields[3][size[0]] = low;
+                fields[4][size[0]] = close;
+                fields[5][size[0]] = volume;
+                size[0]++;
+            });
+        }
+
+        return new BarSeries(symbol, Arrays.copyOf(fields[0], size[0]), Arrays.copyOf(fields[1], size[0]),
+                Arrays.copyOf(fields[2], size[0]), Arrays.copyOf(fields[3], size[0]),
+                Arrays.copyOf(fields[4], size[0]), Arrays.copyOf(fields[5], size[0]));
+    }
+
+    /**
+     * The ticker symbol of the bars
+     *
+     * @return The series' symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * The number of bars
+     *
+     * @return The number of bars in the series
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * The start time of a bar
+     *
+     * @param index The index of the bar
+     * @return The bar's time in epoch nanoseconds
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * The opening price of a bar
+     *
+     * @param index The index of the bar
+     * @return The bar's opening price in micro-units
+     */
+    public long getOpen(int index) {
+        return open[index];
+    }
+
+    /**
+     * The highest price of a bar
+     *
+     * @param index The index of the bar
+     * @return The bar's highest price in micro-units
+     */
+    public long getHigh(int index) {
+        return high[index];
+    }
+
+    /**
+     * The lowest price of a bar
+     *
+     * @param index The index of the bar
+     * @return The bar's lowest price in micro-units
+     */
+    public long getLow(int index) {
+        return low[index];
+    }
+
+    /**
+     * The closing price of a bar
+     *
+     * @param index The index of the bar
+     * @return The bar's closing price in micro-units
+     */
+    public long getClose(int index) {
+        return close[index];
+    }
+
+    /**
+     * The volume traded in a bar
+     *
+     * @param index The index of the bar
+     * @return The bar's volume
+     */
+    public long getVolume(int index) {
+        return volume[index];
+    }
+}
@@ -0,0 +1,42 @@
+package trading.backtest;
+
+import utilities.Status;
+
+/**
+ * Trading logic driven bar by bar through a {@link Backtest}.
+ *
+ * <p>
+ * A strategy is called from one thread per run, but a sweep runs many
+ * strategies at once, so each run should get its own instance.
+ * </p>
+ */
+@FunctionalInterface
+public interface Strategy {
+
+    /**
+     * Called once before the first bar
+     *
+     * @param context The run being started
+     */
+    default void onStart(Backtest.Context context) {
+    }
+
+    /**
+     * Called when a bar's close changes the asset's status, after the
+     * close has been applied and held positions marked to it, and
+     * before {@link #onBar} is called for the bar
+     *
+     * @param context The run, positioned at the current bar
+     * @param oldStatus The status before the bar
+     * @param newStatus The status after the bar
+     */
+    default void onStatusChange(Backtest.Context context, Status oldStatus, Status newStatus) {
+    }
+
+    /**
+     * Called after the asset has been updated to a bar's close
+     *
+     * @param context The run, positioned at the current bar
+     */
+    void onBar(Backtest.Context context);
+}
@@ -0,0 +1,54 @@
+package trading.data;
+
+import utilities.Asset;
+
+import java.util.Arrays;
+
+/**
+ * Sets the price of registered assets from the trades of their symbols.
+ * Trades of symbols with no registered asset are ignored.
+ */
+public class AssetQuoteSink implements QuoteSink {
+
+    private final SymbolTable symbols;
+    private Asset[] assets;
+
+    /**
+     * Constructs a sink
+     *
+     * @param symbols The symbol table of the importer feeding this sink
+     */
+    public AssetQuoteSink(SymbolTable symbols) {
+        this.symbols = symbols;
+        this.assets = new Asset[16];
+    }
+
+    /**
+     * Registers an asset to be priced from the trades of its symbol,
+     * replacing any asset registered for the same symbol
+     *
+     * @param asset The asset, must have a symbol
+     * @return The sink
+     */
+    public AssetQuoteSink register(Asset asset) {
+        if(asset.getSymbol() == null) {
+            throw new IllegalArgumentException("Only assets with a symbol can be priced from trades");
+        }
+
+        int id = symbols.intern(asset.getSymbol());
+
+        if(id >= assets.length) {
+            assets = Arrays.copyOf(assets, Math.max(id + 1, assets.length * 2));
+        }
+
+        assets[id] = asset;
+        return this;
+    }
+
+    @Override
+    public void onQuote(int symbolId, long timestamp, long price, long size) {
+        if(symbolId < assets.length && assets[symbolId] != null) {
+            assets[symbolId].setPriceMicros(price, timestamp);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package trading.data;
+
+import java.io.IOException;
+
+/**
+ * Receives bars parsed by {@link QuoteImporter#importBars}
+ */
+@FunctionalInterface
+public interface BarSink {
+
+    /**
+     * Called for each bar, in the order they were read
+     *
+     * @param time The start time of the bar in epoch nanoseconds
+     * @param open The opening price in micro-units
+     * @param high The highest price in micro-units
+     * @param low The lowest price in micro-units
+     * @param close The closing price in micro-units
+     * @param volume The volume traded
+     * @throws IOException If the bar cannot be stored
+     */
+    void onBar(long time, long open, long high, long low, long close, long volume) throws IOException;
+}
@@ -0,0 +1,523 @@
+package trading.data;
+
+import utilities.Money;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Parses Finnhub trade messages and CSV bar files straight from bytes.
+ *
+ * <p>
+ * Numbers are read digit by digit into fixed-point <code>long</code>s and
+ * symbols are looked up in a {@link SymbolTable} from their bytes, so no
+ * <code>String</code>s or boxed numbers are built per message. Prices and
+ * trade sizes are {@link Money} micro-units, and times are epoch nanoseconds.
+ * </p>
+ *
+ * <p>
+ * Finnhub trade messages look like
+ * <code>{"data":[{"p":7296.89,"s":"BINANCE:BTCUSDT","t":1575526691134,"v":0.011467}],"type":"trade"}</code>.
+ * Each entry of <code>data</code> is passed to the {@link QuoteSink}. Other
+ * messages, such as pings, have no <code>data</code> and are skipped.
+ * Recorded feeds hold one message per line.
+ * </p>
+ *
+ * <p>
+ * A trade missing its symbol, price, time or volume, or with a value that
+ * is not a number, is skipped rather than passed on with zeros, and so is a
+ * bar line without exactly six numbers. Skipped trades and bars are counted
+ * in {@link #getMalformed()}.
+ * </p>
+ *
+ * An importer is not thread-safe.
+ */
+public class QuoteImporter {
+
+    private static final byte[] DATA_KEY = {'"', 'd', 'a', 't', 'a', '"'};
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    // The number of decimal places of a micro-unit
+    private static final int MICRO_DIGITS = 6;
+
+    // The fields of a trade, as bits of the set of fields read
+    private static final int SYMBOL = 1;
+    private static final int PRICE = 2;
+    private static final int TIME = 4;
+    private static final int SIZE = 8;
+    private static final int ALL_FIELDS = SYMBOL | PRICE | TIME | SIZE;
+
+    // The number of columns of a bar file
+    private static final int BAR_FIELDS = 6;
+
+    /**
+     * Handles one line of a stream
+     */
+    @FunctionalInterface
+    private interface LineHandler {
+        void onLine(byte[] bytes, int start, int end) throws IOException;
+    }
+
+    private final SymbolTable symbols;
+    private final QuoteSink sink;
+    private final long[] bar;
+    private byte[] buffer;
+    private long malformed;
+
+    // The position after the last value parsed
+    private int cursor;
+
+    /**
+     * Constructs an importer for bar files only.
+     * Parsed trades are dropped.
+     */
+    public QuoteImporter() {
+        this(new SymbolTable(), (symbolId, timestamp, price, size) -> {});
+    }
+
+    /**
+     * Constructs an importer
+     *
+     * @param symbols The table to number symbols in
+     * @param sink Where to send parsed trades
+     */
+    public QuoteImporter(SymbolTable symbols, QuoteSink sink) {
+        this.symbols = symbols;
+        this.sink = sink;
+        this.bar = new long[BAR_FIELDS];
+        this.buffer = new byte[1 << 16];
+    }
+
+    /**
+     * The number of trades and bars skipped so far because
+     * a field was missing or was not a number
+     *
+     * @return The number of malformed trades and bars
+     */
+    public long getMalformed() {
+        return malformed;
+    }
+
+    /**
+     * The table symbols are numbered in
+     *
+     * @return The importer's symbol table
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Parses one Finnhub message, such as a WebSocket frame
+     *
+     * @param bytes The bytes holding the message
+     * @param offset The position of the message's first byte
+     * @param length The number of bytes in the message
+     * @return The number of trades sent to the sink
+     * @throws IOException If the sink fails
+     */
+    public int parseFinnhub(byte[] bytes, int offset, int length) throws IOException {
+        int end = offset + length;
+        int pos = indexOf(bytes, offset, end, DATA_KEY);
+
+        if(pos < 0) {
+            return 0;
+        }
+
+        pos = skipWhitespace(bytes, pos + DATA_KEY.length, end);
+
+        if(pos >= end || bytes[pos] != ':') {
+            return 0;
+        }
+
+        pos = skipWhitespace(bytes, pos + 1, end);
+
+        if(pos >= end || bytes[pos] != '[') {
+            return 0;
+        }
+
+        pos++;
+        int trades = 0;
+
+        while(true) {
+            pos = skipSeparators(bytes, pos, end);
+
+            if(pos >= end || bytes[pos] != '{') {
+                return trades;
+            }
+
+            pos++;
+            int symbol = -1;
+            long price = 0;
+            long timestamp = 0;
+            long size = 0;
+            int fields = 0;
+
+            while(true) {
+                pos = skipSeparators(bytes, pos, end);
+
+                if(pos >= end) {
+                    malformed++;
+                    return trades;
+                }
+
+                if(bytes[pos] == '}') {
+                    pos++;
+                    break;
+                }
+
+                int keyEnd = skipString(bytes, pos, end);
+                byte key = keyEnd - pos == 3 ? bytes[pos + 1] : 0;
+                pos = skipWhitespace(bytes, keyEnd, end);
+
+                if(pos >= end || bytes[pos] != ':') {
+                    malformed++;
+                    return trades;
+                }
+
+                pos = skipWhitespace(bytes, pos + 1, end);
+
+                switch(key) {
+                    case 'p', 't', 'v' -> {
+                        long value = this.parseFixed(bytes, pos, end, key == 't' ? 0 : MICRO_DIGITS);
+
+                        if(!this.parsedValue(bytes, pos, end)) {
+                            // Such as null or a string; leave the field unread
+                            pos = skipValue(bytes, pos, end);
+                            continue;
+                        }
+
+                        pos = cursor;
+
+                        if(key == 'p') {
+                            price = value;
+                            fields |= PRICE;
+                        } else if(key == 't') {
+                            timestamp = value * 1_000_000L;
+                            fields |= TIME;
+                        } else {
+                            size = value;
+                            fields |= SIZE;
+                        }
+                    }
+                    case 's' -> {
+                        if(pos >= end || bytes[pos] != '"') {
+                            pos = skipValue(bytes, pos, end);
+                            continue;
+                        }
+
+                        int stringEnd = skipString(bytes, pos, end);
+                        symbol = symbols.intern(bytes, pos + 1, stringEnd - pos - 2);
+                        fields |= SYMBOL;
+                        pos = stringEnd;
+                    }
+                    default -> pos = skipValue(bytes, pos, end);
+                }
+            }
+
+            if(fields == ALL_FIELDS) {
+                sink.onQuote(symbol, timestamp, price, size);
+                trades++;
+            } else {
+                malformed++;
+            }
+        }
+    }
+
+    /**
+     * Parses a recorded feed of Finnhub messages, one per line
+     *
+     * @param in The feed
+     * @return The number of trades sent to the sink
+     * @throws IOException If the feed cannot be read or the sink fails
+     */
+    public long importFinnhub(InputStream in) throws IOException {
+        long[] trades = {0};
+
+        this.forEachLine(in, (bytes, start, end) -> trades[0] += this.parseFinnhub(bytes, start, end - start));
+        return trades[0];
+    }
+
+    /**
+     * Parses a CSV file of bars with the columns
+     * <code>time,open,high,low,close,volume</code>.
+     *
+     * <p>
+     * Times are epoch seconds. Lines that do not start with a digit, such
+     * as a header, are skipped. Lines without exactly six numbers are
+     * skipped and counted in {@link #getMalformed()}.
+     * </p>
+     *
+     * @param in The CSV file
+     * @param bars Where to send parsed bars
+     * @return The number of bars sent
+     * @throws IOException If the file cannot be read or the sink fails
+     */
+    public long importBars(InputStream in, BarSink bars) throws IOException {
+        long[] count = {0};
+
+        this.forEachLine(in, (bytes, start, end) -> {
+            if(start == end || bytes[start] < '0' || bytes[start] > '9') {
+                return;
+            }
+
+            int pos = start;
+
+            for(int i = 0; i < BAR_FIELDS; i++) {
+                bar[i] = this.parseFixed(bytes, pos, end, i == 0 || i == BAR_FIELDS - 1 ? 0 : MICRO_DIGITS);
+
+                // Each number must be followed by a comma, and the last one by the end of the line
+                boolean last = i == BAR_FIELDS - 1;
+
+                if(cursor == pos || (last ? cursor != end : cursor == end || bytes[cursor] != ',')) {
+                    malformed++;
+                    return;
+                }
+
+                pos = cursor + 1;
+            }
+
+            bars.onBar(bar[0] * 1_000_000_000L, bar[1], bar[2], bar[3], bar[4], bar[5]);
+            count[0]++;
+        });
+
+        return count[0];
+    }
+
+    /**
+     * Splits a stream into lines inside the importer's buffer,
+     * growing the buffer for lines longer than it
+     */
+    private void forEachLine(InputStream in, LineHandler handler) throws IOException {
+        int filled = 0;
+
+        while(true) {
+            int read = in.read(buffer, filled, buffer.length - filled);
+
+            if(read < 0) {
+                break;
+            }
+
+            filled += read;
+            int start = 0;
+
+            for(int i = 0; i < filled; i++) {
+                if(buffer[i] == '\n') {
+                    handler.onLine(buffer, start, trimCarriageReturn(buffer, start, i));
+                    start = i + 1;
+                }
+            }
+
+            filled -= start;
+            System.arraycopy(buffer, start, buffer, 0, filled);
+
+            if(filled == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+
+        if(filled > 0) {
+            handler.onLine(buffer, 0, trimCarriageReturn(buffer, 0, filled));
+        }
+    }
+
+    /**
+     * Checks that the JSON value at <code>pos</code> was a number: that
+     * {@link #parseFixed} read digits there and stopped where the value ends
+     */
+    private boolean parsedValue(byte[] bytes, int pos, int end) {
+        if(cursor == pos) {
+            return false;
+        }
+
+        int next = skipWhitespace(bytes, cursor, end);
+        return next == end || bytes[next] == ',' || bytes[next] == '}';
+    }
+
+    /**
+     * Parses a decimal number, possibly with an exponent, as a fixed-point
+     * value with <code>scale</code> decimal places, rounding half up. Leaves
+     * {@link #cursor} after the number, or at <code>pos</code> if there
+     * are no digits there.
+     */
+    private long parseFixed(byte[] bytes, int pos, int end, int scale) {
+        int start = pos;
+        boolean negative = pos < end && bytes[pos] == '-';
+
+        if(negative) {
+            pos++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        boolean anyDigits = false;
+
+        for(; pos < end; pos++) {
+            byte b = bytes[pos];
+
+            if(b >= '0' && b <= '9') {
+                anyDigits = true;
+
+                if(digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+
+                    if(mantissa != 0) {
+                        digits++;
+                    }
+
+                    if(fraction) {
+                        exponent--;
+                    }
+                } else if(!fraction) {
+                    // Digits past what a long holds only scale the number
+                    exponent++;
+                }
+            } else if(b == '.') {
+                fraction = true;
+            } else if(b == 'e' || b == 'E') {
+                pos++;
+                boolean negativeExponent = pos < end && bytes[pos] == '-';
+
+                if(pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+                    pos++;
+                }
+
+                int value = 0;
+
+                for(; pos < end && bytes[pos] >= '0' && bytes[pos] <= '9'; pos++) {
+                    value = Math.min(value * 10 + (bytes[pos] - '0'), 1_000);
+                }
+
+                exponent += negativeExponent ? -value : value;
+                break;
+            } else {
+                break;
+            }
+        }
+
+        if(!anyDigits) {
+            cursor = start;
+            return 0;
+        }
+
+        cursor = pos;
+
+        int shift = exponent + scale;
+        long value;
+
+        if(mantissa == 0) {
+            value = 0;
+        } else if(shift >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Number too large for a long");
+        } else if(shift >= 0) {
+            value = Math.multiplyExact(mantissa, POWERS_OF_TEN[shift]);
+        } else if(-shift < POWERS_OF_TEN.length) {
+            long divisor = POWERS_OF_TEN[-shift];
+            value = (mantissa + divisor / 2) / divisor;
+        } else {
+            value = 0;
+        }
+
+        return negative ? -value : value;
+    }
+
+    private static int trimCarriageReturn(byte[] bytes, int start, int end) {
+        return end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int pos, int end) {
+        while(pos < end && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\n' || bytes[pos] == '\r')) {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    private static int skipSeparators(byte[] bytes, int pos, int end) {
+        pos = skipWhitespace(bytes, pos, end);
+
+        while(pos < end && bytes[pos] == ',') {
+            pos = skipWhitespace(bytes, pos + 1, end);
+        }
+
+        return pos;
+    }
+
+    /**
+     * Skips a JSON string starting at its opening quote
+     *
+     * @return The position after the closing quote
+     */
+    private static int skipString(byte[] bytes, int pos, int end) {
+        for(pos++; pos < end; pos++) {
+            if(bytes[pos] == '\\') {
+                pos++;
+            } else if(bytes[pos] == '"') {
+                return pos + 1;
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Skips any JSON value, including nested arrays and objects
+     *
+     * @return The position after the value
+     */
+    private static int skipValue(byte[] bytes, int pos, int end) {
+        int depth = 0;
+
+        for(; pos < end; pos++) {
+            byte b = bytes[pos];
+
+            if(b == '"') {
+                pos = skipString(bytes, pos, end);
+
+                if(depth == 0) {
+                    return pos;
+                }
+
+                pos--;
+            } else if(b == '[' || b == '{') {
+                depth++;
+            } else if(b == ']' || b == '}') {
+                if(depth == 0) {
+                    return pos;
+                }
+
+                if(--depth == 0) {
+                    return pos + 1;
+                }
+            } else if(b == ',' && depth == 0) {
+                return pos;
+            }
+        }
+
+        return end;
+    }
+
+    private static int indexOf(byte[] bytes, int start, int end, byte[] target) {
+        outer:
+        for(int i = start; i <= end - target.length; i++) {
+            for(int j = 0; j < target.length; j++) {
+                if(bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+
+            return i;
+        }
+
+        return -1;
+    }
+}
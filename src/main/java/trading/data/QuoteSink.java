@@ -0,0 +1,21 @@
+package trading.data;
+
+import java.io.IOException;
+
+/**
+ * Receives trades parsed by a {@link QuoteImporter}
+ */
+@FunctionalInterface
+public interface QuoteSink {
+
+    /**
+     * Called for each trade, in the order they were read
+     *
+     * @param symbolId The id of the trade's symbol in the importer's {@link SymbolTable}
+     * @param timestamp The time of the trade in epoch nanoseconds
+     * @param price The price of the trade in micro-units
+     * @param size The size of the trade in micro-units
+     * @throws IOException If the trade cannot be stored
+     */
+    void onQuote(int symbolId, long timestamp, long price, long size) throws IOException;
+}
@@ -0,0 +1,138 @@
+package trading.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Numbers ticker symbols in the order they are first seen.
+ *
+ * <p>
+ * Symbols are looked up straight from the bytes of a message, so a
+ * symbol that has been seen before is found without building a
+ * <code>String</code>. Only the first sighting of a symbol allocates.
+ * </p>
+ *
+ * A table is not thread-safe.
+ */
+public final class SymbolTable {
+
+    private byte[][] names;
+    private String[] symbols;
+    private int[] hashes;
+    private int size;
+
+    // Open-addressing slots holding symbol id + 1, or 0 when empty
+    private int[] slots;
+    private int mask;
+
+    public SymbolTable() {
+        this.names = new byte[16][];
+        this.symbols = new String[16];
+        this.hashes = new int[16];
+        this.slots = new int[32];
+        this.mask = slots.length - 1;
+    }
+
+    /**
+     * The number of symbols in the table
+     *
+     * @return The number of symbols
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The symbol with an id
+     *
+     * @param id The id of the symbol
+     * @return The symbol
+     */
+    public String getSymbol(int id) {
+        if(id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Symbol id " + id + " out of bounds for size " + size);
+        }
+
+        return symbols[id];
+    }
+
+    /**
+     * The id of a symbol, numbering it if it is new
+     *
+     * @param symbol The ticker symbol
+     * @return The symbol's id
+     */
+    public int intern(String symbol) {
+        byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+        return this.intern(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The id of the symbol held in <code>bytes[offset, offset + length)</code>
+     * as UTF-8, numbering it if it is new
+     *
+     * @param bytes The bytes holding the symbol
+     * @param offset The position of the symbol's first byte
+     * @param length The number of bytes in the symbol
+     * @return The symbol's id
+     */
+    public int intern(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+
+        for(int i = hash & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int id = slots[i] - 1;
+
+            if(hashes[id] == hash && Arrays.equals(names[id], 0, names[id].length, bytes, offset, offset + length)) {
+                return id;
+            }
+        }
+
+        return this.add(Arrays.copyOfRange(bytes, offset, offset + length), hash);
+    }
+
+    private int add(byte[] name, int hash) {
+        if(size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            symbols = Arrays.copyOf(symbols, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+
+        int id = size++;
+        names[id] = name;
+        symbols[id] = new String(name, StandardCharsets.UTF_8);
+        hashes[id] = hash;
+
+        if(size * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            mask = slots.length - 1;
+
+            for(int i = 0; i < size; i++) {
+                this.place(i);
+            }
+        } else {
+            this.place(id);
+        }
+
+        return id;
+    }
+
+    private void place(int id) {
+        int i = hashes[id] & mask;
+
+        while(slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+
+        slots[i] = id + 1;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0x811C9DC5;
+
+        for(int i = offset; i < offset + length; i++) {
+            hash = (hash ^ bytes[i]) * 0x01000193;
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,512 @@
+package trading.data;
+
+import utilities.Asset;
+import utilities.Money;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * An append-only file of fixed-size binary ticks, read and written
+ * through memory-mapped segments.
+ *
+ * <p>
+ * The file starts with a {@value #HEADER_BYTES}-byte header holding the
+ * number of ticks, followed by one {@value #RECORD_BYTES}-byte record per
+ * tick: <code>int symbolId, int flags, long timestamp, long price,
+ * long size</code>, little-endian. Records are read in place from the
+ * mapped segments, so scans copy nothing and do not allocate. The first
+ * segment is small and each later one doubles, up to a fixed size, so a
+ * small store makes a small file. Symbols are
+ * numbered in the order they are first seen and their names are kept in a
+ * <code>.symbols</code> file beside the store, one per line.
+ * </p>
+ *
+ * <p>
+ * The store keeps an index of each symbol's records, so a symbol's ticks
+ * in a time range are found by binary search without reading other
+ * symbols. Each symbol's ticks must therefore be appended in time order.
+ * The index is not saved; it is built in one pass the first time a
+ * symbol's ticks are looked up or appended, so opening a store, and
+ * scanning all of it, does not pay for it.
+ * </p>
+ *
+ * A store is not thread-safe. Open it for one thread at a time.
+ */
+public class TickStore implements Closeable {
+
+    /**
+     * The number of bytes in the file header
+     */
+    public static final int HEADER_BYTES = 32;
+
+    /**
+     * The number of bytes in one tick record
+     */
+    public static final int RECORD_BYTES = 32;
+
+    private static final int MAGIC = 0x5449434B;
+    private static final int VERSION = 1;
+
+    /**
+     * The log of the number of records in the first mapped segment. Each
+     * later segment holds as many records as all before it, until
+     * segments reach the maximum size.
+     */
+    private static final int FIRST_SEGMENT_SHIFT = 10;
+
+    /**
+     * The log of the largest number of records in one mapped segment
+     */
+    private static final int MAX_SEGMENT_SHIFT = 22;
+
+    /**
+     * The number of the first segment of the maximum size
+     */
+    private static final int FULL_SEGMENT = MAX_SEGMENT_SHIFT - FIRST_SEGMENT_SHIFT + 1;
+
+    // Offsets of the fields of a record
+    private static final int SYMBOL = 0;
+    private static final int FLAGS = 4;
+    private static final int TIMESTAMP = 8;
+    private static final int PRICE = 16;
+    private static final int SIZE = 24;
+
+    /**
+     * The positions in the store of one symbol's records, oldest first
+     */
+    private static final class SymbolIndex {
+        private long[] records = new long[64];
+        private int size;
+
+        private void add(long record) {
+            if(size == records.length) {
+                records = Arrays.copyOf(records, size + (size >> 1));
+            }
+
+            records[size++] = record;
+        }
+    }
+
+    private final FileChannel channel;
+    private final Path symbolFile;
+    private final MappedByteBuffer header;
+    private final ArrayList<MappedByteBuffer> segments;
+    private final ArrayList<String> symbols;
+    private final HashMap<String, Integer> symbolIds;
+    private final ArrayList<SymbolIndex> indexes;
+    private long count;
+    private long indexed;
+
+    private TickStore(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.symbolFile = file.resolveSibling(file.getFileName() + ".symbols");
+        this.segments = new ArrayList<>();
+        this.symbols = new ArrayList<>();
+        this.symbolIds = new HashMap<>();
+        this.indexes = new ArrayList<>();
+
+        boolean created = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        if(created) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putLong(8, 0);
+            header.putInt(16, RECORD_BYTES);
+        } else if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION
+                || header.getInt(16) != RECORD_BYTES) {
+            channel.close();
+            throw new IOException(file + " is not a version " + VERSION + " tick store");
+        }
+
+        this.count = header.getLong(8);
+
+        if(count > 0) {
+            this.segment(count - 1);
+        }
+
+        if(Files.exists(symbolFile)) {
+            for(String symbol : Files.readAllLines(symbolFile, StandardCharsets.UTF_8)) {
+                symbolIds.put(symbol, symbols.size());
+                symbols.add(symbol);
+                indexes.add(new SymbolIndex());
+            }
+        } else if(count > 0) {
+            channel.close();
+            throw new IOException("Corrupt tick store: " + file + " has ticks but " + symbolFile + " is missing");
+        }
+    }
+
+    /**
+     * Opens a store, creating it if the file does not exist
+     *
+     * @param file The store's file
+     * @return The open store
+     * @throws IOException If the file cannot be opened, is not a tick store
+     *                     or is missing its symbols
+     */
+    public static TickStore open(Path file) throws IOException {
+        return new TickStore(file);
+    }
+
+    /**
+     * The number of ticks in the store
+     *
+     * @return The number of ticks
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * The id of a symbol, if the store has seen it
+     *
+     * @param symbol The ticker symbol
+     * @return The symbol's id, or <code>-1</code> if it has no ticks
+     */
+    public int getSymbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * The id of a symbol, numbering it if it is new
+     *
+     * @param symbol The ticker symbol
+     * @return The symbol's id
+     * @throws IOException If a new symbol cannot be recorded
+     */
+    public int addSymbol(String symbol) throws IOException {
+        Integer id = symbolIds.get(symbol);
+
+        if(id != null) {
+            return id;
+        }
+
+        if(symbol.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Symbols cannot contain line breaks");
+        }
+
+        Files.writeString(symbolFile, symbol + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        symbolIds.put(symbol, symbols.size());
+        symbols.add(symbol);
+        indexes.add(new SymbolIndex());
+        return symbols.size() - 1;
+    }
+
+    /**
+     * The symbols in the store
+     *
+     * @return A read-only list of symbols, indexed by id
+     */
+    public List<String> getSymbols() {
+        return Collections.unmodifiableList(symbols);
+    }
+
+    /**
+     * The number of ticks of a symbol
+     *
+     * @param symbolId The id of the symbol
+     * @return The number of the symbol's ticks
+     */
+    public int size(int symbolId) {
+        return this.index(symbolId).size;
+    }
+
+    /**
+     * Appends a tick
+     *
+     * @param symbolId The id of the symbol, from {@link #addSymbol(String)}
+     * @param timestamp The time of the tick in epoch nanoseconds,
+     *                  no earlier than the symbol's last tick
+     * @param price The price in micro-units
+     * @param size The size of the tick
+     * @throws IOException If the file cannot grow
+     */
+    public void append(int symbolId, long timestamp, long price, long size) throws IOException {
+        this.append(symbolId, timestamp, price, size, 0);
+    }
+
+    /**
+     * Appends a tick with flags
+     *
+     * @param symbolId The id of the symbol, from {@link #addSymbol(String)}
+     * @param timestamp The time of the tick in epoch nanoseconds,
+     *                  no earlier than the symbol's last tick
+     * @param price The price in micro-units
+     * @param size The size of the tick
+     * @param flags Flags to store with the tick
+     * @throws IOException If the file cannot grow
+     */
+    public void append(int symbolId, long timestamp, long price, long size, int flags) throws IOException {
+        SymbolIndex index = this.index(symbolId);
+
+        if(index.size > 0 && timestamp < this.getTimestamp(index.records[index.size - 1])) {
+            throw new IllegalArgumentException("Ticks of " + symbols.get(symbolId) + " must be appended in time order");
+        }
+
+        MappedByteBuffer segment = this.segment(count);
+        int offset = offset(count);
+
+        segment.putInt(offset + SYMBOL, symbolId);
+        segment.putInt(offset + FLAGS, flags);
+        segment.putLong(offset + TIMESTAMP, timestamp);
+        segment.putLong(offset + PRICE, price);
+        segment.putLong(offset + SIZE, size);
+
+        index.add(count);
+        header.putLong(8, ++count);
+        indexed = count;
+    }
+
+    /**
+     * The timestamp of the tick at a position
+     *
+     * @param record The position of the tick in the store
+     * @return The tick's time in epoch nanoseconds
+     */
+    public long getTimestamp(long record) {
+        return this.read(record).getLong(offset(record) + TIMESTAMP);
+    }
+
+    /**
+     * The price of the tick at a position
+     *
+     * @param record The position of the tick in the store
+     * @return The tick's price in micro-units
+     */
+    public long getPrice(long record) {
+        return this.read(record).getLong(offset(record) + PRICE);
+    }
+
+    /**
+     * The size of the tick at a position
+     *
+     * @param record The position of the tick in the store
+     * @return The tick's size
+     */
+    public long getSize(long record) {
+        return this.read(record).getLong(offset(record) + SIZE);
+    }
+
+    /**
+     * Visits every tick in the order they were appended
+     *
+     * @param visitor The visitor
+     */
+    public void scan(TickVisitor visitor) {
+        for(long i = 0; i < count; i++) {
+            this.visit(i, visitor);
+        }
+    }
+
+    /**
+     * Visits a symbol's ticks in <code>[from, to)</code>, oldest first
+     *
+     * @param symbolId The id of the symbol
+     * @param from The start of the range in epoch nanoseconds, inclusive
+     * @param to The end of the range in epoch nanoseconds, exclusive
+     * @param visitor The visitor
+     * @return The number of ticks visited
+     */
+    public int scan(int symbolId, long from, long to, TickVisitor visitor) {
+        SymbolIndex index = this.index(symbolId);
+        int start = this.seek(index, from);
+        int end = this.seek(index, to);
+
+        for(int i = start; i < end; i++) {
+            this.visit(index.records[i], visitor);
+        }
+
+        return Math.max(end - start, 0);
+    }
+
+    /**
+     * Loads the asset's ticks in <code>[from, to)</code> into its price
+     * history and sets its price to the last of them. Listeners are
+     * notified once, of the last price.
+     *
+     * @param asset The asset, matched to ticks by its symbol
+     * @param from The start of the range in epoch nanoseconds, inclusive
+     * @param to The end of the range in epoch nanoseconds, exclusive
+     * @return The number of ticks loaded
+     */
+    public int loadInto(Asset asset, long from, long to) {
+        int symbolId = this.getSymbolId(asset.getSymbol());
+
+        if(symbolId < 0) {
+            return 0;
+        }
+
+        SymbolIndex index = this.index(symbolId);
+        int start = this.seek(index, from);
+        int end = this.seek(index, to);
+
+        if(start >= end) {
+            return 0;
+        }
+
+        synchronized(asset) {
+            for(int i = start; i < end - 1; i++) {
+                long record = index.records[i];
+                asset.getPriceHistory().add(Money.toDouble(this.getPrice(record)), this.getTimestamp(record));
+            }
+
+            long last = index.records[end - 1];
+            asset.setPriceMicros(this.getPrice(last), this.getTimestamp(last));
+        }
+
+        return end - start;
+    }
+
+    /**
+     * Writes all appended ticks to disk
+     */
+    public void force() {
+        for(MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.force();
+        segments.clear();
+        channel.close();
+    }
+
+    /**
+     * The index of a symbol's records, first indexing every record
+     * appended before the store was opened
+     */
+    private SymbolIndex index(int symbolId) {
+        for(; indexed < count; indexed++) {
+            int id = this.symbolIdAt(indexed);
+
+            if(id < 0 || id >= indexes.size()) {
+                throw new UncheckedIOException(new IOException(
+                        "Corrupt tick store: record " + indexed + " has unknown symbol id " + id));
+            }
+
+            indexes.get(id).add(indexed);
+        }
+
+        return indexes.get(symbolId);
+    }
+
+    /**
+     * Finds the first of a symbol's ticks at or after <code>timestamp</code>
+     *
+     * @return The position in the symbol's index
+     */
+    private int seek(SymbolIndex index, long timestamp) {
+        int low = 0;
+        int high = index.size;
+
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+
+            if(this.getTimestamp(index.records[mid]) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private void visit(long record, TickVisitor visitor) {
+        MappedByteBuffer segment = this.read(record);
+        int offset = offset(record);
+
+        visitor.onTick(segment.getInt(offset + SYMBOL), segment.getLong(offset + TIMESTAMP),
+                segment.getLong(offset + PRICE), segment.getLong(offset + SIZE), segment.getInt(offset + FLAGS));
+    }
+
+    private int symbolIdAt(long record) {
+        return this.read(record).getInt(offset(record) + SYMBOL);
+    }
+
+    private MappedByteBuffer read(long record) {
+        if(record < 0 || record >= count) {
+            throw new IndexOutOfBoundsException("Record " + record + " out of bounds for size " + count);
+        }
+
+        return segments.get(segmentOf(record));
+    }
+
+    /**
+     * The segment holding a record, mapping segments up to it if needed.
+     * Mapping a segment grows the file to hold it.
+     */
+    private MappedByteBuffer segment(long record) throws IOException {
+        int number = segmentOf(record);
+
+        while(segments.size() <= number) {
+            int next = segments.size();
+            long position = HEADER_BYTES + segmentStart(next) * RECORD_BYTES;
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                    (segmentStart(next + 1) - segmentStart(next)) * RECORD_BYTES);
+
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segments.add(segment);
+        }
+
+        return segments.get(number);
+    }
+
+    /**
+     * The number of the segment holding a record
+     */
+    private static int segmentOf(long record) {
+        if(record < 1L << FIRST_SEGMENT_SHIFT) {
+            return 0;
+        }
+
+        if(record < 1L << MAX_SEGMENT_SHIFT) {
+            return 64 - Long.numberOfLeadingZeros(record) - FIRST_SEGMENT_SHIFT;
+        }
+
+        return (int) (record >>> MAX_SEGMENT_SHIFT) + FULL_SEGMENT - 1;
+    }
+
+    /**
+     * The first record of a segment
+     */
+    private static long segmentStart(int number) {
+        if(number == 0) {
+            return 0;
+        }
+
+        if(number < FULL_SEGMENT) {
+            return 1L << (FIRST_SEGMENT_SHIFT + number - 1);
+        }
+
+        return (long) (number - FULL_SEGMENT + 1) << MAX_SEGMENT_SHIFT;
+    }
+
+    private static int offset(long record) {
+        return (int) (record - segmentStart(segmentOf(record))) * RECORD_BYTES;
+    }
+}
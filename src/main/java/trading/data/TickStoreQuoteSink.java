@@ -0,0 +1,42 @@
+package trading.data;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Appends trades to a {@link TickStore}, adding their symbols
+ * to the store the first time they are seen.
+ */
+public class TickStoreQuoteSink implements QuoteSink {
+
+    private final SymbolTable symbols;
+    private final TickStore store;
+
+    // Store symbol id + 1 for each importer symbol id, or 0 if not yet added
+    private int[] storeIds;
+
+    /**
+     * Constructs a sink
+     *
+     * @param symbols The symbol table of the importer feeding this sink
+     * @param store The store to append to
+     */
+    public TickStoreQuoteSink(SymbolTable symbols, TickStore store) {
+        this.symbols = symbols;
+        this.store = store;
+        this.storeIds = new int[16];
+    }
+
+    @Override
+    public void onQuote(int symbolId, long timestamp, long price, long size) throws IOException {
+        if(symbolId >= storeIds.length) {
+            storeIds = Arrays.copyOf(storeIds, Math.max(symbolId + 1, storeIds.length * 2));
+        }
+
+        if(storeIds[symbolId] == 0) {
+            storeIds[symbolId] = store.addSymbol(symbols.getSymbol(symbolId)) + 1;
+        }
+
+        store.append(storeIds[symbolId] - 1, timestamp, price, size);
+    }
+}
@@ -0,0 +1,20 @@
+package trading.data;
+
+/**
+ * Receives ticks read from a {@link TickStore}. The fields are
+ * passed as primitives, so scanning a store does not allocate.
+ */
+@FunctionalInterface
+public interface TickVisitor {
+
+    /**
+     * Called for each tick, in the order the ticks were appended
+     *
+     * @param symbolId The id of the tick's symbol
+     * @param timestamp The time of the tick in epoch nanoseconds
+     * @param price The price of the tick in micro-units
+     * @param size The size of the tick
+     * @param flags The flags stored with the tick
+     */
+    void onTick(int symbolId, long timestamp, long price, long size, int flags);
+}
@@ -0,0 +1,85 @@
+package trading.indicators;
+
+/**
+ * Bands a number of standard deviations above and below the
+ * simple moving average of the last <code>n</code> prices.
+ * The {@link #value()} is the middle band.
+ */
+public class BollingerBands implements Indicator {
+
+    private final RollingWindow window;
+    private final double width;
+
+    /**
+     * Constructs bands
+     *
+     * @param length The number of prices, commonly <code>20</code>
+     * @param width The number of standard deviations from the
+     *              middle to each band, commonly <code>2</code>
+     */
+    public BollingerBands(int length, double width) {
+        this.window = new RollingWindow(length);
+        this.width = width;
+    }
+
+    @Override
+    public void update(double price, double volume) {
+        window.add(price);
+    }
+
+    @Override
+    public double value() {
+        return window.isFull() ? window.mean() : Double.NaN;
+    }
+
+    /**
+     * The upper band
+     *
+     * @return The upper band, or <code>NaN</code> if not ready
+     */
+    public double upper() {
+        return this.value() + width * this.standardDeviation();
+    }
+
+    /**
+     * The lower band
+     *
+     * @return The lower band, or <code>NaN</code> if not ready
+     */
+    public double lower() {
+        return this.value() - width * this.standardDeviation();
+    }
+
+    /**
+     * Where the last price sits between the bands: <code>0</code>
+     * at the lower band and <code>1</code> at the upper band
+     *
+     * @param price The price
+     * @return The price's position, or <code>NaN</code> if not ready
+     *         or the bands have no width
+     */
+    public double percentB(double price) {
+        double lower = this.lower();
+        double upper = this.upper();
+        return upper > lower ? (price - lower) / (upper - lower) : Double.NaN;
+    }
+
+    /**
+     * The population standard deviation of the prices
+     *
+     * @return The standard deviation, or <code>NaN</code> if not ready
+     */
+    public double standardDeviation() {
+        return window.isFull() ? Math.sqrt(window.variance()) : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package trading.indicators;
+
+/**
+ * An average that weights recent prices more, each price's weight
+ * decaying by a constant factor per update.
+ *
+ * <p>
+ * The average starts at the first price and is ready once it has
+ * seen as many prices as its length.
+ * </p>
+ */
+public class ExponentialMovingAverage implements Indicator {
+
+    private final int length;
+    private final double alpha;
+    private double value;
+    private int count;
+
+    /**
+     * Constructs an average with a smoothing factor
+     * of <code>2 / (length + 1)</code>
+     *
+     * @param length The number of prices the average spans
+     */
+    public ExponentialMovingAverage(int length) {
+        if(length <= 0) {
+            throw new IllegalArgumentException("Length must be positive");
+        }
+
+        this.length = length;
+        this.alpha = 2.0 / (length + 1);
+    }
+
+    @Override
+    public void update(double price, double volume) {
+        value = count == 0 ? price : value + alpha * (price - value);
+        count++;
+    }
+
+    @Override
+    public double value() {
+        return this.isReady() ? value : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= length;
+    }
+
+    @Override
+    public void reset() {
+        value = 0;
+        count = 0;
+    }
+}
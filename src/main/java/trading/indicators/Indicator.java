@@ -0,0 +1,112 @@
+package trading.indicators;
+
+import utilities.Asset;
+import utilities.AssetListener;
+import utilities.Money;
+
+/**
+ * A technical indicator computed incrementally from a stream of prices.
+ *
+ * <p>
+ * Each update takes constant time and keeps only primitive state, so
+ * updating an indicator never allocates. An indicator can be fed directly,
+ * subscribed to an {@link Asset} with {@link Asset#addListener}, or
+ * evaluated over a whole array of prices with {@link #evaluate}.
+ * Assets report prices without volume, so each price from an
+ * asset counts as a volume of one.
+ * </p>
+ *
+ * An indicator is not thread-safe. Subscribed to an asset, it is updated
+ * under the asset's monitor, so read it while holding that monitor or
+ * from the thread that changes the asset.
+ */
+public interface Indicator extends AssetListener {
+
+    /**
+     * Adds a price
+     *
+     * @param price The price
+     * @param volume The volume traded at the price
+     */
+    void update(double price, double volume);
+
+    /**
+     * Adds a price with a volume of one
+     *
+     * @param price The price
+     */
+    default void update(double price) {
+        this.update(price, 1);
+    }
+
+    /**
+     * The current value of the indicator
+     *
+     * @return The value, or <code>NaN</code> if the indicator is not ready
+     */
+    double value();
+
+    /**
+     * If enough prices have been added for the value to be meaningful
+     *
+     * @return If the indicator is ready
+     */
+    boolean isReady();
+
+    /**
+     * Forgets every price added so far
+     */
+    void reset();
+
+    @Override
+    default void onPriceChange(Asset asset, long oldPrice, long newPrice) {
+        this.update(Money.toDouble(newPrice));
+    }
+
+    /**
+     * Resets the indicator and evaluates it over a series of prices,
+     * each with a volume of one
+     *
+     * @param prices The prices, oldest first
+     * @param out The array to write the value after each price to,
+     *            <code>NaN</code> until the indicator is ready
+     */
+    default void evaluate(double[] prices, double[] out) {
+        this.reset();
+
+        for(int i = 0; i < prices.length; i++) {
+            this.update(prices[i]);
+            out[i] = this.value();
+        }
+    }
+
+    /**
+     * Resets the indicator and evaluates it over a series of prices and volumes
+     *
+     * @param prices The prices, oldest first
+     * @param volumes The volume traded at each price
+     * @param out The array to write the value after each price to,
+     *            <code>NaN</code> until the indicator is ready
+     */
+    default void evaluate(double[] prices, double[] volumes, double[] out) {
+        this.reset();
+
+        for(int i = 0; i < prices.length; i++) {
+            this.update(prices[i], volumes[i]);
+            out[i] = this.value();
+        }
+    }
+
+    /**
+     * Resets the indicator and evaluates it over a series of prices
+     *
+     * @param prices The prices, oldest first
+     * @return The value after each price, <code>NaN</code> until the indicator is ready
+     */
+    default double[] evaluate(double[] prices) {
+        double[] out = new double[prices.length];
+
+        this.evaluate(prices, out);
+        return out;
+    }
+}
@@ -0,0 +1,84 @@
+package trading.indicators;
+
+/**
+ * Wilder's relative strength index: the share of recent price moves
+ * that were gains, from <code>0</code> to <code>100</code>.
+ *
+ * <p>
+ * The average gain and loss start as simple averages of the first
+ * <code>n</code> moves, and are then smoothed by Wilder's method.
+ * </p>
+ */
+public class RelativeStrengthIndex implements Indicator {
+
+    private final int length;
+    private double previous;
+    private double averageGain;
+    private double averageLoss;
+    private int moves;
+    private boolean started;
+
+    /**
+     * Constructs an index
+     *
+     * @param length The number of moves averaged, commonly <code>14</code>
+     */
+    public RelativeStrengthIndex(int length) {
+        if(length <= 0) {
+            throw new IllegalArgumentException("Length must be positive");
+        }
+
+        this.length = length;
+    }
+
+    @Override
+    public void update(double price, double volume) {
+        if(!started) {
+            previous = price;
+            started = true;
+            return;
+        }
+
+        double change = price - previous;
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+        previous = price;
+
+        if(moves < length) {
+            averageGain += gain / length;
+            averageLoss += loss / length;
+        } else {
+            averageGain = (averageGain * (length - 1) + gain) / length;
+            averageLoss = (averageLoss * (length - 1) + loss) / length;
+        }
+
+        moves++;
+    }
+
+    @Override
+    public double value() {
+        if(!this.isReady()) {
+            return Double.NaN;
+        }
+
+        if(averageLoss == 0) {
+            return averageGain == 0 ? 50 : 100;
+        }
+
+        return 100 - 100 / (1 + averageGain / averageLoss);
+    }
+
+    @Override
+    public boolean isReady() {
+        return moves >= length;
+    }
+
+    @Override
+    public void reset() {
+        previous = 0;
+        averageGain = 0;
+        averageLoss = 0;
+        moves = 0;
+        started = false;
+    }
+}
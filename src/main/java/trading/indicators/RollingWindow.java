@@ -0,0 +1,85 @@
+package trading.indicators;
+
+/**
+ * The last <code>n</code> values of a series, with their running
+ * sum and sum of squares.
+ *
+ * <p>
+ * The sums are updated in constant time as values enter and leave the
+ * window. To stop rounding error building up over long series, they are
+ * recomputed from the window each time it wraps around, which is still
+ * constant time per value on average.
+ * </p>
+ */
+final class RollingWindow {
+
+    private final double[] values;
+    private int head;
+    private int count;
+    private double sum;
+    private double sumOfSquares;
+
+    RollingWindow(int length) {
+        if(length <= 0) {
+            throw new IllegalArgumentException("Length must be positive");
+        }
+
+        this.values = new double[length];
+    }
+
+    void add(double value) {
+        if(count == values.length) {
+            double old = values[head];
+            sum -= old;
+            sumOfSquares -= old * old;
+        } else {
+            count++;
+        }
+
+        values[head] = value;
+        sum += value;
+        sumOfSquares += value * value;
+
+        if(++head == values.length) {
+            head = 0;
+            this.recompute();
+        }
+    }
+
+    boolean isFull() {
+        return count == values.length;
+    }
+
+    int length() {
+        return values.length;
+    }
+
+    double mean() {
+        return sum / count;
+    }
+
+    /**
+     * The population variance of the window
+     */
+    double variance() {
+        double mean = sum / count;
+        return Math.max(sumOfSquares / count - mean * mean, 0);
+    }
+
+    void clear() {
+        head = 0;
+        count = 0;
+        sum = 0;
+        sumOfSquares = 0;
+    }
+
+    private void recompute() {
+        sum = 0;
+        sumOfSquares = 0;
+
+        for(int i = 0; i < count; i++) {
+            sum += values[i];
+            sumOfSquares += values[i] * values[i];
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package trading.indicators;
+
+/**
+ * The mean of the last <code>n</code> prices
+ */
+public class SimpleMovingAverage implements Indicator {
+
+    private final RollingWindow window;
+
+    /**
+     * Constructs an average
+     *
+     * @param length The number of prices averaged
+     */
+    public SimpleMovingAverage(int length) {
+        this.window = new RollingWindow(length);
+    }
+
+    @Override
+    public void update(double price, double volume) {
+        window.add(price);
+    }
+
+    @Override
+    public double value() {
+        return window.isFull() ? window.mean() : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+    }
+}
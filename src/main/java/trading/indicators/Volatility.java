@@ -0,0 +1,57 @@
+package trading.indicators;
+
+/**
+ * The standard deviation of the log returns between
+ * the last <code>n + 1</code> prices, per update.
+ */
+public class Volatility implements Indicator {
+
+    private final RollingWindow returns;
+    private double previous;
+
+    /**
+     * Constructs a volatility
+     *
+     * @param length The number of returns
+     */
+    public Volatility(int length) {
+        this.returns = new RollingWindow(length);
+        this.previous = Double.NaN;
+    }
+
+    @Override
+    public void update(double price, double volume) {
+        if(previous > 0 && price > 0) {
+            returns.add(Math.log(price / previous));
+        }
+
+        previous = price;
+    }
+
+    @Override
+    public double value() {
+        return returns.isFull() ? Math.sqrt(returns.variance()) : Double.NaN;
+    }
+
+    /**
+     * The volatility scaled to a longer period, such as a year
+     *
+     * @param updatesPerPeriod The number of updates in the period,
+     *                         such as <code>252</code> for daily prices and a year
+     * @return The volatility over the period, or <code>NaN</code> if not ready
+     */
+    public double annualized(double updatesPerPeriod) {
+        return this.value() * Math.sqrt(updatesPerPeriod);
+    }
+
+    @Override
+    public boolean isReady() {
+        return returns.isFull();
+    }
+
+    @Override
+    public void reset() {
+        returns.clear();
+        previous = Double.NaN;
+    }
+}
@@ -0,0 +1,34 @@
+package trading.indicators;
+
+/**
+ * The average price weighted by the volume traded at each price,
+ * since the indicator was created or last reset. Reset it at the
+ * start of each session.
+ */
+public class VolumeWeightedAveragePrice implements Indicator {
+
+    private double priceVolume;
+    private double volume;
+
+    @Override
+    public void update(double price, double volume) {
+        this.priceVolume += price * volume;
+        this.volume += volume;
+    }
+
+    @Override
+    public double value() {
+        return volume > 0 ? priceVolume / volume : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return volume > 0;
+    }
+
+    @Override
+    public void reset() {
+        priceVolume = 0;
+        volume = 0;
+    }
+}
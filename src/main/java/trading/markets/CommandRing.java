@@ -0,0 +1,179 @@
+package trading.markets;
+
+import utilities.Asset;
+import utilities.Market;
+import utilities.Side;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer queue of
+ * market commands.
+ *
+ * <p>
+ * Commands are written into preallocated slots, so queueing one does not
+ * allocate. Each slot carries a sequence number: producers claim a position
+ * with a compare-and-set on the tail and publish the slot by advancing its
+ * sequence, and the consumer hands the slot back the same way. Producers
+ * spin while the ring is full.
+ * </p>
+ *
+ * Once {@link #close() closed}, a ring refuses new commands, and the
+ * consumer can tell when it has taken every command queued before.
+ */
+final class CommandRing {
+
+    static final int SUBMIT = 0;
+    static final int CANCEL = 1;
+
+    /**
+     * The bit of the tail set once the ring is closed
+     */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    /**
+     * A command waiting in the ring
+     */
+    static final class Command {
+        int type;
+        long id;
+        Market.Participant participant;
+        Asset asset;
+        Side side;
+        long limitPrice;
+        int quantity;
+    }
+
+    private final Command[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail;
+    private long head;
+
+    /**
+     * Constructs a ring
+     *
+     * @param capacity The number of slots, rounded up to a power of two
+     */
+    CommandRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+        this.slots = new Command[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+
+        for(int i = 0; i < size; i++) {
+            slots[i] = new Command();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Queues an order. Safe to call from any thread.
+     *
+     * @throws IllegalStateException If the ring is closed
+     */
+    void offerSubmit(long id, Market.Participant participant, Asset asset, Side side, long limitPrice, int quantity) {
+        long position = claim();
+        Command command = slots[(int) position & mask];
+
+        command.type = SUBMIT;
+        command.id = id;
+        command.participant = participant;
+        command.asset = asset;
+        command.side = side;
+        command.limitPrice = limitPrice;
+        command.quantity = quantity;
+
+        sequences.set((int) position & mask, position + 1);
+    }
+
+    /**
+     * Queues a cancel. Safe to call from any thread.
+     *
+     * @throws IllegalStateException If the ring is closed
+     */
+    void offerCancel(long id) {
+        long position = claim();
+        Command command = slots[(int) position & mask];
+
+        command.type = CANCEL;
+        command.id = id;
+
+        sequences.set((int) position & mask, position + 1);
+    }
+
+    /**
+     * The next command, if one has been published. Only
+     * the consumer thread may call this.
+     *
+     * @return The next command, or <code>null</code> if the ring is empty
+     */
+    Command poll() {
+        int index = (int) head & mask;
+
+        if(sequences.get(index) != head + 1) {
+            return null;
+        }
+
+        return slots[index];
+    }
+
+    /**
+     * Hands the command returned by {@link #poll()} back to producers
+     */
+    void release() {
+        int index = (int) head & mask;
+        Command command = slots[index];
+
+        command.participant = null;
+        command.asset = null;
+        command.side = null;
+
+        sequences.set(index, head + slots.length);
+        head++;
+    }
+
+    /**
+     * Refuses any further commands. Commands already claimed are
+     * still published. Safe to call from any thread.
+     */
+    void close() {
+        tail.getAndUpdate(position -> position | CLOSED);
+    }
+
+    /**
+     * If the ring is closed and the consumer has released every
+     * command queued before. Only the consumer thread may call this.
+     *
+     * @return If nothing more will be queued
+     */
+    boolean isDrained() {
+        long position = tail.get();
+        return position < 0 && head == (position & ~CLOSED);
+    }
+
+    private long claim() {
+        while(true) {
+            long position = tail.get();
+
+            // Checked on every spin, so producers waiting on a full ring give up too
+            if(position < 0) {
+                throw new IllegalStateException("The market is closed");
+            }
+
+            long sequence = sequences.get((int) position & mask);
+
+            if(sequence == position) {
+                if(tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if(sequence < position) {
+                // Full; wait for the consumer to free the slot
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package trading.markets;
+
+import utilities.Asset;
+import utilities.Market;
+import utilities.Side;
+
+/**
+ * A market with no book: every order that is marketable at the asset's
+ * current price fills in full at that price, straight away, and every
+ * other order is cancelled. Useful for backtests and simulations that
+ * trade at quoted prices.
+ *
+ * A market is not thread-safe; give each trading thread its own.
+ *
+ * @param <T> The type of asset traded
+ */
+public class ImmediateMarket<T extends Asset> extends Market<T> {
+
+    private long sequence;
+
+    @Override
+    public long submit(Participant participant, T asset, Side side, long limitPrice, int quantity) {
+        long price = asset.getPriceMicros();
+        boolean marketable = side == Side.BUY ? price <= limitPrice : price >= limitPrice;
+
+        if(participant != null) {
+            if(marketable) {
+                participant.onFill(asset, side, limitPrice, price, quantity);
+            } else {
+                participant.onCancel(asset, side, limitPrice, quantity);
+            }
+        }
+
+        return ++sequence;
+    }
+
+    /**
+     * Orders never rest, so there is nothing to cancel
+     *
+     * @param orderId The id of the order
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean cancel(long orderId) {
+        return false;
+    }
+}
@@ -0,0 +1,188 @@
+package trading.markets;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The prices of a fixed set of symbols at one moment.
+ *
+ * <p>
+ * A snapshot never changes once made, so any number of threads can read
+ * it without locking. Each newer snapshot has a higher epoch and shares
+ * its symbol table with the snapshot it came from, so making one only
+ * copies the prices.
+ * </p>
+ */
+public final class MarketSnapshot {
+
+    private final long epoch;
+    private final long timestamp;
+    private final List<String> symbols;
+    private final Map<String, Integer> indexes;
+    private final long[] prices;
+
+    private MarketSnapshot(long epoch, long timestamp, List<String> symbols,
+                           Map<String, Integer> indexes, long[] prices) {
+        this.epoch = epoch;
+        this.timestamp = timestamp;
+        this.symbols = symbols;
+        this.indexes = indexes;
+        this.prices = prices;
+    }
+
+    /**
+     * Makes the first snapshot of a set of symbols
+     *
+     * @param symbols The symbols, in the order of <code>prices</code>
+     * @param prices The price of each symbol in micro-units
+     * @param timestamp The time of the prices in epoch nanoseconds
+     * @return A snapshot with epoch <code>0</code>
+     */
+    public static MarketSnapshot of(List<String> symbols, long[] prices, long timestamp) {
+        if(symbols.size() != prices.length) {
+            throw new IllegalArgumentException("There must be one price per symbol");
+        }
+
+        Map<String, Integer> indexes = new HashMap<>(symbols.size() * 2);
+
+        for(int i = 0; i < symbols.size(); i++) {
+            if(indexes.put(symbols.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate symbol " + symbols.get(i));
+            }
+        }
+
+        return new MarketSnapshot(0, timestamp, List.copyOf(symbols),
+                Collections.unmodifiableMap(indexes), prices.clone());
+    }
+
+    /**
+     * Makes the snapshot that follows this one
+     *
+     * @param prices The new price of each symbol in micro-units
+     * @param timestamp The time of the prices in epoch nanoseconds
+     * @return A snapshot with the next epoch
+     */
+    public MarketSnapshot next(long[] prices, long timestamp) {
+        if(prices.length != this.prices.length) {
+            throw new IllegalArgumentException("There must be one price per symbol");
+        }
+
+        return new MarketSnapshot(epoch + 1, timestamp, symbols, indexes, prices.clone());
+    }
+
+    /**
+     * Makes the snapshot that follows this one with one price changed
+     *
+     * @param index The index of the symbol
+     * @param price The symbol's new price in micro-units
+     * @param timestamp The time of the price in epoch nanoseconds
+     * @return A snapshot with the next epoch
+     */
+    public MarketSnapshot next(int index, long price, long timestamp) {
+        long[] copy = Arrays.copyOf(prices, prices.length);
+        copy[index] = price;
+
+        return new MarketSnapshot(epoch + 1, timestamp, symbols, indexes, copy);
+    }
+
+    /**
+     * Makes the snapshot that follows this one with some prices changed
+     *
+     * @param changed The indexes of the symbols whose prices changed
+     * @param changedPrices The new price of each changed symbol in micro-units
+     * @param timestamp The time of the prices in epoch nanoseconds
+     * @return A snapshot with the next epoch
+     */
+    public MarketSnapshot next(int[] changed, long[] changedPrices, long timestamp) {
+        if(changed.length != changedPrices.length) {
+            throw new IllegalArgumentException("There must be one price per changed symbol");
+        }
+
+        long[] copy = Arrays.copyOf(prices, prices.length);
+
+        for(int i = 0; i < changed.length; i++) {
+            copy[changed[i]] = changedPrices[i];
+        }
+
+        return new MarketSnapshot(epoch + 1, timestamp, symbols, indexes, copy);
+    }
+
+    /**
+     * The position of this snapshot in the sequence of snapshots
+     *
+     * @return The epoch
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * The time of the prices
+     *
+     * @return The time in epoch nanoseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * The number of symbols
+     *
+     * @return The number of symbols
+     */
+    public int size() {
+        return prices.length;
+    }
+
+    /**
+     * The symbols, in index order
+     *
+     * @return A read-only list of symbols
+     */
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * The index of a symbol
+     *
+     * @param symbol The ticker symbol
+     * @return The symbol's index, or <code>-1</code> if it is not in the snapshot
+     */
+    public int indexOf(String symbol) {
+        Integer index = indexes.get(symbol);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * The symbol at an index
+     *
+     * @param index The index of the symbol
+     * @return The symbol
+     */
+    public String getSymbol(int index) {
+        return symbols.get(index);
+    }
+
+    /**
+     * The price of the symbol at an index
+     *
+     * @param index The index of the symbol
+     * @return The price in micro-units
+     */
+    public long getPrice(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Copies every price
+     *
+     * @return The prices in micro-units, in index order
+     */
+    public long[] copyPrices() {
+        return Arrays.copyOf(prices, prices.length);
+    }
+}
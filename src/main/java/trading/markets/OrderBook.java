@@ -0,0 +1,473 @@
+package trading.markets;
+
+import trading.metrics.Counter;
+import trading.metrics.Metrics;
+import trading.metrics.Timer;
+import utilities.Asset;
+import utilities.Market;
+import utilities.Side;
+
+import java.util.Arrays;
+
+/**
+ * A limit order book for one asset with price-time priority.
+ *
+ * <p>
+ * Each side keeps its price levels in a primitive sorted <code>long[]</code>
+ * with the best price last, so the best level is read, added and removed at
+ * the end of the array. Orders at a level wait in an intrusive FIFO queue,
+ * and order and level objects are pooled, so a warmed-up book does not
+ * allocate while matching.
+ * </p>
+ *
+ * An order book is not thread-safe; it is meant to be driven by one thread.
+ * Incoming orders trade at the resting order's price, and the asset's price
+ * is set to the last trade price after each order that trades.
+ */
+public final class OrderBook {
+
+    /**
+     * A price that means there is no order on a side
+     */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private static final Timer SUBMIT_TIMER = Metrics.timer("orderBook.submit");
+    private static final Counter FILLS = Metrics.counter("orderBook.fills");
+
+    /**
+     * A resting order, linked into the queue of its price level
+     */
+    private static final class BookOrder {
+        private long id;
+        private Market.Participant participant;
+        private Side side;
+        private long limitPrice;
+        private int quantity;
+        private Level level;
+        private BookOrder prev;
+        private BookOrder next;
+    }
+
+    /**
+     * The orders resting at one price, oldest first
+     */
+    private static final class Level {
+        private long price;
+        private long quantity;
+        private BookOrder head;
+        private BookOrder tail;
+        private Level nextFree;
+    }
+
+    private final Asset asset;
+    private final OrderIndex<BookOrder> orders;
+
+    // Bids ascend and asks descend, so the best price of each side is last
+    private long[] bidPrices = new long[64];
+    private Level[] bidLevels = new Level[64];
+    private int bidCount;
+    private long[] askPrices = new long[64];
+    private Level[] askLevels = new Level[64];
+    private int askCount;
+
+    private BookOrder freeOrders;
+    private Level freeLevels;
+
+    /**
+     * Constructs an empty order book
+     *
+     * @param asset The asset traded in the book
+     */
+    public OrderBook(Asset asset) {
+        this.asset = asset;
+        this.orders = new OrderIndex<>(1024);
+    }
+
+    /**
+     * The asset traded in this book
+     *
+     * @return The book's asset
+     */
+    public Asset getAsset() {
+        return asset;
+    }
+
+    /**
+     * The highest price a resting order is bidding
+     *
+     * @return The best bid in micro-units, or {@link #NO_PRICE}
+     */
+    public long bestBid() {
+        return bidCount == 0 ? NO_PRICE : bidPrices[bidCount - 1];
+    }
+
+    /**
+     * The lowest price a resting order is asking
+     *
+     * @return The best ask in micro-units, or {@link #NO_PRICE}
+     */
+    public long bestAsk() {
+        return askCount == 0 ? NO_PRICE : askPrices[askCount - 1];
+    }
+
+    /**
+     * The total quantity resting at a price
+     *
+     * @param side The side of the book
+     * @param price The price in micro-units
+     * @return The quantity resting at <code>price</code>
+     */
+    public long depth(Side side, long price) {
+        int index = side == Side.BUY
+                ? search(bidPrices, bidCount, price, false)
+                : search(askPrices, askCount, price, true);
+
+        if(index < 0) {
+            return 0;
+        }
+
+        return side == Side.BUY ? bidLevels[index].quantity : askLevels[index].quantity;
+    }
+
+    /**
+     * The number of orders resting in the book
+     *
+     * @return The number of resting orders
+     */
+    public int orderCount() {
+        return orders.size();
+    }
+
+    /**
+     * Matches an order against the book and rests what is left.
+     *
+     * <p>
+     * A buy at <code>Long.MAX_VALUE</code> or a sell at <code>0</code> takes
+     * any available price. Use {@link #cancel(long)} to remove what rests.
+     * </p>
+     *
+     * <p>
+     * The order is checked before it is matched, so an invalid order never
+     * trades. Each fill is booked before it is reported, so the book stays
+     * consistent if a participant throws. The fills already reported stand,
+     * what is left of the incoming order is cancelled through its
+     * participant's <code>onCancel</code> instead of resting, and the
+     * exception is rethrown.
+     * </p>
+     *
+     * @param id The id of the order, must be positive and unique in this book
+     * @param participant Who to report fills and cancels to, may be <code>null</code>
+     * @param side Whether to buy or sell
+     * @param limitPrice The worst acceptable price in micro-units
+     * @param quantity The quantity to trade
+     */
+    public void submit(long id, Market.Participant participant, Side side, long limitPrice, int quantity) {
+        if(quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        if(id <= 0) {
+            throw new IllegalArgumentException("Order ids must be positive");
+        }
+
+        if(orders.get(id) != null) {
+            throw new IllegalArgumentException("Duplicate order id " + id);
+        }
+
+        long start = SUBMIT_TIMER.start();
+        long lastPrice = NO_PRICE;
+
+        try {
+            while(quantity > 0) {
+                Level level = bestMatch(side, limitPrice);
+
+                if(level == null) {
+                    break;
+                }
+
+                BookOrder maker = level.head;
+                int fill = Math.min(quantity, maker.quantity);
+
+                quantity -= fill;
+                lastPrice = level.price;
+                fill(side, level, maker, fill);
+
+                if(participant != null) {
+                    participant.onFill(asset, side, limitPrice, lastPrice, fill);
+                }
+            }
+
+            if(lastPrice != NO_PRICE) {
+                asset.setPriceMicros(lastPrice);
+            }
+
+            if(quantity > 0) {
+                rest(id, participant, side, limitPrice, quantity);
+            }
+        } catch(RuntimeException e) {
+            if(quantity > 0 && participant != null) {
+                try {
+                    participant.onCancel(asset, side, limitPrice, quantity);
+                } catch(RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+
+            throw e;
+        } finally {
+            SUBMIT_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Cancels what is left of a resting order
+     *
+     * @param id The id of the order
+     * @return If the order was resting and is now cancelled
+     */
+    public boolean cancel(long id) {
+        BookOrder order = orders.remove(id);
+
+        if(order == null) {
+            return false;
+        }
+
+        Level level = order.level;
+        unlink(order);
+
+        if(level.head == null) {
+            removeLevel(order.side, level);
+        }
+
+        if(order.participant != null) {
+            order.participant.onCancel(asset, order.side, order.limitPrice, order.quantity);
+        }
+
+        releaseOrder(order);
+        return true;
+    }
+
+    /**
+     * The best level on the other side of an incoming order,
+     * if its price is within the order's limit
+     */
+    private Level bestMatch(Side side, long limitPrice) {
+        if(side == Side.BUY) {
+            return askCount > 0 && askPrices[askCount - 1] <= limitPrice ? askLevels[askCount - 1] : null;
+        }
+
+        return bidCount > 0 && bidPrices[bidCount - 1] >= limitPrice ? bidLevels[bidCount - 1] : null;
+    }
+
+    /**
+     * Fills the oldest order of the best level on the other side of an
+     * incoming order. The book is updated before the maker is told, so
+     * the book is consistent whatever the maker's callback does.
+     */
+    private void fill(Side side, Level level, BookOrder maker, int fill) {
+        Market.Participant participant = maker.participant;
+        Side makerSide = maker.side;
+        long makerLimit = maker.limitPrice;
+        long price = level.price;
+
+        maker.quantity -= fill;
+        level.quantity -= fill;
+        FILLS.increment();
+
+        if(maker.quantity == 0) {
+            orders.remove(maker.id);
+            unlink(maker);
+            releaseOrder(maker);
+        }
+
+        if(level.head == null) {
+            if(side == Side.BUY) {
+                askLevels[--askCount] = null;
+            } else {
+                bidLevels[--bidCount] = null;
+            }
+
+            releaseLevel(level);
+        }
+
+        if(participant != null) {
+            participant.onFill(asset, makerSide, makerLimit, price, fill);
+        }
+    }
+
+    private void rest(long id, Market.Participant participant, Side side, long limitPrice, int quantity) {
+        BookOrder order = freeOrders;
+
+        if(order == null) {
+            order = new BookOrder();
+        } else {
+            freeOrders = order.next;
+            order.next = null;
+        }
+
+        order.id = id;
+        order.participant = participant;
+        order.side = side;
+        order.limitPrice = limitPrice;
+        order.quantity = quantity;
+
+        orders.put(id, order);
+
+        Level level = side == Side.BUY ? bidLevel(limitPrice) : askLevel(limitPrice);
+
+        order.level = level;
+        order.prev = level.tail;
+
+        if(level.tail == null) {
+            level.head = order;
+        } else {
+            level.tail.next = order;
+        }
+
+        level.tail = order;
+        level.quantity += quantity;
+    }
+
+    private Level bidLevel(long price) {
+        int index = search(bidPrices, bidCount, price, false);
+
+        if(index >= 0) {
+            return bidLevels[index];
+        }
+
+        index = -index - 1;
+
+        if(bidCount == bidPrices.length) {
+            bidPrices = Arrays.copyOf(bidPrices, bidCount * 2);
+            bidLevels = Arrays.copyOf(bidLevels, bidCount * 2);
+        }
+
+        Level level = newLevel(price);
+        System.arraycopy(bidPrices, index, bidPrices, index + 1, bidCount - index);
+        System.arraycopy(bidLevels, index, bidLevels, index + 1, bidCount - index);
+        bidPrices[index] = price;
+        bidLevels[index] = level;
+        bidCount++;
+
+        return level;
+    }
+
+    private Level askLevel(long price) {
+        int index = search(askPrices, askCount, price, true);
+
+        if(index >= 0) {
+            return askLevels[index];
+        }
+
+        index = -index - 1;
+
+        if(askCount == askPrices.length) {
+            askPrices = Arrays.copyOf(askPrices, askCount * 2);
+            askLevels = Arrays.copyOf(askLevels, askCount * 2);
+        }
+
+        Level level = newLevel(price);
+        System.arraycopy(askPrices, index, askPrices, index + 1, askCount - index);
+        System.arraycopy(askLevels, index, askLevels, index + 1, askCount - index);
+        askPrices[index] = price;
+        askLevels[index] = level;
+        askCount++;
+
+        return level;
+    }
+
+    private void removeLevel(Side side, Level level) {
+        if(side == Side.BUY) {
+            int index = search(bidPrices, bidCount, level.price, false);
+            System.arraycopy(bidPrices, index + 1, bidPrices, index, bidCount - index - 1);
+            System.arraycopy(bidLevels, index + 1, bidLevels, index, bidCount - index - 1);
+            bidLevels[--bidCount] = null;
+        } else {
+            int index = search(askPrices, askCount, level.price, true);
+            System.arraycopy(askPrices, index + 1, askPrices, index, askCount - index - 1);
+            System.arraycopy(askLevels, index + 1, askLevels, index, askCount - index - 1);
+            askLevels[--askCount] = null;
+        }
+
+        releaseLevel(level);
+    }
+
+    /**
+     * Binary searches a side's prices
+     *
+     * @return The index of <code>price</code>, or <code>-(insertion point) - 1</code>
+     */
+    private static int search(long[] prices, int count, long price, boolean descending) {
+        int low = 0;
+        int high = count - 1;
+
+        while(low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(prices[mid], price);
+
+            if(descending) {
+                cmp = -cmp;
+            }
+
+            if(cmp < 0) {
+                low = mid + 1;
+            } else if(cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    private void unlink(BookOrder order) {
+        Level level = order.level;
+
+        if(order.prev == null) {
+            level.head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+
+        if(order.next == null) {
+            level.tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+
+        if(order.quantity > 0) {
+            level.quantity -= order.quantity;
+        }
+    }
+
+    private Level newLevel(long price) {
+        Level level = freeLevels;
+
+        if(level == null) {
+            level = new Level();
+        } else {
+            freeLevels = level.nextFree;
+            level.nextFree = null;
+        }
+
+        level.price = price;
+        level.quantity = 0;
+        return level;
+    }
+
+    private void releaseLevel(Level level) {
+        level.head = null;
+        level.tail = null;
+        level.nextFree = freeLevels;
+        freeLevels = level;
+    }
+
+    private void releaseOrder(BookOrder order) {
+        order.participant = null;
+        order.level = null;
+        order.prev = null;
+        order.next = freeOrders;
+        freeOrders = order;
+    }
+}
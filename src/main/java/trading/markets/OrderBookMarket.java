@@ -0,0 +1,85 @@
+package trading.markets;
+
+import utilities.Asset;
+import utilities.Market;
+import utilities.Side;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A market that matches orders in one in-memory {@link OrderBook} per symbol.
+ *
+ * <p>
+ * Books are created the first time a symbol is traded. Order ids carry the
+ * index of their book in their upper bits, so cancelling needs no lookup
+ * across books.
+ * </p>
+ *
+ * A market is not thread-safe; it is meant to be driven by one thread.
+ *
+ * @param <T> The type of asset traded
+ */
+public class OrderBookMarket<T extends Asset> extends Market<T> {
+
+    /**
+     * The number of low bits of an order id holding its sequence number
+     */
+    static final int BOOK_SHIFT = 40;
+
+    private final HashMap<String, Integer> bookIndexes;
+    private final ArrayList<OrderBook> books;
+    private long sequence;
+
+    public OrderBookMarket() {
+        this.bookIndexes = new HashMap<>();
+        this.books = new ArrayList<>();
+    }
+
+    /**
+     * The order book of an asset, created if the asset
+     * has not been traded before
+     *
+     * @param asset The asset, must have a symbol
+     * @return The asset's order book
+     */
+    public OrderBook getBook(T asset) {
+        return books.get(this.bookIndex(asset));
+    }
+
+    @Override
+    public long submit(Participant participant, T asset, Side side, long limitPrice, int quantity) {
+        int index = this.bookIndex(asset);
+        long id = ((long) index << BOOK_SHIFT) | ++sequence;
+
+        books.get(index).submit(id, participant, side, limitPrice, quantity);
+        return id;
+    }
+
+    @Override
+    public boolean cancel(long orderId) {
+        long index = orderId >>> BOOK_SHIFT;
+
+        if(orderId <= 0 || index >= books.size()) {
+            return false;
+        }
+
+        return books.get((int) index).cancel(orderId);
+    }
+
+    private int bookIndex(T asset) {
+        if(asset.getSymbol() == null) {
+            throw new IllegalArgumentException("Only assets with a symbol can be traded");
+        }
+
+        Integer index = bookIndexes.get(asset.getSymbol());
+
+        if(index == null) {
+            index = books.size();
+            books.add(new OrderBook(asset));
+            bookIndexes.put(asset.getSymbol(), index);
+        }
+
+        return index;
+    }
+}
@@ -0,0 +1,165 @@
+package trading.markets;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from positive <code>long</code> order
+ * ids to values, with no boxing and no allocation per entry.
+ *
+ * <p>
+ * Uses linear probing with backward-shift deletion, so there are
+ * no tombstones and lookups stay short after many removals.
+ * </p>
+ *
+ * @param <V> The type of the values
+ */
+final class OrderIndex<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Constructs an index
+     *
+     * @param expectedSize The number of entries to hold before growing
+     */
+    OrderIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * The number of entries in the index
+     *
+     * @return The number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * The value for an id
+     *
+     * @param key The id
+     * @return The value, or <code>null</code> if the id is not in the index
+     */
+    V get(long key) {
+        for(int i = slot(key); keys[i] != 0; i = (i + 1) & mask) {
+            if(keys[i] == key) {
+                return this.valueAt(i);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds an id that is not yet in the index
+     *
+     * @param key The id, must be positive
+     * @param value The value
+     */
+    void put(long key, V value) {
+        if(key <= 0) {
+            throw new IllegalArgumentException("Order ids must be positive");
+        }
+
+        if(size * 2 >= keys.length) {
+            grow();
+        }
+
+        int i = slot(key);
+
+        while(keys[i] != 0) {
+            if(keys[i] == key) {
+                throw new IllegalArgumentException("Duplicate order id " + key);
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * Removes an id
+     *
+     * @param key The id
+     * @return The removed value, or <code>null</code> if the id was not in the index
+     */
+    V remove(long key) {
+        // Empty slots hold 0, so non-positive ids would match them
+        if(key <= 0) {
+            return null;
+        }
+
+        int i = slot(key);
+
+        while(keys[i] != key) {
+            if(keys[i] == 0) {
+                return null;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        V removed = this.valueAt(i);
+
+        // Shift later entries of the probe run back into the gap
+        int gap = i;
+
+        for(int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+
+            if(((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+
+        keys[gap] = 0;
+        values[gap] = null;
+        size--;
+        return removed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int i) {
+        return (V) values[i];
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != 0) {
+                int j = slot(oldKeys[i]);
+
+                while(keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+
+        Arrays.fill(oldValues, null);
+    }
+}
@@ -0,0 +1,255 @@
+package trading.markets;
+
+import trading.metrics.Counter;
+import trading.metrics.Metrics;
+import utilities.Asset;
+import utilities.Market;
+import utilities.Side;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A market whose symbols are split across shards, each matched
+ * by a single thread that owns its order books.
+ *
+ * <p>
+ * Each symbol gets a book number the first time it is traded, and books
+ * are dealt out to shards round-robin by that number, so a symbol always
+ * belongs to the same shard. Order ids carry the book number, so a cancel
+ * goes straight to the right book. Orders and cancels are queued
+ * on the shard's lock-free {@link CommandRing} and applied by the shard's
+ * thread, so matching never takes a lock and uncorrelated symbols are
+ * matched in parallel. Use about one shard per core.
+ * </p>
+ *
+ * <p>
+ * Orders are matched asynchronously: {@link #submit} and {@link #cancel}
+ * return once the command is queued, and the outcome is reported to the
+ * {@link Market.Participant} from the shard's thread. Participants must
+ * therefore be thread-safe, as <code>TradingBot</code> is.
+ * </p>
+ *
+ * A command that throws, typically from a participant's callback, is
+ * reported to the shard thread's uncaught exception handler and counted,
+ * and the shard goes on with the next command.
+ *
+ * Call {@link #close()} to stop the shard threads once all
+ * queued commands are applied.
+ *
+ * @param <T> The type of asset traded
+ */
+public class ShardedMarket<T extends Asset> extends Market<T> implements AutoCloseable {
+
+    /**
+     * The number of low bits of an order id holding its sequence number
+     */
+    private static final int BOOK_SHIFT = 40;
+
+    /**
+     * The number of empty polls a shard spins through before parking
+     */
+    private static final int SPIN_LIMIT = 1_000;
+
+    private static final long PARK_NANOS = 50_000;
+
+    private static final Counter ERRORS = Metrics.counter("shardedMarket.errors");
+
+    /**
+     * One shard: a ring of commands and the order books its thread owns
+     */
+    private static final class Shard implements Runnable {
+        private final CommandRing ring;
+        private final ArrayList<OrderBook> books;
+        private final AtomicLong sequence;
+        private final Thread thread;
+        private final int shardCount;
+
+        private Shard(int index, int shardCount, int ringCapacity) {
+            this.shardCount = shardCount;
+            this.ring = new CommandRing(ringCapacity);
+            this.books = new ArrayList<>();
+            this.sequence = new AtomicLong();
+            this.thread = new Thread(this, "market-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * The book with a shard-local number, created for
+         * <code>asset</code> if needed
+         */
+        private OrderBook book(int local, Asset asset) {
+            while(books.size() <= local) {
+                books.add(null);
+            }
+
+            OrderBook book = books.get(local);
+
+            if(book == null && asset != null) {
+                book = new OrderBook(asset);
+                books.set(local, book);
+            }
+
+            return book;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+
+            while(true) {
+                CommandRing.Command command = ring.poll();
+
+                if(command == null) {
+                    if(ring.isDrained()) {
+                        return;
+                    }
+
+                    if(++idle < SPIN_LIMIT) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+
+                    continue;
+                }
+
+                idle = 0;
+
+                try {
+                    this.apply(command);
+                } catch(RuntimeException e) {
+                    ERRORS.increment();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                } finally {
+                    ring.release();
+                }
+            }
+        }
+
+        private void apply(CommandRing.Command command) {
+            int local = (int) (command.id >>> BOOK_SHIFT) / shardCount;
+
+            if(command.type == CommandRing.SUBMIT) {
+                this.book(local, command.asset)
+                        .submit(command.id, command.participant, command.side, command.limitPrice, command.quantity);
+            } else {
+                OrderBook book = this.book(local, null);
+
+                if(book != null) {
+                    book.cancel(command.id);
+                }
+            }
+        }
+    }
+
+    private final Shard[] shards;
+    private final ConcurrentHashMap<String, Integer> bookNumbers;
+    private final AtomicInteger nextBookNumber;
+
+    /**
+     * Constructs a market with one shard per available processor
+     */
+    public ShardedMarket() {
+        this(Runtime.getRuntime().availableProcessors(), 1 << 16);
+    }
+
+    /**
+     * Constructs a market and starts its shard threads
+     *
+     * @param shardCount The number of shards
+     * @param ringCapacity The number of commands each shard can queue
+     */
+    public ShardedMarket(int shardCount, int ringCapacity) {
+        if(shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+
+        this.shards = new Shard[shardCount];
+        this.bookNumbers = new ConcurrentHashMap<>();
+        this.nextBookNumber = new AtomicInteger();
+
+        for(int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, shardCount, ringCapacity);
+            shards[i].thread.start();
+        }
+    }
+
+    /**
+     * The number of shards
+     *
+     * @return The number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Queues a limit order on the shard that owns the asset's symbol
+     *
+     * @return The id of the order, for cancelling it
+     * @throws IllegalStateException If the market is closed
+     */
+    @Override
+    public long submit(Participant participant, T asset, Side side, long limitPrice, int quantity) {
+        if(asset.getSymbol() == null) {
+            throw new IllegalArgumentException("Only assets with a symbol can be traded");
+        }
+
+        if(quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        int book = bookNumbers.computeIfAbsent(asset.getSymbol(), x -> nextBookNumber.getAndIncrement());
+        Shard shard = shards[book % shards.length];
+        long id = ((long) book << BOOK_SHIFT) | shard.sequence.incrementAndGet();
+
+        shard.ring.offerSubmit(id, participant, asset, side, limitPrice, quantity);
+        return id;
+    }
+
+    /**
+     * Queues a cancel. The participant's <code>onCancel</code>
+     * is called if the order was still resting.
+     *
+     * @param orderId The id of the order
+     * @return If the id belongs to this market and the cancel was queued
+     * @throws IllegalStateException If the market is closed
+     */
+    @Override
+    public boolean cancel(long orderId) {
+        long book = orderId >>> BOOK_SHIFT;
+
+        if(orderId <= 0 || book >= nextBookNumber.get()) {
+            return false;
+        }
+
+        shards[(int) (book % shards.length)].ring.offerCancel(orderId);
+        return true;
+    }
+
+    /**
+     * Stops the shard threads after they apply every command queued
+     * so far, and waits for them to finish. Later orders and cancels
+     * are refused.
+     */
+    @Override
+    public void close() {
+        for(Shard shard : shards) {
+            shard.ring.close();
+            LockSupport.unpark(shard.thread);
+        }
+
+        for(Shard shard : shards) {
+            try {
+                shard.thread.join();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package trading.markets;
+
+import utilities.Asset;
+import utilities.AssetListener;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes a sequence of {@link MarketSnapshot}s so that readers always
+ * see one consistent set of prices.
+ *
+ * <p>
+ * Writers never change a published snapshot. Each change copies the
+ * price vector into a new snapshot with the next epoch and swaps it in
+ * with a compare-and-set, retrying if another writer got there first, so
+ * no price is lost and no lock is taken. Readers call {@link #current()}
+ * and keep the snapshot for as long as they need a stable view; prices
+ * read from it can never be a mix of two updates. A snapshot nobody holds
+ * is garbage, so old versions are reclaimed by the collector with no
+ * extra bookkeeping.
+ * </p>
+ *
+ * Every change copies the whole vector, so for many symbols or busy feeds
+ * prefer {@link #update(int[], long[], long)} to publish a batch at once.
+ * A publisher made from assets follows their prices until
+ * {@link #close()} is called.
+ */
+public class SnapshotPublisher implements AutoCloseable {
+
+    private final AtomicReference<MarketSnapshot> current;
+    private final List<Asset> assets;
+    private final Map<Asset, Integer> assetIndexes;
+
+    /**
+     * Publishes each tracked asset's new price
+     */
+    private final AssetListener priceTracker = new AssetListener() {
+        @Override
+        public void onPriceChange(Asset asset, long oldPrice, long newPrice) {
+            Integer index = assetIndexes.get(asset);
+
+            if(index != null) {
+                update(index, newPrice, lastTimestamp(asset));
+            }
+        }
+    };
+
+    /**
+     * Constructs a publisher that is fed by calling its update methods
+     *
+     * @param initial The first snapshot
+     */
+    public SnapshotPublisher(MarketSnapshot initial) {
+        this.current = new AtomicReference<>(initial);
+        this.assets = List.of();
+        this.assetIndexes = Map.of();
+    }
+
+    /**
+     * Constructs a publisher that follows the prices of assets.
+     * Each asset's symbol gets the asset's index in <code>assets</code>.
+     *
+     * <p>
+     * The first snapshot is taken before the publisher starts listening,
+     * so once it listens, each asset's price is checked again under the
+     * asset's monitor and published if it changed in between.
+     * </p>
+     *
+     * @param assets The assets, each with a different symbol
+     */
+    public SnapshotPublisher(List<? extends Asset> assets) {
+        List<String> symbols = new ArrayList<>(assets.size());
+        long[] prices = new long[assets.size()];
+
+        for(int i = 0; i < assets.size(); i++) {
+            Asset asset = assets.get(i);
+
+            if(asset == null || asset.getSymbol() == null) {
+                throw new IllegalArgumentException("Asset " + i + " has no symbol");
+            }
+
+            symbols.add(asset.getSymbol());
+            prices[i] = asset.getPriceMicros();
+        }
+
+        this.current = new AtomicReference<>(MarketSnapshot.of(symbols, prices, System.currentTimeMillis() * 1_000_000L));
+        this.assets = List.copyOf(assets);
+        this.assetIndexes = new IdentityHashMap<>(assets.size() * 2);
+
+        for(int i = 0; i < assets.size(); i++) {
+            assetIndexes.put(assets.get(i), i);
+        }
+
+        for(int i = 0; i < assets.size(); i++) {
+            Asset asset = assets.get(i);
+            asset.addListener(priceTracker);
+
+            // Holding the monitor, no price change can be published at the same time
+            synchronized(asset) {
+                if(asset.getPriceMicros() != current.get().getPrice(i)) {
+                    this.publishPrice(i, asset.getPriceMicros(), lastTimestamp(asset));
+                }
+            }
+        }
+    }
+
+    /**
+     * The latest snapshot. Never blocks.
+     *
+     * @return The latest snapshot
+     */
+    public MarketSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Publishes one new price
+     *
+     * @param index The index of the symbol
+     * @param price The new price in micro-units
+     * @param timestamp The time of the price in epoch nanoseconds
+     * @return The snapshot published
+     */
+    public MarketSnapshot update(int index, long price, long timestamp) {
+        return this.publishPrice(index, price, timestamp);
+    }
+
+    private MarketSnapshot publishPrice(int index, long price, long timestamp) {
+        while(true) {
+            MarketSnapshot last = current.get();
+            MarketSnapshot next = last.next(index, price, timestamp);
+
+            if(current.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Publishes several new prices as one snapshot
+     *
+     * @param changed The indexes of the symbols whose prices changed
+     * @param changedPrices The new price of each changed symbol in micro-units
+     * @param timestamp The time of the prices in epoch nanoseconds
+     * @return The snapshot published
+     */
+    public MarketSnapshot update(int[] changed, long[] changedPrices, long timestamp) {
+        while(true) {
+            MarketSnapshot last = current.get();
+            MarketSnapshot next = last.next(changed, changedPrices, timestamp);
+
+            if(current.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Publishes a whole new price vector, replacing every price
+     *
+     * @param prices The price of each symbol in micro-units
+     * @param timestamp The time of the prices in epoch nanoseconds
+     * @return The snapshot published
+     */
+    public MarketSnapshot publish(long[] prices, long timestamp) {
+        while(true) {
+            MarketSnapshot last = current.get();
+            MarketSnapshot next = last.next(prices, timestamp);
+
+            if(current.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * The time of an asset's last price, or now if it has none
+     */
+    private static long lastTimestamp(Asset asset) {
+        long timestamp = asset.getLastTimestamp();
+        return timestamp < 0 ? System.currentTimeMillis() * 1_000_000L : timestamp;
+    }
+
+    /**
+     * Stops following the assets' prices
+     */
+    @Override
+    public void close() {
+        for(Asset asset : assets) {
+            asset.removeListener(priceTracker);
+        }
+    }
+}
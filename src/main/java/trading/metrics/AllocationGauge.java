@@ -0,0 +1,119 @@
+package trading.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures how fast the process allocates, from the per-thread
+ * allocation counters of the JVM.
+ *
+ * <p>
+ * Nothing is recorded on hot paths; live threads' counters are summed
+ * when the gauge is read, and the rate is taken over the time since the
+ * previous read. Bytes allocated by threads that have ended are not
+ * counted.
+ * </p>
+ *
+ * Loading the gauge changes no JVM settings. Call {@link #enable()} once
+ * at startup to make sure the JVM is counting allocations.
+ */
+public final class AllocationGauge {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private long lastBytes;
+    private long lastTime;
+
+    AllocationGauge() {
+    }
+
+    /**
+     * If the JVM can count the bytes each thread allocates
+     *
+     * @return If allocations can be measured
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Turns on the JVM's per-thread allocation counters,
+     * which most JVMs start with on
+     *
+     * @return If allocations are now being counted
+     */
+    public static boolean enable() {
+        if(THREADS == null) {
+            return false;
+        }
+
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        return true;
+    }
+
+    /**
+     * The bytes the current thread has allocated since it started
+     *
+     * @return The bytes allocated, or <code>0</code> if not supported
+     *         or not enabled
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS == null ? 0 : Math.max(THREADS.getCurrentThreadAllocatedBytes(), 0);
+    }
+
+    /**
+     * The bytes allocated by every live thread since they started
+     *
+     * @return The bytes allocated, or <code>0</code> if not supported
+     *         or not enabled
+     */
+    public long totalBytes() {
+        if(THREADS == null) {
+            return 0;
+        }
+
+        long total = 0;
+
+        for(long bytes : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            if(bytes > 0) {
+                total += bytes;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * The rate of allocation since this was last called
+     *
+     * @return Bytes allocated per second
+     */
+    public synchronized double bytesPerSecond() {
+        long bytes = this.totalBytes();
+        long time = System.nanoTime();
+        double rate = lastTime == 0 || time == lastTime ? 0 : (bytes - lastBytes) * 1e9 / (time - lastTime);
+
+        lastBytes = bytes;
+        lastTime = time;
+        return Math.max(rate, 0);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+
+        map.put("supported", isSupported());
+        map.put("bytesPerSecond", this.bytesPerSecond());
+        map.put("totalBytes", this.totalBytes());
+        return map;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if(!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+
+        return threads;
+    }
+}
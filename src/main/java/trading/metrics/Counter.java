@@ -0,0 +1,60 @@
+package trading.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A count of events.
+ *
+ * <p>
+ * Each thread adds to one of {@link Metrics#STRIPES} padded buffers chosen
+ * by the thread, so threads seldom share a cache line, and the buffers are
+ * summed on read. Striping by thread rather than keeping one buffer per
+ * thread keeps memory fixed however many threads, virtual or not, record.
+ * </p>
+ */
+public final class Counter {
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Longs per stripe, so each stripe has a 64-byte cache line to itself
+    private static final int PADDING = 8;
+
+    private final long[] cells = new long[Metrics.STRIPES * PADDING];
+
+    Counter() {
+    }
+
+    /**
+     * Adds one, if metrics are enabled
+     */
+    public void increment() {
+        this.add(1);
+    }
+
+    /**
+     * Adds to the count, if metrics are enabled
+     *
+     * @param amount The amount to add
+     */
+    public void add(long amount) {
+        if(Metrics.ENABLED) {
+            CELLS.getAndAdd(cells, Metrics.stripe() * PADDING, amount);
+        }
+    }
+
+    /**
+     * The count, merged from every stripe
+     *
+     * @return The count
+     */
+    public long sum() {
+        long sum = 0;
+
+        for(int i = 0; i < cells.length; i += PADDING) {
+            sum += (long) CELLS.getVolatile(cells, i);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,183 @@
+package trading.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds,
+ * with bounded relative error.
+ *
+ * <p>
+ * Like an HDR histogram, buckets are log-linear: each power of two is
+ * split into {@value #SUB_BUCKETS} equal buckets, so any recorded value is
+ * known to within about 6%, from nanoseconds to hours, in a fixed
+ * {@value #BUCKETS} buckets. Recording is one bucket increment, one add to
+ * the sum and, rarely, a new maximum, into the stripe of the recording
+ * thread. Stripes are merged when a {@link Snapshot} is taken.
+ * </p>
+ */
+public final class Histogram {
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    // Each stripe holds its buckets, then its sum and maximum
+    private static final int SUM = BUCKETS;
+    private static final int MAX = BUCKETS + 1;
+    private static final int STRIPE_LENGTH = BUCKETS + 8;
+
+    /**
+     * Merged counts of a histogram at one point in time
+     */
+    public static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * The number of values recorded
+         *
+         * @return The count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * The largest value recorded, exactly
+         *
+         * @return The maximum, or <code>0</code> if nothing was recorded
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * The mean of the values recorded
+         *
+         * @return The mean, or <code>0</code> if nothing was recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * The value at a percentile, to the histogram's precision
+         *
+         * @param percentile The percentile, from <code>0</code> to <code>100</code>
+         * @return The highest value of the bucket holding the percentile
+         */
+        public long getPercentile(double percentile) {
+            if(count == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+
+            for(int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+
+                if(seen >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+
+            return max;
+        }
+    }
+
+    private final long[] cells = new long[Metrics.STRIPES * STRIPE_LENGTH];
+
+    Histogram() {
+    }
+
+    /**
+     * Records a value, if metrics are enabled
+     *
+     * @param value The value; negative values are recorded as <code>0</code>
+     */
+    public void record(long value) {
+        if(!Metrics.ENABLED) {
+            return;
+        }
+
+        value = Math.max(value, 0);
+        int base = Metrics.stripe() * STRIPE_LENGTH;
+
+        CELLS.getAndAdd(cells, base + bucket(value), 1L);
+        CELLS.getAndAdd(cells, base + SUM, value);
+
+        long max;
+
+        while(value > (max = (long) CELLS.getVolatile(cells, base + MAX))) {
+            if(CELLS.compareAndSet(cells, base + MAX, max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Merges every stripe into a snapshot
+     *
+     * @return The merged counts
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+
+        for(int base = 0; base < cells.length; base += STRIPE_LENGTH) {
+            for(int i = 0; i < BUCKETS; i++) {
+                long bucket = (long) CELLS.getVolatile(cells, base + i);
+                buckets[i] += bucket;
+                count += bucket;
+            }
+
+            sum += (long) CELLS.getVolatile(cells, base + SUM);
+            max = Math.max(max, (long) CELLS.getVolatile(cells, base + MAX));
+        }
+
+        return new Snapshot(buckets, count, sum, max);
+    }
+
+    /**
+     * The bucket of a value: values below {@value #SUB_BUCKETS} have a bucket
+     * each, and larger values share a bucket with those that agree in their
+     * top {@value #SUB_BITS} bits after the leading one
+     */
+    static int bucket(long value) {
+        if(value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * The highest value that falls in a bucket
+     */
+    static long highestValue(int bucket) {
+        if(bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long lowest = (1L << exponent) | ((long) (bucket % SUB_BUCKETS) << (exponent - SUB_BITS));
+        return lowest + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
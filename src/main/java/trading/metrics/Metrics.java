@@ -0,0 +1,123 @@
+package trading.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The registry of counters and timers, and the switches that turn
+ * instrumentation on and off.
+ *
+ * <p>
+ * Metrics are on unless the JVM is started with
+ * <code>-Dtrading.metrics=false</code>. The switch is a
+ * <code>static final</code> constant, so when it is off the JIT removes
+ * the instrumentation from the hot paths entirely. Allocation tracking
+ * per timed call costs more and is off unless started with
+ * <code>-Dtrading.metrics.allocations=true</code>. The application turns
+ * on the JVM's allocation counters at startup with
+ * {@link AllocationGauge#enable()}.
+ * </p>
+ *
+ * <p>
+ * Metrics are registered once by name, usually into a
+ * <code>static final</code> field of the class they instrument.
+ * The instrumented paths are:
+ * </p>
+ * <ul>
+ *     <li><code>tradingBot.buyAsset</code> and <code>tradingBot.sellAsset</code>:
+ *     timers of every call, including those that throw</li>
+ *     <li><code>tradingBot.insufficientFunds</code>: purchases and buy orders
+ *     refused for lack of cash</li>
+ *     <li><code>orderBook.submit</code>: a timer of every order matched by an
+ *     <code>OrderBook</code>, and <code>orderBook.fills</code>, a count of its fills</li>
+ *     <li><code>shardedMarket.errors</code>: commands that threw on a market shard</li>
+ * </ul>
+ * Portfolio valuation is not timed; it reads a running total.
+ */
+public final class Metrics {
+
+    /**
+     * If metrics are recorded
+     */
+    public static final boolean ENABLED = !"false".equals(System.getProperty("trading.metrics"));
+
+    /**
+     * If timers also record the bytes allocated by each call
+     */
+    public static final boolean ALLOCATIONS = ENABLED
+            && Boolean.getBoolean("trading.metrics.allocations")
+            && AllocationGauge.isSupported();
+
+    /**
+     * The number of buffers each metric is striped across: a power
+     * of two, about twice the number of processors
+     */
+    static final int STRIPES = Math.min(64,
+            Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() * 2 - 1, 1)) << 1);
+
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final ConcurrentMap<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+    private static final AllocationGauge ALLOCATION_GAUGE = new AllocationGauge();
+
+    private Metrics() {
+    }
+
+    /**
+     * The counter with a name, registered if new
+     *
+     * @param name The name of the counter
+     * @return The counter
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, x -> new Counter());
+    }
+
+    /**
+     * The timer with a name, registered if new
+     *
+     * @param name The name of the timer
+     * @return The timer
+     */
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, x -> new Timer());
+    }
+
+    /**
+     * The gauge of the rate the whole process allocates at
+     *
+     * @return The allocation gauge
+     */
+    public static AllocationGauge allocationGauge() {
+        return ALLOCATION_GAUGE;
+    }
+
+    /**
+     * Reads every metric, merging their buffers. Times are in nanoseconds.
+     *
+     * @return The metrics by name, ready to be written as JSON
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        Map<String, Object> counters = new LinkedHashMap<>();
+        Map<String, Object> timers = new LinkedHashMap<>();
+
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.sum()));
+        TIMERS.forEach((name, timer) -> timers.put(name, timer.toMap()));
+
+        snapshot.put("enabled", ENABLED);
+        snapshot.put("counters", counters);
+        snapshot.put("timers", timers);
+        snapshot.put("allocation", ALLOCATION_GAUGE.toMap());
+        return snapshot;
+    }
+
+    /**
+     * The stripe the current thread records into
+     */
+    static int stripe() {
+        int hash = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        return (hash >>> 16) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,23 @@
+package trading.metrics;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Serves the metrics as JSON
+ */
+@RestController
+public class MetricsController {
+
+    /**
+     * Every counter, timer and gauge. Times are in nanoseconds.
+     *
+     * @return The metrics
+     */
+    @GetMapping("/metrics")
+    public Map<String, Object> metrics() {
+        return Metrics.snapshot();
+    }
+}
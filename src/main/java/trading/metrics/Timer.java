@@ -0,0 +1,102 @@
+package trading.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Times calls on a hot path into a latency {@link Histogram}.
+ *
+ * <p>
+ * A call is timed with
+ * <code>long start = timer.start(); ... timer.stop(start);</code>.
+ * When metrics are disabled both are empty and cost nothing once
+ * compiled. When allocation tracking is on, the bytes each call
+ * allocates are recorded in a second histogram.
+ * </p>
+ */
+public final class Timer {
+
+    private final Histogram latency;
+    private final Histogram allocations;
+    private final ThreadLocal<long[]> allocationStart;
+
+    Timer() {
+        this.latency = new Histogram();
+        this.allocations = Metrics.ALLOCATIONS ? new Histogram() : null;
+        this.allocationStart = Metrics.ALLOCATIONS ? ThreadLocal.withInitial(() -> new long[1]) : null;
+    }
+
+    /**
+     * Starts timing a call
+     *
+     * @return The start of the call, to pass to {@link #stop(long)}
+     */
+    public long start() {
+        if(!Metrics.ENABLED) {
+            return 0;
+        }
+
+        if(Metrics.ALLOCATIONS) {
+            allocationStart.get()[0] = AllocationGauge.currentThreadAllocatedBytes();
+        }
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops timing a call and records it
+     *
+     * @param start The value returned by {@link #start()}
+     */
+    public void stop(long start) {
+        if(!Metrics.ENABLED) {
+            return;
+        }
+
+        latency.record(System.nanoTime() - start);
+
+        if(Metrics.ALLOCATIONS) {
+            allocations.record(AllocationGauge.currentThreadAllocatedBytes() - allocationStart.get()[0]);
+        }
+    }
+
+    /**
+     * The latencies of the calls timed so far
+     *
+     * @return A snapshot of latencies in nanoseconds
+     */
+    public Histogram.Snapshot latency() {
+        return latency.snapshot();
+    }
+
+    /**
+     * The bytes allocated by the calls timed so far
+     *
+     * @return A snapshot of bytes per call, or <code>null</code>
+     *         if allocation tracking is off
+     */
+    public Histogram.Snapshot allocations() {
+        return allocations == null ? null : allocations.snapshot();
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        Histogram.Snapshot snapshot = this.latency();
+
+        map.put("count", snapshot.getCount());
+        map.put("mean", snapshot.getMean());
+        map.put("p50", snapshot.getPercentile(50));
+        map.put("p90", snapshot.getPercentile(90));
+        map.put("p99", snapshot.getPercentile(99));
+        map.put("p999", snapshot.getPercentile(99.9));
+        map.put("max", snapshot.getMax());
+
+        if(allocations != null) {
+            Histogram.Snapshot bytes = this.allocations();
+            map.put("bytesMean", bytes.getMean());
+            map.put("bytesMax", bytes.getMax());
+        }
+
+        return map;
+    }
+}
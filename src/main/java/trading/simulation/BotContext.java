@@ -0,0 +1,137 @@
+package trading.simulation;
+
+import trading.TradingBot;
+import trading.assets.Stock;
+import trading.markets.ImmediateMarket;
+import trading.markets.MarketSnapshot;
+import utilities.Money;
+import utilities.Side;
+
+/**
+ * One bot's view of a {@link Simulation}: its own {@link TradingBot}
+ * and the snapshot it is working on.
+ *
+ * <p>
+ * Orders fill straight away at the snapshot's prices. Every bot trades its
+ * own lots on its own market, so bots never touch each other's state.
+ * </p>
+ *
+ * A context belongs to its bot's thread.
+ */
+public final class BotContext {
+
+    private final int id;
+    private final TradingBot bot;
+    private final ImmediateMarket<Stock> market;
+    private MarketSnapshot snapshot;
+    private long deadline;
+
+    BotContext(int id, TradingBot bot) {
+        this.id = id;
+        this.bot = bot;
+        this.market = new ImmediateMarket<>();
+    }
+
+    void begin(MarketSnapshot snapshot, long deadline) {
+        this.snapshot = snapshot;
+        this.deadline = deadline;
+    }
+
+    /**
+     * The bot's number in the simulation
+     *
+     * @return The bot's id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * The bot being driven
+     *
+     * @return The trading bot
+     */
+    public TradingBot getBot() {
+        return bot;
+    }
+
+    /**
+     * The snapshot being worked on
+     *
+     * @return The current snapshot
+     */
+    public MarketSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The time left in this call's budget
+     *
+     * @return The nanoseconds left, negative once over budget
+     */
+    public long remainingNanos() {
+        return deadline - System.nanoTime();
+    }
+
+    /**
+     * The number of shares held of a symbol
+     *
+     * @param index The index of the symbol in the snapshot
+     * @return The number of shares held
+     */
+    public int getPosition(int index) {
+        return bot.getPortfolio().getPosition(snapshot.getSymbol(index));
+    }
+
+    /**
+     * Buys shares at the snapshot's price
+     *
+     * @param index The index of the symbol in the snapshot
+     * @param quantity The number of shares
+     * @return If the shares were bought, <code>false</code> if cash is short
+     */
+    public boolean buy(int index, int quantity) {
+        long price = snapshot.getPrice(index);
+
+        if(quantity <= 0 || bot.getCurrentCashMicros() < Money.times(price, quantity)) {
+            return false;
+        }
+
+        bot.placeOrder(market, this.quote(index), Side.BUY, price, quantity);
+        return true;
+    }
+
+    /**
+     * Sells held shares at the snapshot's price
+     *
+     * @param index The index of the symbol in the snapshot
+     * @param quantity The number of shares
+     * @return If the shares were sold, <code>false</code> if not enough are held
+     */
+    public boolean sell(int index, int quantity) {
+        if(quantity <= 0 || this.getPosition(index) < quantity) {
+            return false;
+        }
+
+        bot.placeOrder(market, this.quote(index), Side.SELL, snapshot.getPrice(index), quantity);
+        return true;
+    }
+
+    /**
+     * The bot's cash plus its positions valued at the snapshot's prices
+     *
+     * @return The net worth in micro-units
+     */
+    public long netWorthMicros() {
+        return bot.getCurrentCashMicros() + bot.getPortfolio().valueMicrosAt(snapshot);
+    }
+
+    /**
+     * A private stock priced at the snapshot, for the market to fill against
+     */
+    private Stock quote(int index) {
+        Stock quote = new Stock(snapshot.getSymbol(index), 1);
+        quote.setPriceMicros(snapshot.getPrice(index), snapshot.getTimestamp());
+        return quote;
+    }
+}
@@ -0,0 +1,24 @@
+package trading.simulation;
+
+/**
+ * The logic of one bot in a {@link Simulation}
+ */
+@FunctionalInterface
+public interface BotStrategy {
+
+    /**
+     * Called on the bot's own thread for each new snapshot. Snapshots
+     * published while the bot is busy are skipped; it is always handed
+     * the latest one.
+     *
+     * <p>
+     * The call should finish within the bot's time budget; see
+     * {@link BotContext#remainingNanos()}. Blocking calls should let
+     * {@link InterruptedException} through so the simulation can stop.
+     * </p>
+     *
+     * @param context The bot's view of the simulation
+     * @throws Exception If the bot fails, which removes it from the simulation
+     */
+    void onSnapshot(BotContext context) throws Exception;
+}
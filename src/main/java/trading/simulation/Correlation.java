@@ -0,0 +1,106 @@
+package trading.simulation;
+
+/**
+ * A correlation matrix between assets, kept as its Cholesky factor
+ * so independent normal draws can be turned into correlated ones.
+ * A correlation never changes once made.
+ */
+public final class Correlation {
+
+    // The lower-triangular factor, row by row
+    private final double[] factor;
+    private final int size;
+
+    private Correlation(double[] factor, int size) {
+        this.factor = factor;
+        this.size = size;
+    }
+
+    /**
+     * Factors a correlation matrix
+     *
+     * @param matrix A symmetric, positive definite matrix with ones on the diagonal
+     * @return The correlation
+     */
+    public static Correlation of(double[][] matrix) {
+        int n = matrix.length;
+        double[] factor = new double[n * n];
+
+        for(int i = 0; i < n; i++) {
+            if(matrix[i].length != n || matrix[i][i] != 1) {
+                throw new IllegalArgumentException("A correlation matrix must be square with ones on the diagonal");
+            }
+
+            for(int j = 0; j <= i; j++) {
+                if(matrix[i][j] != matrix[j][i] || Math.abs(matrix[i][j]) > 1) {
+                    throw new IllegalArgumentException("Correlations must be symmetric and between -1 and 1");
+                }
+
+                double sum = matrix[i][j];
+
+                for(int k = 0; k < j; k++) {
+                    sum -= factor[i * n + k] * factor[j * n + k];
+                }
+
+                if(i == j) {
+                    if(sum <= 0) {
+                        throw new IllegalArgumentException("A correlation matrix must be positive definite");
+                    }
+
+                    factor[i * n + i] = Math.sqrt(sum);
+                } else {
+                    factor[i * n + j] = sum / factor[j * n + j];
+                }
+            }
+        }
+
+        return new Correlation(factor, n);
+    }
+
+    /**
+     * Makes a correlation where every pair of assets has the same correlation
+     *
+     * @param size The number of assets
+     * @param correlation The correlation between each pair
+     * @return The correlation
+     */
+    public static Correlation uniform(int size, double correlation) {
+        double[][] matrix = new double[size][size];
+
+        for(int i = 0; i < size; i++) {
+            for(int j = 0; j < size; j++) {
+                matrix[i][j] = i == j ? 1 : correlation;
+            }
+        }
+
+        return of(matrix);
+    }
+
+    /**
+     * The number of assets
+     *
+     * @return The size of the matrix
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Correlates independent standard normal draws
+     *
+     * @param independent The independent draws, one per asset
+     * @param correlated The array to write the correlated draws to
+     */
+    public void correlate(double[] independent, double[] correlated) {
+        for(int i = 0; i < size; i++) {
+            double sum = 0;
+            int row = i * size;
+
+            for(int k = 0; k <= i; k++) {
+                sum += factor[row + k] * independent[k];
+            }
+
+            correlated[i] = sum;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package trading.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Geometric Brownian motion: log returns are normal with constant
+ * drift and volatility. Stepped exactly, so any step length is unbiased.
+ */
+public final class GeometricBrownianMotion implements PriceModel {
+
+    private final double drift;
+    private final double volatility;
+    private final double step;
+    private final double meanLogReturn;
+    private final double stepVolatility;
+
+    /**
+     * Constructs a model
+     *
+     * @param drift The annualized expected return
+     * @param volatility The annualized volatility of returns
+     * @param step The length of a step in years
+     */
+    public GeometricBrownianMotion(double drift, double volatility, double step) {
+        if(volatility < 0 || step <= 0) {
+            throw new IllegalArgumentException("Volatility must not be negative and step must be positive");
+        }
+
+        this.drift = drift;
+        this.volatility = volatility;
+        this.step = step;
+        this.meanLogReturn = (drift - volatility * volatility / 2) * step;
+        this.stepVolatility = volatility * Math.sqrt(step);
+    }
+
+    /**
+     * The annualized expected return
+     *
+     * @return The drift
+     */
+    public double getDrift() {
+        return drift;
+    }
+
+    /**
+     * The annualized volatility of returns
+     *
+     * @return The volatility
+     */
+    public double getVolatility() {
+        return volatility;
+    }
+
+    /**
+     * The length of a step in years
+     *
+     * @return The step length
+     */
+    public double getStep() {
+        return step;
+    }
+
+    @Override
+    public double step(double price, double shock, SplittableRandom random) {
+        return price * Math.exp(meanLogReturn + stepVolatility * shock);
+    }
+}
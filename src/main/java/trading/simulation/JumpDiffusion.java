@@ -0,0 +1,115 @@
+package trading.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Merton's jump-diffusion: geometric Brownian motion plus jumps that
+ * arrive as a Poisson process with normally distributed log sizes.
+ * The drift is compensated for the jumps, so the expected return is
+ * still <code>drift</code>.
+ */
+public final class JumpDiffusion implements PriceModel {
+
+    private final double drift;
+    private final double volatility;
+    private final double jumpIntensity;
+    private final double jumpMean;
+    private final double jumpVolatility;
+    private final double meanLogReturn;
+    private final double stepVolatility;
+    private final double noJumpProbability;
+
+    /**
+     * Constructs a model
+     *
+     * @param drift The annualized expected return
+     * @param volatility The annualized volatility of returns between jumps
+     * @param jumpIntensity The expected number of jumps per year
+     * @param jumpMean The mean log size of a jump
+     * @param jumpVolatility The standard deviation of the log size of a jump
+     * @param step The length of a step in years
+     */
+    public JumpDiffusion(double drift, double volatility, double jumpIntensity,
+                         double jumpMean, double jumpVolatility, double step) {
+        if(volatility < 0 || jumpIntensity < 0 || jumpVolatility < 0 || step <= 0) {
+            throw new IllegalArgumentException("Volatilities and intensity must not be negative and step must be positive");
+        }
+
+        double compensation = jumpIntensity * (Math.exp(jumpMean + jumpVolatility * jumpVolatility / 2) - 1);
+
+        this.drift = drift;
+        this.volatility = volatility;
+        this.jumpIntensity = jumpIntensity;
+        this.jumpMean = jumpMean;
+        this.jumpVolatility = jumpVolatility;
+        this.meanLogReturn = (drift - volatility * volatility / 2 - compensation) * step;
+        this.stepVolatility = volatility * Math.sqrt(step);
+        this.noJumpProbability = Math.exp(-jumpIntensity * step);
+    }
+
+    /**
+     * The annualized expected return
+     *
+     * @return The drift
+     */
+    public double getDrift() {
+        return drift;
+    }
+
+    /**
+     * The annualized volatility of returns between jumps
+     *
+     * @return The volatility
+     */
+    public double getVolatility() {
+        return volatility;
+    }
+
+    /**
+     * The expected number of jumps per year
+     *
+     * @return The jump intensity
+     */
+    public double getJumpIntensity() {
+        return jumpIntensity;
+    }
+
+    /**
+     * The mean log size of a jump
+     *
+     * @return The jump mean
+     */
+    public double getJumpMean() {
+        return jumpMean;
+    }
+
+    /**
+     * The standard deviation of the log size of a jump
+     *
+     * @return The jump volatility
+     */
+    public double getJumpVolatility() {
+        return jumpVolatility;
+    }
+
+    @Override
+    public double step(double price, double shock, SplittableRandom random) {
+        double logReturn = meanLogReturn + stepVolatility * shock;
+
+        // Count the jumps in the step by multiplying uniforms (Knuth),
+        // which is cheap while the expected count per step is small
+        int jumps = 0;
+        double product = random.nextDouble();
+
+        while(product > noJumpProbability) {
+            jumps++;
+            product *= random.nextDouble();
+        }
+
+        if(jumps > 0) {
+            logReturn += jumps * jumpMean + Math.sqrt(jumps) * jumpVolatility * random.nextGaussian();
+        }
+
+        return price * Math.exp(logReturn);
+    }
+}
@@ -0,0 +1,73 @@
+package trading.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * A mean-reverting price whose logarithm follows an Ornstein-Uhlenbeck
+ * process, pulled back towards the log of a mean price. Stepped exactly,
+ * so any step length is unbiased.
+ */
+public final class MeanReversion implements PriceModel {
+
+    private final double mean;
+    private final double speed;
+    private final double volatility;
+    private final double logMean;
+    private final double decay;
+    private final double stepVolatility;
+
+    /**
+     * Constructs a model
+     *
+     * @param mean The price the model reverts to
+     * @param speed How fast the price reverts, per year; the half-life
+     *              of a deviation is <code>ln(2) / speed</code> years
+     * @param volatility The annualized volatility of log prices
+     * @param step The length of a step in years
+     */
+    public MeanReversion(double mean, double speed, double volatility, double step) {
+        if(mean <= 0 || speed <= 0 || volatility < 0 || step <= 0) {
+            throw new IllegalArgumentException("Mean, speed and step must be positive and volatility must not be negative");
+        }
+
+        this.mean = mean;
+        this.speed = speed;
+        this.volatility = volatility;
+        this.logMean = Math.log(mean);
+        this.decay = Math.exp(-speed * step);
+        this.stepVolatility = volatility * Math.sqrt((1 - decay * decay) / (2 * speed));
+    }
+
+    /**
+     * The price the model reverts to
+     *
+     * @return The mean price
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * How fast the price reverts, per year
+     *
+     * @return The reversion speed
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * The annualized volatility of log prices
+     *
+     * @return The volatility
+     */
+    public double getVolatility() {
+        return volatility;
+    }
+
+    @Override
+    public double step(double price, double shock, SplittableRandom random) {
+        double logPrice = logMean + (Math.log(price) - logMean) * decay + stepVolatility * shock;
+        return Math.exp(logPrice);
+    }
+}
@@ -0,0 +1,202 @@
+package trading.simulation;
+
+import utilities.Asset;
+import utilities.Money;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates synthetic price paths from {@link PriceModel}s, across
+ * all cores, into primitive arrays or an asset's price history.
+ *
+ * <p>
+ * Every path draws from its own random stream, seeded from the
+ * generator's seed and the path's number. A path is therefore the same
+ * no matter which thread generates it or how many threads run, and any
+ * single path can be regenerated on its own.
+ * </p>
+ *
+ * Prices are stepped as <code>double</code>s and written as micro-units,
+ * so rounding does not build up along a path.
+ */
+public class PathGenerator {
+
+    private final long seed;
+
+    /**
+     * Constructs a generator
+     *
+     * @param seed The seed all paths are derived from
+     */
+    public PathGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * The seed all paths are derived from
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * The random stream of a path
+     *
+     * @param path The number of the path
+     * @return A new random stream, the same for every call with <code>path</code>
+     */
+    public SplittableRandom random(long path) {
+        return new SplittableRandom(mix(seed ^ mix(path + 1)));
+    }
+
+    /**
+     * Generates one path
+     *
+     * @param model How the price moves
+     * @param startPrice The first price in micro-units
+     * @param path The number of the path
+     * @param prices The array to write the path to, starting
+     *               with <code>startPrice</code>
+     */
+    public void fill(PriceModel model, long startPrice, long path, long[] prices) {
+        if(prices.length == 0) {
+            return;
+        }
+
+        SplittableRandom random = this.random(path);
+        double price = Money.toDouble(startPrice);
+        prices[0] = startPrice;
+
+        for(int i = 1; i < prices.length; i++) {
+            price = model.step(price, random.nextGaussian(), random);
+            prices[i] = Money.of(price);
+        }
+    }
+
+    /**
+     * Generates many paths in parallel. Row <code>i</code> is path <code>i</code>.
+     *
+     * @param model How the price moves
+     * @param startPrice The first price in micro-units
+     * @param paths The arrays to write the paths to
+     */
+    public void fill(PriceModel model, long startPrice, long[][] paths) {
+        IntStream.range(0, paths.length).parallel()
+                .forEach(i -> this.fill(model, startPrice, i, paths[i]));
+    }
+
+    /**
+     * Generates many paths in parallel, keeping only their last prices.
+     * Each last price is the same as the last price of the full path.
+     *
+     * @param model How the price moves
+     * @param startPrice The first price in micro-units
+     * @param steps The number of steps in each path
+     * @param finalPrices The array to write the last price of path <code>i</code> to,
+     *                    at index <code>i</code>
+     */
+    public void fillFinal(PriceModel model, long startPrice, int steps, long[] finalPrices) {
+        double start = Money.toDouble(startPrice);
+
+        IntStream.range(0, finalPrices.length).parallel().forEach(i -> {
+            SplittableRandom random = this.random(i);
+            double price = start;
+
+            for(int step = 0; step < steps; step++) {
+                price = model.step(price, random.nextGaussian(), random);
+            }
+
+            finalPrices[i] = steps == 0 ? startPrice : Money.of(price);
+        });
+    }
+
+    /**
+     * Generates many multi-asset scenarios in parallel. Within a scenario
+     * each step's shocks are correlated across assets.
+     *
+     * @param models How each asset's price moves
+     * @param startPrices The first price of each asset in micro-units
+     * @param correlation The correlation between assets, or
+     *                    <code>null</code> if they are independent
+     * @param scenarios The arrays to write to; <code>scenarios[s][a]</code>
+     *                  is asset <code>a</code>'s path in scenario <code>s</code>,
+     *                  and every path in a scenario has the same length
+     */
+    public void fill(PriceModel[] models, long[] startPrices, Correlation correlation, long[][][] scenarios) {
+        int assets = models.length;
+
+        if(startPrices.length != assets || (correlation != null && correlation.size() != assets)) {
+            throw new IllegalArgumentException("Models, start prices and correlation must cover the same assets");
+        }
+
+        IntStream.range(0, scenarios.length).parallel().forEach(s -> {
+            long[][] paths = scenarios[s];
+            SplittableRandom random = this.random(s);
+            double[] prices = new double[assets];
+            double[] independent = new double[assets];
+            double[] shocks = correlation == null ? independent : new double[assets];
+            int length = paths[0].length;
+
+            for(int a = 0; a < assets; a++) {
+                if(paths[a].length != length) {
+                    throw new IllegalArgumentException("Every path in a scenario must have the same length");
+                }
+
+                prices[a] = Money.toDouble(startPrices[a]);
+
+                if(length > 0) {
+                    paths[a][0] = startPrices[a];
+                }
+            }
+
+            for(int i = 1; i < length; i++) {
+                for(int a = 0; a < assets; a++) {
+                    independent[a] = random.nextGaussian();
+                }
+
+                if(correlation != null) {
+                    correlation.correlate(independent, shocks);
+                }
+
+                for(int a = 0; a < assets; a++) {
+                    prices[a] = models[a].step(prices[a], shocks[a], random);
+                    paths[a][i] = Money.of(prices[a]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Generates a path into an asset, setting its price once per step.
+     * The asset's listeners and status are updated as for any price change.
+     *
+     * @param model How the price moves
+     * @param asset The asset, starting from its current price
+     * @param path The number of the path
+     * @param steps The number of steps
+     * @param startTime The time of the first step in epoch nanoseconds
+     * @param stepNanos The time between steps in nanoseconds
+     */
+    public void fill(PriceModel model, Asset asset, long path, int steps, long startTime, long stepNanos) {
+        SplittableRandom random = this.random(path);
+        double price = Money.toDouble(asset.getPriceMicros());
+
+        for(int i = 0; i < steps; i++) {
+            price = model.step(price, random.nextGaussian(), random);
+            asset.setPriceMicros(Money.of(price), startTime + i * stepNanos);
+        }
+    }
+
+    /**
+     * Scrambles the bits of a seed (the SplitMix64 finalizer), so
+     * neighbouring path numbers get unrelated streams
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,32 @@
+package trading.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * A stochastic model of how a price moves over one time step.
+ *
+ * <p>
+ * Models are immutable and have their step length built in, so constants
+ * that depend on it are worked out once, and one model can be stepped by
+ * any number of threads at once. Parameters are annualized: a step of
+ * {@link #TRADING_DAY} is one day of a 252-day trading year.
+ * </p>
+ */
+public interface PriceModel {
+
+    /**
+     * The length of one trading day in years
+     */
+    double TRADING_DAY = 1.0 / 252;
+
+    /**
+     * Moves a price forward one step
+     *
+     * @param price The current price
+     * @param shock A standard normal draw, correlated with other
+     *              assets' shocks in multi-asset scenarios
+     * @param random The path's random stream, for any further draws
+     * @return The price one step later
+     */
+    double step(double price, double shock, SplittableRandom random);
+}
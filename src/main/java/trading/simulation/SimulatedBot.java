@@ -0,0 +1,163 @@
+package trading.simulation;
+
+import trading.TradingBot;
+import trading.markets.MarketSnapshot;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bot hosted by a {@link Simulation}, run on its own virtual thread.
+ *
+ * <p>
+ * The bot waits parked until a new snapshot is published, then calls its
+ * strategy with the latest snapshot. A call that runs past the time budget
+ * counts as an overrun, and a bot that overruns too often, or whose
+ * strategy throws, is disqualified and stops. A bot that does not stop
+ * when its simulation is closed is disqualified too.
+ * </p>
+ */
+public final class SimulatedBot implements Runnable {
+
+    private final Simulation simulation;
+    private final BotStrategy strategy;
+    private final BotContext context;
+    private volatile Thread thread;
+    private volatile long calls;
+    private volatile long overruns;
+    private volatile long busyNanos;
+    private volatile boolean disqualified;
+    private volatile Exception failure;
+
+    SimulatedBot(Simulation simulation, int id, TradingBot bot, BotStrategy strategy) {
+        this.simulation = simulation;
+        this.strategy = strategy;
+        this.context = new BotContext(id, bot);
+    }
+
+    /**
+     * The bot's number in the simulation
+     *
+     * @return The bot's id
+     */
+    public int getId() {
+        return context.getId();
+    }
+
+    /**
+     * The trading bot being driven
+     *
+     * @return The trading bot
+     */
+    public TradingBot getBot() {
+        return context.getBot();
+    }
+
+    /**
+     * The number of snapshots the strategy has been called with
+     *
+     * @return The number of calls
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * The number of calls that ran past the time budget
+     *
+     * @return The number of overruns
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * The total time spent in the strategy
+     *
+     * @return The busy time in nanoseconds
+     */
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * If the bot was stopped for overrunning or failing
+     *
+     * @return If the bot is disqualified
+     */
+    public boolean isDisqualified() {
+        return disqualified;
+    }
+
+    /**
+     * What the strategy threw, if it failed
+     *
+     * @return The failure, or <code>null</code>
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    void start(Thread.Builder builder) {
+        if(thread == null) {
+            this.thread = builder.start(this);
+        }
+    }
+
+    Thread getThread() {
+        return thread;
+    }
+
+    /**
+     * Marks a bot that would not stop
+     */
+    void disqualify() {
+        disqualified = true;
+    }
+
+    void wake() {
+        Thread thread = this.thread;
+
+        if(thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        long lastEpoch = -1;
+
+        while(simulation.isRunning() && !Thread.currentThread().isInterrupted()) {
+            MarketSnapshot snapshot = simulation.getSnapshot();
+
+            if(snapshot == null || snapshot.getEpoch() == lastEpoch) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            lastEpoch = snapshot.getEpoch();
+
+            long budget = simulation.getBudgetNanos();
+            long start = System.nanoTime();
+            context.begin(snapshot, start + budget);
+
+            try {
+                strategy.onSnapshot(context);
+            } catch(InterruptedException e) {
+                return;
+            } catch(Exception e) {
+                failure = e;
+                disqualified = true;
+                return;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            busyNanos += elapsed;
+            calls++;
+
+            if(elapsed > budget && ++overruns > simulation.getMaxOverruns()) {
+                disqualified = true;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package trading.simulation;
+
+import trading.TradingBot;
+import trading.markets.MarketSnapshot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs many bots at once, each on its own virtual thread, against a
+ * stream of shared {@link MarketSnapshot}s.
+ *
+ * <p>
+ * Virtual threads make a thread per bot cheap, so tens of thousands of
+ * bots can each run a plain loop. Publishing a snapshot swaps one atomic
+ * reference and wakes every bot; bots only read the snapshot and trade
+ * their own {@link TradingBot}. The only state they write in common is
+ * the process-wide metrics their trades record, which are striped across
+ * threads to keep contention low and can be turned off with
+ * <code>-Dtrading.metrics=false</code>. A bot still busy with an older
+ * snapshot simply picks up the latest one when it is done.
+ * </p>
+ *
+ * <p>
+ * Each call into a strategy has a time budget. Virtual threads cannot be
+ * pre-empted, so the budget is checked when the call returns: strategies
+ * can watch {@link BotContext#remainingNanos()}, and a bot that overruns
+ * more than the allowed number of times is disqualified.
+ * </p>
+ *
+ * {@link #close()} stops every bot: it wakes them, waits for their current
+ * calls to finish and interrupts any that do not finish in time. Bots that
+ * ignore the interrupt too are disqualified and left behind.
+ */
+public class Simulation implements AutoCloseable {
+
+    private final long budgetNanos;
+    private final int maxOverruns;
+    private final CopyOnWriteArrayList<SimulatedBot> bots;
+    private final Thread.Builder threads;
+    private final AtomicReference<MarketSnapshot> snapshot = new AtomicReference<>();
+    private boolean started;
+    private volatile boolean running;
+
+    /**
+     * Constructs a simulation
+     *
+     * @param budget The time each strategy call may take
+     * @param unit The unit of <code>budget</code>
+     * @param maxOverruns The number of calls a bot may run over budget before
+     *                    it is disqualified
+     */
+    public Simulation(long budget, TimeUnit unit, int maxOverruns) {
+        if(budget <= 0 || maxOverruns < 0) {
+            throw new IllegalArgumentException("Budget must be positive and overruns must not be negative");
+        }
+
+        this.budgetNanos = unit.toNanos(budget);
+        this.maxOverruns = maxOverruns;
+        this.bots = new CopyOnWriteArrayList<>();
+        this.threads = Thread.ofVirtual().name("bot-", 0);
+        this.running = true;
+    }
+
+    /**
+     * Adds a bot. Bots added after {@link #start()} start straight away.
+     *
+     * @param bot The trading bot, used by this simulation only
+     * @param strategy The bot's logic
+     * @return The hosted bot
+     */
+    public synchronized SimulatedBot addBot(TradingBot bot, BotStrategy strategy) {
+        if(!running) {
+            throw new IllegalStateException("The simulation has been closed");
+        }
+
+        SimulatedBot simulated = new SimulatedBot(this, bots.size(), bot, strategy);
+        bots.add(simulated);
+
+        if(started) {
+            simulated.start(threads);
+        }
+
+        return simulated;
+    }
+
+    /**
+     * Starts a virtual thread for every bot added so far.
+     * Does nothing once the simulation is closed.
+     */
+    public synchronized void start() {
+        if(started || !running) {
+            return;
+        }
+
+        started = true;
+
+        for(SimulatedBot bot : bots) {
+            bot.start(threads);
+        }
+    }
+
+    /**
+     * Makes a snapshot the latest and wakes every bot
+     *
+     * @param snapshot The snapshot, newer than the last one published
+     */
+    public void publish(MarketSnapshot snapshot) {
+        MarketSnapshot last;
+
+        do {
+            last = this.snapshot.get();
+
+            if(last != null && snapshot.getEpoch() <= last.getEpoch()) {
+                throw new IllegalArgumentException("Snapshots must be published in epoch order");
+            }
+        } while(!this.snapshot.compareAndSet(last, snapshot));
+
+        for(SimulatedBot bot : bots) {
+            bot.wake();
+        }
+    }
+
+    /**
+     * The latest snapshot
+     *
+     * @return The latest snapshot, or <code>null</code> if none was published
+     */
+    public MarketSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * The bots in the simulation
+     *
+     * @return A read-only list of bots, in the order they were added
+     */
+    public List<SimulatedBot> getBots() {
+        return Collections.unmodifiableList(bots);
+    }
+
+    /**
+     * The time each strategy call may take
+     *
+     * @return The budget in nanoseconds
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * The number of calls a bot may run over budget
+     *
+     * @return The maximum number of overruns
+     */
+    public int getMaxOverruns() {
+        return maxOverruns;
+    }
+
+    /**
+     * If the simulation has not been closed
+     *
+     * @return If the simulation is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops every bot, waiting up to a second for their current calls to
+     * finish before interrupting them
+     */
+    @Override
+    public void close() {
+        this.close(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops every bot. Bots still running once interrupted bots have had
+     * <code>timeout</code> again to stop are disqualified and not waited for.
+     *
+     * @param timeout How long to wait for current calls to finish before interrupting them
+     * @param unit The unit of <code>timeout</code>
+     */
+    public void close(long timeout, TimeUnit unit) {
+        List<SimulatedBot> stopping = new ArrayList<>(bots.size());
+
+        synchronized(this) {
+            running = false;
+
+            for(SimulatedBot bot : bots) {
+                bot.wake();
+
+                if(bot.getThread() != null) {
+                    stopping.add(bot);
+                }
+            }
+        }
+
+        try {
+            this.joinAll(stopping, unit.toNanos(timeout), true);
+            this.joinAll(stopping, unit.toNanos(timeout), false);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until a deadline for bots to stop, then interrupts
+     * the ones still running, or disqualifies them
+     */
+    private void joinAll(List<SimulatedBot> stopping, long timeoutNanos, boolean interrupt) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        for(SimulatedBot bot : stopping) {
+            Thread thread = bot.getThread();
+            long remaining = deadline - System.nanoTime();
+
+            if(!thread.isAlive() || remaining > 0 && thread.join(Duration.ofNanos(remaining))) {
+                continue;
+            }
+
+            if(interrupt) {
+                thread.interrupt();
+            } else {
+                bot.disqualify();
+            }
+        }
+    }
+}
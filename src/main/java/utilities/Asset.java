@@ -1,18 +1,98 @@
 package utilities;
 
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * An asset with monetary value, be it a crypto coin or a
  * stock
+ *
+ * <p>
+ * Prices and values are kept in {@link Money} micro-units. The
+ * <code>double</code> getters and setters convert at the edges.
+ * </p>
+ *
+ * <p>
+ * Reads of the price, status and amount never lock. Reads of the price
+ * history lock, since the history is not thread-safe. Changes to price and
+ * amount are made under the asset's own monitor, so listeners see every change exactly once and in order.
+ * Callers that need to read the asset consistently with its listeners can
+ * synchronize on it too. Listeners are added and removed with a
+ * compare-and-set instead, so registering one never waits on a listener
+ * that is running, and can safely be done while holding other locks.
+ * </p>
  */
 public abstract class Asset {
 
     // TODO: Add more generic properties that apply to other trading.assets
-    private double price;
-    private final ArrayList<Double> previousPrices = new ArrayList<>();
-    private Status status;
-    private int amount;
+    private final String symbol;
+    private volatile long price;
+    private final PriceHistory previousPrices;
+    private volatile Status status;
+    private TrendDetector trendDetector;
+    private volatile int amount;
+    private volatile AssetListener[] listeners = new AssetListener[0];
+
+    private static final VarHandle LISTENERS;
+
+    static {
+        try {
+            LISTENERS = MethodHandles.lookup().findVarHandle(Asset.class, "listeners", AssetListener[].class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Constructs an asset that retains the default
+     * number of previous prices
+     */
+    protected Asset() {
+        this(null, PriceHistory.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an asset
+     *
+     * @param historyCapacity The number of previous prices to retain
+     */
+    protected Asset(int historyCapacity) {
+        this(null, historyCapacity);
+    }
+
+    /**
+     * Constructs an asset that retains the default
+     * number of previous prices
+     *
+     * @param symbol The ticker symbol of the asset, such as <code>AAPL</code>
+     */
+    protected Asset(String symbol) {
+        this(symbol, PriceHistory.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an asset
+     *
+     * @param symbol The ticker symbol of the asset, such as <code>AAPL</code>
+     * @param historyCapacity The number of previous prices to retain
+     */
+    protected Asset(String symbol, int historyCapacity) {
+        this.symbol = symbol;
+        this.previousPrices = new PriceHistory(historyCapacity);
+        this.trendDetector = new TrendDetector();
+        this.status = Status.STATIC;
+    }
+
+    /**
+     * The ticker symbol of the asset
+     *
+     * @return The asset's symbol, or <code>null</code> if it has none
+     */
+    public String getSymbol() {
+        return symbol;
+    }
 
     /**
      * Price of the asset. The price is for one of the asset.
@@ -20,6 +100,15 @@ public abstract class Asset {
      * @return The price of this asset
      */
     public double getPrice() {
+        return Money.toDouble(price);
+    }
+
+    /**
+     * Price of the asset in micro-units. The price is for one of the asset.
+     *
+     * @return The price of this asset in micro-units
+     */
+    public long getPriceMicros() {
         return price;
     }
 
@@ -29,21 +118,112 @@ public abstract class Asset {
      * @param price The new price of this <code>Asset</code>
      */
     public void setPrice(double price) {
+        this.setPrice(price, System.currentTimeMillis() * 1_000_000L);
+    }
+
+    /**
+     * Sets the asset's price and records it in the
+     * asset's price history.
+     *
+     * @param price The new price of this <code>Asset</code>
+     * @param timestamp The time of the price in epoch nanoseconds
+     */
+    public void setPrice(double price, long timestamp) {
+        this.setPriceMicros(Money.of(price), timestamp);
+    }
+
+    /**
+     * Sets the asset's price in micro-units. The price is for one of the asset.
+     *
+     * @param price The new price of this <code>Asset</code> in micro-units
+     */
+    public void setPriceMicros(long price) {
+        this.setPriceMicros(price, System.currentTimeMillis() * 1_000_000L);
+    }
+
+    /**
+     * Sets the asset's price in micro-units and records it
+     * in the asset's price history. The asset's status is
+     * updated from the price by its {@link TrendDetector}.
+     *
+     * @param price The new price of this <code>Asset</code> in micro-units
+     * @param timestamp The time of the price in epoch nanoseconds
+     */
+    public synchronized void setPriceMicros(long price, long timestamp) {
+        AssetListener[] listeners = this.listeners;
+        long oldPrice = this.price;
+        long oldValue = listeners.length == 0 ? 0 : this.calculateValue();
+
         this.price = price;
+        this.previousPrices.add(Money.toDouble(price), timestamp);
+
+        Status oldStatus = this.status;
+        Status newStatus = this.trendDetector.update(price);
+        this.status = newStatus;
+
+        for(AssetListener listener : listeners) {
+            listener.onPriceChange(this, oldPrice, price);
+            listener.onValueChange(this, oldValue, this.calculateValue());
+
+            if(newStatus != oldStatus) {
+                listener.onStatusChange(this, oldStatus, newStatus);
+            }
+        }
+    }
+
+    /**
+     * A copy of the previous prices of the asset, oldest first.
+     * The copy is taken under the asset's monitor, so it is
+     * consistent even while the price is changing.
+     *
+     * @return Previous prices of the asset in a read-only <code>List</code>
+     */
+    public synchronized List<Double> getPreviousPrices() {
+        return List.copyOf(previousPrices.asList());
+    }
+
+    /**
+     * The most recent <code>count</code> previous prices, oldest first,
+     * copied under the asset's monitor
+     *
+     * @param count The number of prices, must not be negative
+     * @return An array of the most recent prices
+     */
+    public synchronized double[] lastPrices(int count) {
+        return previousPrices.lastPrices(count);
     }
 
     /**
-     * An <code>ArrayList</code> of previous
-     * prices of the asset
+     * The time of the asset's last price
      *
-     * @return Previous prices of the asset in an <code>ArrayList</code>
+     * @return The timestamp of the last price in epoch nanoseconds,
+     *         or <code>-1</code> if the asset has no price yet
      */
-    public ArrayList<Double> getPreviousPrices() {
+    public synchronized long getLastTimestamp() {
+        int size = previousPrices.size();
+        return size == 0 ? -1 : previousPrices.getTimestamp(size - 1);
+    }
+
+    /**
+     * The timestamped price history of the asset.
+     * Retains a fixed number of the most recent prices.
+     *
+     * <p>
+     * This is the live history, which is not thread-safe. Hold the
+     * asset's monitor while reading or writing it, or use
+     * {@link #getPreviousPrices}, {@link #lastPrices} or
+     * {@link #getLastTimestamp}, which do.
+     * </p>
+     *
+     * @return The price history of this asset
+     */
+    public PriceHistory getPriceHistory() {
         return previousPrices;
     }
 
     /**
-     * The status of the price of this asset
+     * The status of the price of this asset, kept up to
+     * date as the price changes
      *
      * @return This asset's price's status
      */
@@ -52,12 +232,40 @@ public abstract class Asset {
     }
 
     /**
-     * Sets the status of this asset's price
+     * Sets the status of this asset's price. The next
+     * price change works the status out again.
      *
      * @param status The status of this asset's price
      */
-    public void setStatus(Status status) {
+    public synchronized void setStatus(Status status) {
+        AssetListener[] listeners = this.listeners;
+        Status oldStatus = this.status;
         this.status = status;
+
+        if(status != oldStatus) {
+            for(AssetListener listener : listeners) {
+                listener.onStatusChange(this, oldStatus, status);
+            }
+        }
+    }
+
+    /**
+     * The detector that works out the status from the price
+     *
+     * @return This asset's trend detector
+     */
+    public synchronized TrendDetector getTrendDetector() {
+        return trendDetector;
+    }
+
+    /**
+     * Replaces the detector that works out the status from
+     * the price, such as to change its thresholds
+     *
+     * @param trendDetector The new trend detector
+     */
+    public synchronized void setTrendDetector(TrendDetector trendDetector) {
+        this.trendDetector = trendDetector;
     }
 
     /**
@@ -65,8 +273,15 @@ public abstract class Asset {
      *
      * @param amount The new amount of the asset
      */
-    public void setAmount(int amount) {
+    public synchronized void setAmount(int amount) {
+        AssetListener[] listeners = this.listeners;
+        long oldValue = listeners.length == 0 ? 0 : this.calculateValue();
+
         this.amount = amount;
+
+        for(AssetListener listener : listeners) {
+            listener.onValueChange(this, oldValue, this.calculateValue());
+        }
     }
 
     /**
@@ -78,11 +293,79 @@ public abstract class Asset {
         return amount;
     }
 
+    /**
+     * Registers a listener for changes to this asset.
+     * A listener added twice is called twice.
+     *
+     * @param listener The listener
+     */
+    public void addListener(AssetListener listener) {
+        AssetListener[] listeners;
+        AssetListener[] added;
+
+        do {
+            listeners = this.listeners;
+            added = Arrays.copyOf(listeners, listeners.length + 1);
+            added[listeners.length] = listener;
+        } while(!LISTENERS.compareAndSet(this, listeners, added));
+    }
+
+    /**
+     * Removes one registration of a listener
+     *
+     * @param listener The listener
+     */
+    public void removeListener(AssetListener listener) {
+        while(true) {
+            AssetListener[] listeners = this.listeners;
+            int index = -1;
+
+            for(int i = 0; i < listeners.length; i++) {
+                if(listeners[i] == listener) {
+                    index = i;
+                    break;
+                }
+            }
+
+            if(index < 0) {
+                return;
+            }
+
+            AssetListener[] remaining = new AssetListener[listeners.length - 1];
+            System.arraycopy(listeners, 0, remaining, 0, index);
+            System.arraycopy(listeners, index + 1, remaining, index, remaining.length - index);
+
+            if(LISTENERS.compareAndSet(this, listeners, remaining)) {
+                return;
+            }
+        }
+    }
+
     /**
      * Calculates the asset's price.
      * Likely will be amount * price per
      *
      * @return The price of the asset
      */
-    public abstract double calculatePrice();
+    public double calculatePrice() {
+        return Money.toDouble(this.calculateValue());
+    }
+
+    /**
+     * Calculates the asset's price in micro-units.
+     * Likely will be amount * price per
+     *
+     * @return The price of the asset in micro-units
+     */
+    public abstract long calculateValue();
+
+    /**
+     * Creates a lot of this asset: a new asset of the same kind and
+     * symbol, at this asset's price, holding <code>amount</code>.
+     * Used to open positions from trades.
+     *
+     * @param amount The amount held by the lot
+     * @return The new lot
+     */
+    public abstract Asset newLot(int amount);
 }
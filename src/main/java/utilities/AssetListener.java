@@ -0,0 +1,46 @@
+package utilities;
+
+/**
+ * Receives changes to an <code>Asset</code>. Prices and
+ * values are in {@link Money} micro-units.
+ *
+ * <p>
+ * Listeners are called on the thread that changed the asset, right
+ * after the change, so they should return quickly. Every method does
+ * nothing by default; implement the ones of interest.
+ * </p>
+ */
+public interface AssetListener {
+
+    /**
+     * Called when the asset's price changes
+     *
+     * @param asset The asset
+     * @param oldPrice The price before the change
+     * @param newPrice The price after the change
+     */
+    default void onPriceChange(Asset asset, long oldPrice, long newPrice) {
+    }
+
+    /**
+     * Called when the asset's value, as given by
+     * {@link Asset#calculateValue()}, may have changed
+     *
+     * @param asset The asset
+     * @param oldValue The value before the change
+     * @param newValue The value after the change
+     */
+    default void onValueChange(Asset asset, long oldValue, long newValue) {
+    }
+
+    /**
+     * Called when the asset's status changes, either worked out
+     * from a new price or set by hand
+     *
+     * @param asset The asset
+     * @param oldStatus The status before the change
+     * @param newStatus The status after the change
+     */
+    default void onStatusChange(Asset asset, Status oldStatus, Status newStatus) {
+    }
+}
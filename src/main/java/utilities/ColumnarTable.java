@@ -0,0 +1,592 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * A table of numbers stored column by column.
+ *
+ * <p>
+ * Each column is a primitive <code>double[]</code>, <code>long[]</code>
+ * or <code>int[]</code> vector, so a column such as the closing prices of a
+ * symbol is one contiguous block of memory. Cells are read and written
+ * without boxing through the typed getters and setters, and whole columns
+ * can be scanned with the column methods such as {@link #sumColumn(int)}.
+ * </p>
+ *
+ * The row API of {@link Table} still works on top of the columns. Rows
+ * are always as wide as the table and new cells start at zero, so values
+ * are set rather than added to rows.
+ */
+public class ColumnarTable extends Table<Number> {
+
+    /**
+     * The primitive type stored in a column
+     */
+    public enum ColumnType {
+        DOUBLE,
+        LONG,
+        INT
+    }
+
+    /**
+     * A primitive vector holding the values of one column
+     */
+    private static final class ColumnVector {
+        private final ColumnType type;
+        private double[] doubles;
+        private long[] longs;
+        private int[] ints;
+
+        private ColumnVector(ColumnType type, int capacity) {
+            this.type = type;
+
+            switch(type) {
+                case DOUBLE -> doubles = new double[capacity];
+                case LONG -> longs = new long[capacity];
+                case INT -> ints = new int[capacity];
+            }
+        }
+
+        private void resize(int capacity) {
+            switch(type) {
+                case DOUBLE -> doubles = Arrays.copyOf(doubles, capacity);
+                case LONG -> longs = Arrays.copyOf(longs, capacity);
+                case INT -> ints = Arrays.copyOf(ints, capacity);
+            }
+        }
+
+        private Number get(int row) {
+            return switch(type) {
+                case DOUBLE -> doubles[row];
+                case LONG -> longs[row];
+                case INT -> ints[row];
+            };
+        }
+
+        private void set(int row, Number value) {
+            switch(type) {
+                case DOUBLE -> doubles[row] = value.doubleValue();
+                case LONG -> longs[row] = value.longValue();
+                case INT -> ints[row] = value.intValue();
+            }
+        }
+
+        private double getDouble(int row) {
+            return switch(type) {
+                case DOUBLE -> doubles[row];
+                case LONG -> longs[row];
+                case INT -> ints[row];
+            };
+        }
+
+        private long getLong(int row) {
+            return switch(type) {
+                case DOUBLE -> (long) doubles[row];
+                case LONG -> longs[row];
+                case INT -> ints[row];
+            };
+        }
+    }
+
+    /**
+     * A row that reads and writes through to the table's columns
+     */
+    private static final class ColumnarRow extends Row<Number> {
+        private final ColumnarTable table;
+        private final int index;
+
+        private ColumnarRow(ColumnarTable table, int index) {
+            this.table = table;
+            this.index = index;
+        }
+
+        @Override
+        public int getSize() {
+            return table.getColCount();
+        }
+
+        /**
+         * A copy of the row's values. Changes to the returned
+         * list are not written back to the table.
+         *
+         * @return An <code>ArrayList</code> of the row's values
+         */
+        @Override
+        public ArrayList<Number> getValues() {
+            ArrayList<Number> values = new ArrayList<>(getSize());
+
+            for(ColumnVector column : table.vectors) {
+                values.add(column.get(index));
+            }
+
+            return values;
+        }
+
+        @Override
+        public void setValues(ArrayList<Number> values) {
+            if(values.size() != this.getSize()) {
+                throw new IllegalArgumentException("Cannot change the size of a row.");
+            }
+
+            for(int i = 0; i < values.size(); i++) {
+                table.vectors.get(i).set(index, values.get(i));
+            }
+        }
+
+        @Override
+        public Number getItem(int index) {
+            return table.vectors.get(index).get(this.index);
+        }
+
+        @Override
+        public void setItem(Number item, int index) {
+            table.vectors.get(index).set(this.index, item);
+        }
+
+        @Override
+        public void addItem(Number item) {
+            throw new IllegalStateException("Row length cannot exceed number of columns");
+        }
+    }
+
+    private final ArrayList<ColumnVector> vectors;
+    private int rowCount;
+    private int capacity;
+
+    /**
+     * Constructs a table with no rows or columns
+     */
+    public ColumnarTable() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a table with room for <code>rows</code> rows
+     * and <code>cols</code> columns before growing
+     *
+     * @param rows The expected amount of rows in this table
+     * @param cols The expected amount of columns in this table
+     */
+    public ColumnarTable(int rows, int cols) {
+        super(0, cols);
+        this.vectors = new ArrayList<>(cols);
+        this.capacity = Math.max(rows, 16);
+    }
+
+    /**
+     * Adds a <code>double</code> column to this table
+     *
+     * @param title The tile of the new column
+     * @return The table
+     */
+    @Override
+    public ColumnarTable addColumn(String title) {
+        return this.addColumn(title, ColumnType.DOUBLE);
+    }
+
+    /**
+     * Adds a column of a primitive type to this table. Existing
+     * rows hold zero in the new column.
+     *
+     * @param title The tile of the new column
+     * @param type The type stored in the new column
+     * @return The table
+     */
+    public ColumnarTable addColumn(String title, ColumnType type) {
+        super.addColumn(title);
+        this.vectors.add(new ColumnVector(type, capacity));
+        return this;
+    }
+
+    /**
+     * Adds several <code>double</code> columns to this table
+     *
+     * @param titles The titles of the new columns
+     * @return The table
+     */
+    @Override
+    public ColumnarTable addColumns(List<String> titles) {
+        return this.addColumns(titles, ColumnType.DOUBLE);
+    }
+
+    /**
+     * Adds several columns of one primitive type to this table
+     *
+     * @param titles The titles of the new columns
+     * @param type The type stored in the new columns
+     * @return The table
+     */
+    public ColumnarTable addColumns(List<String> titles, ColumnType type) {
+        this.vectors.ensureCapacity(this.vectors.size() + titles.size());
+
+        for(String title : titles) {
+            this.addColumn(title, type);
+        }
+
+        return this;
+    }
+
+    /**
+     * The type stored in the column at <code>col</code>
+     *
+     * @param col The index of the column
+     * @return The column's type
+     */
+    public ColumnType getColumnType(int col) {
+        return this.vectors.get(col).type;
+    }
+
+    /**
+     * Adds a new row of zeros to the bottom of the table.
+     *
+     * @return The table
+     */
+    @Override
+    public ColumnarTable addRow() {
+        if(rowCount == capacity) {
+            capacity = capacity + (capacity >> 1);
+            this.vectors.forEach(x -> x.resize(capacity));
+        }
+
+        rowCount++;
+        return this;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets a view of the row at <code>rowIndex</code>.
+     * Writes to the row go through to the table's columns.
+     *
+     * @param rowIndex The index of the row to retrieve
+     * @return The row at <code>rowIndex</code>
+     */
+    @Override
+    public Row<Number> getRow(int rowIndex) {
+        checkRow(rowIndex);
+        return new ColumnarRow(this, rowIndex);
+    }
+
+    /**
+     * Gets a cell as a <code>double</code>. Works for
+     * columns of any type.
+     *
+     * @param rowIndex The index of the row
+     * @param colIndex The index of the column
+     * @return The value of the cell
+     */
+    public double getDouble(int rowIndex, int colIndex) {
+        checkRow(rowIndex);
+        return this.vectors.get(colIndex).getDouble(rowIndex);
+    }
+
+    /**
+     * Gets a cell as a <code>long</code>. Values
+     * in <code>double</code> columns are truncated.
+     *
+     * @param rowIndex The index of the row
+     * @param colIndex The index of the column
+     * @return The value of the cell
+     */
+    public long getLong(int rowIndex, int colIndex) {
+        checkRow(rowIndex);
+        return this.vectors.get(colIndex).getLong(rowIndex);
+    }
+
+    /**
+     * Gets a cell of an <code>int</code> column
+     *
+     * @param rowIndex The index of the row
+     * @param colIndex The index of the column
+     * @return The value of the cell
+     */
+    public int getInt(int rowIndex, int colIndex) {
+        checkRow(rowIndex);
+        return vector(colIndex, ColumnType.INT).ints[rowIndex];
+    }
+
+    /**
+     * Sets a cell of a <code>double</code> column
+     *
+     * @param value The value
+     * @param rowIndex The index of the row
+     * @param colIndex The index of the column
+     * @return The table
+     */
+    public ColumnarTable setDouble(double value, int rowIndex, int colIndex) {
+        checkRow(rowIndex);
+        vector(colIndex, ColumnType.DOUBLE).doubles[rowIndex] = value;
+        return this;
+    }
+
+    /**
+     * Sets a cell of a <code>long</code> column
+     *
+     * @param value The value
+     * @param rowIndex The index of the row
+     * @param colIndex The index of the column
+     * @return The table
+     */
+    public ColumnarTable setLong(long value, int rowIndex, int colIndex) {
+        checkRow(rowIndex);
+        vector(colIndex, ColumnType.LONG).longs[rowIndex] = value;
+        return this;
+    }
+
+    /**
+     * Sets a cell of an <code>int</code> column
+     *
+     * @param value The value
+     * @param rowIndex The index of the row
+     * @param colIndex The index of the column
+     * @return The table
+     */
+    public ColumnarTable setInt(int value, int rowIndex, int colIndex) {
+        checkRow(rowIndex);
+        vector(colIndex, ColumnType.INT).ints[rowIndex] = value;
+        return this;
+    }
+
+    /**
+     * Copies a <code>double</code> column into a new array
+     *
+     * @param colIndex The index of the column
+     * @return The column's values, one per row
+     */
+    public double[] getDoubleColumn(int colIndex) {
+        return Arrays.copyOf(vector(colIndex, ColumnType.DOUBLE).doubles, rowCount);
+    }
+
+    /**
+     * Copies a <code>long</code> column into a new array
+     *
+     * @param colIndex The index of the column
+     * @return The column's values, one per row
+     */
+    public long[] getLongColumn(int colIndex) {
+        return Arrays.copyOf(vector(colIndex, ColumnType.LONG).longs, rowCount);
+    }
+
+    /**
+     * Copies an <code>int</code> column into a new array
+     *
+     * @param colIndex The index of the column
+     * @return The column's values, one per row
+     */
+    public int[] getIntColumn(int colIndex) {
+        return Arrays.copyOf(vector(colIndex, ColumnType.INT).ints, rowCount);
+    }
+
+    /**
+     * Sums a column of any type
+     *
+     * @param colIndex The index of the column
+     * @return The sum of the column's values
+     */
+    public double sumColumn(int colIndex) {
+        ColumnVector column = this.vectors.get(colIndex);
+        double sum = 0;
+
+        switch(column.type) {
+            case DOUBLE -> {
+                double[] values = column.doubles;
+                for(int i = 0; i < rowCount; i++) {
+                    sum += values[i];
+                }
+            }
+            case LONG -> {
+                long[] values = column.longs;
+                for(int i = 0; i < rowCount; i++) {
+                    sum += values[i];
+                }
+            }
+            case INT -> {
+                int[] values = column.ints;
+                for(int i = 0; i < rowCount; i++) {
+                    sum += values[i];
+                }
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Filters a <code>double</code> column for values matching a condition
+     *
+     * @param colIndex The index of the column
+     * @param predicate The condition to filter by
+     * @return An array of the matching values in row order
+     */
+    public double[] filterDoubleColumn(int colIndex, DoublePredicate predicate) {
+        double[] values = vector(colIndex, ColumnType.DOUBLE).doubles;
+        double[] items = new double[rowCount];
+        int count = 0;
+
+        for(int i = 0; i < rowCount; i++) {
+            if(predicate.test(values[i])) {
+                items[count++] = values[i];
+            }
+        }
+
+        return Arrays.copyOf(items, count);
+    }
+
+    /**
+     * Applies a function in place to every value of a <code>double</code> column
+     *
+     * @param colIndex The index of the column
+     * @param function The function to apply
+     */
+    public void mapDoubleColumn(int colIndex, DoubleUnaryOperator function) {
+        double[] values = vector(colIndex, ColumnType.DOUBLE).doubles;
+
+        if(this.isParallel()) {
+            IntStream.range(0, rowCount).parallel().forEach(i -> values[i] = function.applyAsDouble(values[i]));
+            return;
+        }
+
+        for(int i = 0; i < rowCount; i++) {
+            values[i] = function.applyAsDouble(values[i]);
+        }
+    }
+
+    /**
+     * Applies a function in place to every value of a <code>long</code> column
+     *
+     * @param colIndex The index of the column
+     * @param function The function to apply
+     */
+    public void mapLongColumn(int colIndex, LongUnaryOperator function) {
+        long[] values = vector(colIndex, ColumnType.LONG).longs;
+
+        if(this.isParallel()) {
+            IntStream.range(0, rowCount).parallel().forEach(i -> values[i] = function.applyAsLong(values[i]));
+            return;
+        }
+
+        for(int i = 0; i < rowCount; i++) {
+            values[i] = function.applyAsLong(values[i]);
+        }
+    }
+
+    /**
+     * Applies a function in place to every value of an <code>int</code> column
+     *
+     * @param colIndex The index of the column
+     * @param function The function to apply
+     */
+    public void mapIntColumn(int colIndex, IntUnaryOperator function) {
+        int[] values = vector(colIndex, ColumnType.INT).ints;
+
+        if(this.isParallel()) {
+            IntStream.range(0, rowCount).parallel().forEach(i -> values[i] = function.applyAsInt(values[i]));
+            return;
+        }
+
+        for(int i = 0; i < rowCount; i++) {
+            values[i] = function.applyAsInt(values[i]);
+        }
+    }
+
+    /**
+     * Flattens the table into an <code>ArrayList</code> of its rows' values.
+     * Values are appended straight into a list sized for the whole table.
+     *
+     * @return An <code>ArrayList</code> of the table's values from all rows
+     * @throws ArithmeticException If the table holds more values than a list can
+     */
+    @Override
+    public ArrayList<Number> flatten() {
+        int cols = this.getColCount();
+        ArrayList<Number> items = new ArrayList<>(Math.multiplyExact(rowCount, cols));
+
+        for(int r = 0; r < rowCount; r++) {
+            for(int c = 0; c < cols; c++) {
+                items.add(this.vectors.get(c).get(r));
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Filters the table's rows' values for items matching a condition.
+     * Reads the primitive columns directly, or splits the table by rows
+     * across threads when the table is large.
+     *
+     * @param predicate The condition to filter by
+     * @return An <code>ArrayList</code> of filtered values in row order
+     */
+    @Override
+    public ArrayList<Number> filter(Predicate<Number> predicate) {
+        if(this.isParallel()) {
+            return super.filter(predicate);
+        }
+
+        int cols = this.getColCount();
+        ArrayList<Number> items = new ArrayList<>();
+
+        for(int r = 0; r < rowCount; r++) {
+            for(int c = 0; c < cols; c++) {
+                Number value = this.vectors.get(c).get(r);
+
+                if(predicate.test(value)) {
+                    items.add(value);
+                }
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Applies a function in place to all the values in the table,
+     * one column at a time. Results are converted to each column's type.
+     *
+     * @param function The function to apply
+     */
+    @Override
+    public void map(Function<Number, Number> function) {
+        for(ColumnVector column : this.vectors) {
+            if(this.isParallel()) {
+                IntStream.range(0, rowCount).parallel().forEach(r -> column.set(r, function.apply(column.get(r))));
+                continue;
+            }
+
+            for(int r = 0; r < rowCount; r++) {
+                column.set(r, function.apply(column.get(r)));
+            }
+        }
+    }
+
+    private ColumnVector vector(int colIndex, ColumnType type) {
+        ColumnVector column = this.vectors.get(colIndex);
+
+        if(column.type != type) {
+            throw new IllegalArgumentException("Column " + colIndex + " holds " + column.type
+                    + " values, not " + type);
+        }
+
+        return column;
+    }
+
+    private void checkRow(int rowIndex) {
+        if(rowIndex < 0 || rowIndex >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + rowIndex + " out of bounds for "
+                    + rowCount + " rows");
+        }
+    }
+}
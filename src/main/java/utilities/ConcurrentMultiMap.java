@@ -0,0 +1,239 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe Map that can hold multiple values associated to one key.
+ *
+ * <p>
+ * Each key's values are kept in an immutable snapshot that writers replace
+ * atomically through <code>ConcurrentHashMap.compute</code>. Writers to
+ * different keys do not block each other, and readers never lock: every read
+ * sees all of a key's values as they were at a single instant.
+ * </p>
+ *
+ * Appends reuse the snapshot's backing array when it has room, so adding a
+ * value costs one small snapshot object rather than a copy of the whole list.
+ *
+ * @param <V> The type of the keys
+ */
+public class ConcurrentMultiMap<V> {
+
+    /**
+     * An immutable view of the values associated to one key.
+     *
+     * <p>
+     * Snapshots may share a backing array. Only the newest snapshot
+     * of a key is ever appended to, and it only writes past the end of
+     * every older snapshot sharing its array, so older snapshots never
+     * see a change.
+     * </p>
+     */
+    private static final class Bucket {
+        private static final Bucket EMPTY = new Bucket(new Object[0], 0);
+
+        private final Object[] items;
+        private final int size;
+
+        private Bucket(Object[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        private Bucket with(Object item) {
+            Object[] items = this.items;
+
+            if(size == items.length) {
+                items = Arrays.copyOf(items, Math.max(4, size + (size >> 1)));
+            }
+
+            items[size] = item;
+            return new Bucket(items, size + 1);
+        }
+
+        private Bucket withAll(ArrayList<Object> added) {
+            Object[] items = this.items;
+
+            if(size + added.size() > items.length) {
+                items = Arrays.copyOf(items, Math.max(size + added.size(), size + (size >> 1)));
+            }
+
+            for(int i = 0; i < added.size(); i++) {
+                items[size + i] = added.get(i);
+            }
+
+            return new Bucket(items, size + added.size());
+        }
+
+        private Bucket without(Object item) {
+            for(int i = 0; i < size; i++) {
+                if(Objects.equals(item, items[i])) {
+                    Object[] remaining = new Object[Math.max(4, size - 1)];
+                    System.arraycopy(items, 0, remaining, 0, i);
+                    System.arraycopy(items, i + 1, remaining, i, size - i - 1);
+                    return new Bucket(remaining, size - 1);
+                }
+            }
+
+            return this;
+        }
+    }
+
+    private final ConcurrentHashMap<V, Bucket> values;
+
+    public ConcurrentMultiMap() {
+        values = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Constructs a map sized for an expected number of keys
+     *
+     * @param expectedKeys The number of keys the map is expected to hold
+     */
+    public ConcurrentMultiMap(int expectedKeys) {
+        values = new ConcurrentHashMap<>(expectedKeys);
+    }
+
+    /**
+     * Maps a key to a value. If the key exists, the value
+     * is added on to the values associated with the key
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(V key, Object value) {
+        values.compute(key, (k, bucket) -> (bucket == null ? Bucket.EMPTY : bucket).with(value));
+    }
+
+    /**
+     * Maps a key to an <code>ArrayList</code> of values.
+     * Readers see either none or all of the values.
+     *
+     * @param key The key
+     * @param values An <code>ArrayList</code> of values
+     */
+    public void put(V key, ArrayList<Object> values) {
+        this.values.compute(key, (k, bucket) -> (bucket == null ? Bucket.EMPTY : bucket).withAll(values));
+    }
+
+    /**
+     * Removes a key and it's values from this map
+     *
+     * @param key The key to remove
+     */
+    public void remove(V key) {
+        values.remove(key);
+    }
+
+    /**
+     * Removes a value from any key it is associated with
+     *
+     * @param value The value
+     */
+    public void removeValue(Object value) {
+        for(V key : values.keySet()) {
+            values.computeIfPresent(key, (k, bucket) -> bucket.without(value));
+        }
+    }
+
+    /**
+     * Determines if <code>key</code> is in this map's
+     * key set
+     *
+     * @param key The key to search for
+     * @return If <code>key</code> is in the key set
+     */
+    public boolean containsKey(V key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * The keys in this <code>ConcurrentMultiMap</code>. The set
+     * reflects later changes and is safe to iterate while the
+     * map is being written to.
+     *
+     * @return The keys in this <code>ConcurrentMultiMap</code>
+     */
+    public Set<V> keySet() {
+        return values.keySet();
+    }
+
+    /**
+     * All values associated to a key at one instant
+     *
+     * @param key The key
+     * @return An <code>ArrayList</code> of all values associated with
+     * <code>key</code>, empty if the key is not in the map
+     */
+    public ArrayList<Object> get(V key) {
+        Bucket bucket = values.get(key);
+
+        if(bucket == null) {
+            return new ArrayList<>();
+        }
+
+        ArrayList<Object> items = new ArrayList<>(bucket.size);
+
+        for(int i = 0; i < bucket.size; i++) {
+            items.add(bucket.items[i]);
+        }
+
+        return items;
+    }
+
+    /**
+     * Retrieves items of a specific class mapped to a value
+     *
+     * @param key The key
+     * @param cls The class of the items to retrieve
+     * @return A list of items of type <code>T</code>
+     * @param <T> The type of the items to retrieve
+     */
+    public final <T> ArrayList<T> getValuesByClass(V key, Class<T> cls) {
+        Bucket bucket = values.get(key);
+        ArrayList<T> items = new ArrayList<>();
+
+        if(bucket == null) {
+            return items;
+        }
+
+        for(int i = 0; i < bucket.size; i++) {
+            if(cls.isInstance(bucket.items[i])) {
+                items.add(cls.cast(bucket.items[i]));
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Gets items associated with <code>key</code>
+     * based upon a filter
+     *
+     * @param key The key
+     * @param predicate The filter
+     * @return A list of items associated with <code>key</code> that satisfy
+     * <code>predicate</code>
+     */
+    public ArrayList<Object> get(V key, Predicate<Object> predicate) {
+        Bucket bucket = values.get(key);
+        ArrayList<Object> items = new ArrayList<>();
+
+        if(bucket == null) {
+            return items;
+        }
+
+        for(int i = 0; i < bucket.size; i++) {
+            if(predicate.test(bucket.items[i])) {
+                items.add(bucket.items[i]);
+            }
+        }
+
+        return items;
+    }
+}
@@ -1,5 +1,7 @@
 package utilities;
 
+import java.time.LocalDate;
+
 /**
  * Represents a day in time such as January 1, 1970.
  */
@@ -21,14 +23,82 @@ public class Date implements Comparable<Date> {
         DECEMBER
     }
 
-    private Month month;
-    private int day;
-    private int year;
+    private static final Month[] MONTHS = Month.values();
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * Dates from 1970 up to 2100 are interned in a
+     * flyweight cache indexed by epoch day
+     */
+    private static final int CACHE_END_YEAR = 2100;
+    private static final Date[] CACHE = new Date[(int) toEpochDay(CACHE_END_YEAR, 1, 1)];
+
+    /**
+     * The date packed as <code>yyyymmdd</code>, so comparing two
+     * packed dates as ints compares them in time
+     */
+    private final int packed;
 
     public Date(Month month, int day, int year) {
-        this.month = month;
-        this.day = day;
-        this.year = year;
+        this.packed = pack(month, day, year);
+    }
+
+    private Date(int packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * A date, reusing a cached instance for common dates
+     *
+     * @param month The month
+     * @param day The day of the month
+     * @param year The year
+     * @return The date
+     */
+    public static Date of(Month month, int day, int year) {
+        int packed = pack(month, day, year);
+        return ofEpochDay(toEpochDay(year, month.ordinal() + 1, day), packed);
+    }
+
+    /**
+     * A date from its packed <code>yyyymmdd</code> form
+     *
+     * @param packed The date as <code>yyyymmdd</code>
+     * @return The date
+     */
+    public static Date ofPacked(int packed) {
+        return of(monthOf(packed / 100 % 100), packed % 100, packed / 10000);
+    }
+
+    /**
+     * A date from the number of days since January 1, 1970
+     *
+     * @param epochDay The day, 0 being January 1, 1970
+     * @return The date
+     */
+    public static Date ofEpochDay(long epochDay) {
+        // Days to civil date, see https://howardhinnant.github.io/date_algorithms.html
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+
+        return ofEpochDay(epochDay, pack(monthOf(month), day, year));
+    }
+
+    /**
+     * A date from a <code>LocalDate</code>
+     *
+     * @param date The <code>LocalDate</code>
+     * @return The date
+     */
+    public static Date from(LocalDate date) {
+        return of(monthOf(date.getMonthValue()), date.getDayOfMonth(), date.getYear());
     }
 
     /**
@@ -37,7 +107,7 @@ public class Date implements Comparable<Date> {
      * @return The month of this date
      */
     public Month getMonth() {
-        return month;
+        return monthOf(packed / 100 % 100);
     }
 
     /**
@@ -46,7 +116,7 @@ public class Date implements Comparable<Date> {
      * @return The day of the month of this date
      */
     public int getDay() {
-        return day;
+        return packed % 100;
     }
 
     /**
@@ -55,7 +125,45 @@ public class Date implements Comparable<Date> {
      * @return The date's year
      */
     public int getYear() {
-        return year;
+        return packed / 10000;
+    }
+
+    /**
+     * The date packed as an int
+     *
+     * @return The date as <code>yyyymmdd</code>
+     */
+    public int toPacked() {
+        return packed;
+    }
+
+    /**
+     * The number of days since January 1, 1970. Usable as an
+     * index into arrays of daily values.
+     *
+     * @return The epoch day of this date
+     */
+    public long toEpochDay() {
+        return toEpochDay(this.getYear(), packed / 100 % 100, this.getDay());
+    }
+
+    /**
+     * This date as a <code>LocalDate</code>
+     *
+     * @return A <code>LocalDate</code> of this date
+     */
+    public LocalDate toLocalDate() {
+        return LocalDate.of(this.getYear(), packed / 100 % 100, this.getDay());
+    }
+
+    /**
+     * The date <code>days</code> days after this one
+     *
+     * @param days The number of days to add, may be negative
+     * @return The later date
+     */
+    public Date plusDays(long days) {
+        return ofEpochDay(this.toEpochDay() + days);
     }
 
     /**
@@ -67,35 +175,72 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public int compareTo(Date o) {
-        if(o.equals(this)) {
-            return 0;
-        }
+        return Integer.compare(this.packed, o.packed);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof Date date)) return false;
+
+        return packed == date.packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return packed;
+    }
+
+    @Override
+    public String toString() {
+        return packed / 100 % 100 + "/" + this.getDay() + "/" + this.getYear();
+    }
 
-        // Comparing year, month, and day took some figuring out
-        if(this.year < o.year) {
-            return -1;
+    private static Date ofEpochDay(long epochDay, int packed) {
+        if(epochDay < 0 || epochDay >= CACHE.length) {
+            return new Date(packed);
         }
 
-        if(this.month.ordinal() < o.month.ordinal() && (o.year == this.year)) {
-            return -1;
+        Date date = CACHE[(int) epochDay];
+
+        if(date == null) {
+            date = new Date(packed);
+            CACHE[(int) epochDay] = date;
         }
 
-        if(this.day < o.day && (o.month.ordinal() == this.month.ordinal()) && (o.year == this.year)) {
-            return -1;
+        return date;
+    }
+
+    private static Month monthOf(int month) {
+        if(month < 1 || month > 12) {
+            throw new IllegalArgumentException("Invalid month: " + month);
         }
 
-        return 1;
+        return MONTHS[month - 1];
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if(!(o instanceof Date date)) return false;
+    private static int pack(Month month, int day, int year) {
+        if(year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Year must be between 0 and 9999");
+        }
 
-        return day == date.day && year == date.year && month == date.month;
+        boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+        int length = month == Month.FEBRUARY && !leap ? 28 : DAYS_IN_MONTH[month.ordinal()];
+
+        if(day < 1 || day > length) {
+            throw new IllegalArgumentException("Invalid day of " + month + ": " + day);
+        }
+
+        return year * 10000 + (month.ordinal() + 1) * 100 + day;
     }
 
-    @Override
-    public String toString() {
-        return this.month.ordinal() + 1 + "/" + this.day + "/" + this.year;
+    private static long toEpochDay(int year, int month, int day) {
+        // Civil date to days, see https://howardhinnant.github.io/date_algorithms.html
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yoe = y - era * 400;
+        long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+
+        return era * 146097 + doe - 719468;
     }
 }
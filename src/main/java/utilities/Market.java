@@ -2,6 +2,61 @@ package utilities;
 
 /**
  * A market for the trading of assets.
+ *
+ * <p>
+ * Participants submit limit orders, which are matched against resting
+ * orders and reported back through {@link Participant}. Prices are in
+ * {@link Money} micro-units.
+ * </p>
  */
 public abstract class Market<T extends Asset> {
+
+    /**
+     * Receives the outcome of orders submitted to a market
+     */
+    public interface Participant {
+
+        /**
+         * Called when part or all of an order trades
+         *
+         * @param asset The asset traded
+         * @param side The side of the participant's order
+         * @param limitPrice The limit price of the participant's order
+         * @param price The price the trade happened at
+         * @param quantity The quantity traded
+         */
+        void onFill(Asset asset, Side side, long limitPrice, long price, int quantity);
+
+        /**
+         * Called when the rest of an order is cancelled
+         *
+         * @param asset The asset of the order
+         * @param side The side of the order
+         * @param limitPrice The limit price of the order
+         * @param quantity The quantity that was left and is now cancelled
+         */
+        default void onCancel(Asset asset, Side side, long limitPrice, int quantity) {
+        }
+    }
+
+    /**
+     * Submits a limit order. Whatever does not trade straight
+     * away rests in the market until it trades or is cancelled.
+     *
+     * @param participant Who to report fills and cancels to, may be <code>null</code>
+     * @param asset The asset to trade
+     * @param side Whether to buy or sell
+     * @param limitPrice The worst acceptable price in micro-units
+     * @param quantity The quantity to trade
+     * @return The id of the order, for cancelling it
+     */
+    public abstract long submit(Participant participant, T asset, Side side, long limitPrice, int quantity);
+
+    /**
+     * Cancels what is left of an order
+     *
+     * @param orderId The id of the order
+     * @return If the order was resting and is now cancelled
+     */
+    public abstract boolean cancel(long orderId);
 }
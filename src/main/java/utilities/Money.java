@@ -0,0 +1,80 @@
+package utilities;
+
+/**
+ * Fixed-point arithmetic for prices and cash.
+ *
+ * <p>
+ * Amounts of money are plain <code>long</code>s counting micro-units,
+ * millionths of a currency unit, so <code>1.25</code> is
+ * <code>1_250_000</code>. Adding and subtracting them is exact and never
+ * allocates, unlike <code>double</code> or <code>BigDecimal</code>.
+ * Convert with {@link #of(double)} and {@link #toDouble(long)} only where
+ * values enter or leave the program, such as feeds and display.
+ * </p>
+ */
+public final class Money {
+
+    /**
+     * The number of micro-units in one currency unit
+     */
+    public static final long SCALE = 1_000_000L;
+
+    private Money() {
+    }
+
+    /**
+     * Converts an amount to micro-units, rounding to the nearest micro-unit
+     *
+     * @param amount The amount in currency units
+     * @return The amount in micro-units
+     */
+    public static long of(double amount) {
+        return Math.round(amount * SCALE);
+    }
+
+    /**
+     * Converts micro-units to an amount in currency units
+     *
+     * @param micros The amount in micro-units
+     * @return The amount in currency units
+     */
+    public static double toDouble(long micros) {
+        return (double) micros / SCALE;
+    }
+
+    /**
+     * The cost of <code>quantity</code> units at <code>price</code> each
+     *
+     * @param price The price of one unit in micro-units
+     * @param quantity The number of units
+     * @return The total in micro-units
+     * @throws ArithmeticException If the total overflows
+     */
+    public static long times(long price, long quantity) {
+        return Math.multiplyExact(price, quantity);
+    }
+
+    /**
+     * Rounds a price to the nearest multiple of an instrument's tick size
+     *
+     * @param price The price in micro-units
+     * @param tickSize The tick size in micro-units
+     * @return The rounded price in micro-units
+     */
+    public static long roundToTick(long price, long tickSize) {
+        return Math.floorDiv(price + tickSize / 2, tickSize) * tickSize;
+    }
+
+    /**
+     * Formats micro-units as a decimal amount, such as <code>1.250000</code>
+     *
+     * @param micros The amount in micro-units
+     * @return The formatted amount
+     */
+    public static String toString(long micros) {
+        String sign = micros < 0 ? "-" : "";
+
+        // Split before taking the absolute value, which overflows for Long.MIN_VALUE
+        return sign + Math.abs(micros / SCALE) + "." + String.format("%06d", Math.abs(micros % SCALE));
+    }
+}
@@ -15,29 +15,93 @@ public class MultiMap<V> {
      * to be associated to one key
      */
     public static class MapValuesWrapper {
+
+        /**
+         * A read-only view over the buckets of several classes,
+         * one bucket after another
+         */
+        private static final class BucketsView<T> extends AbstractList<T> {
+            private final HashMap<Class<?>, ArrayList<Object>> buckets;
+            private final ArrayList<Class<?>> classes;
+
+            private BucketsView(HashMap<Class<?>, ArrayList<Object>> buckets, ArrayList<Class<?>> classes) {
+                this.buckets = buckets;
+                this.classes = classes;
+            }
+
+            @Override
+            public T get(int index) {
+                if(index < 0) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds");
+                }
+
+                for(Class<?> cls : classes) {
+                    ArrayList<Object> bucket = buckets.get(cls);
+
+                    if(index < bucket.size()) {
+                        // Only buckets of classes assignable to T are viewed
+                        @SuppressWarnings("unchecked")
+                        T item = (T) bucket.get(index);
+                        return item;
+                    }
+
+                    index -= bucket.size();
+                }
+
+                throw new IndexOutOfBoundsException("Index out of bounds for size " + size());
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+
+                for(Class<?> cls : classes) {
+                    size += buckets.get(cls).size();
+                }
+
+                return size;
+            }
+        }
+
         private final ArrayList<Object> items;
+        private final HashMap<Class<?>, ArrayList<Object>> itemsByClass;
+        private final HashMap<Class<?>, ArrayList<Class<?>>> assignableClasses;
+        private final boolean identity;
 
         public MapValuesWrapper() {
+            this(false);
+        }
+
+        /**
+         * Constructs a wrapper
+         *
+         * @param identity If items are matched by reference (<code>==</code>)
+         *                 instead of <code>equals</code>
+         */
+        public MapValuesWrapper(boolean identity) {
             items = new ArrayList<>();
+            itemsByClass = new HashMap<>();
+            assignableClasses = new HashMap<>();
+            this.identity = identity;
         }
 
         /**
-         * Retrieves items of a specific class
+         * Retrieves items of a specific class, including subclasses.
+         *
+         * <p>
+         * Items are bucketed by their runtime class as they are added, so
+         * this only visits the matching items. The returned list is a read-only
+         * view that reflects later changes to the wrapper, including items of
+         * subclasses that are first added after the view. Items are grouped by
+         * runtime class and keep their insertion order within each class.
+         * </p>
          *
          * @param cls The class of the items to retrieve
-         * @return A list of items of type <code>T</code>
+         * @return A read-only list of items of type <code>T</code>
          * @param <T> The type of the items to retrieve
          */
-        public final <T> ArrayList<T> getValuesByClass(Class<T> cls) {
-            ArrayList<T> items = new ArrayList<>();
-
-            for(final Object obj : this.items) {
-                if(cls.isAssignableFrom(obj.getClass())) {
-                    items.add((T) obj);
-                }
-            }
-
-            return items;
+        public final <T> List<T> getValuesByClass(Class<T> cls) {
+            return new BucketsView<>(itemsByClass, assignableClasses.computeIfAbsent(cls, this::findAssignableClasses));
         }
 
         /**
@@ -48,6 +112,11 @@ public class MultiMap<V> {
          */
         public MapValuesWrapper addItem(Object item) {
             items.add(item);
+
+            if(item != null) {
+                itemsByClass.computeIfAbsent(item.getClass(), this::addBucket).add(item);
+            }
+
             return this;
         }
 
@@ -58,7 +127,29 @@ public class MultiMap<V> {
          * @return this <code>MapValuesWrapper</code>
          */
         public MapValuesWrapper removeItem(Object item) {
-            items.remove(item);
+            int index = this.indexOf(items, item);
+
+            if(index >= 0) {
+                Object removed = items.remove(index);
+
+                if(removed != null) {
+                    ArrayList<Object> bucket = itemsByClass.get(removed.getClass());
+                    bucket.remove(this.indexOf(bucket, removed));
+                }
+            }
+
+            return this;
+        }
+
+        /**
+         * Removes every occurrence of an item from the wrapper
+         *
+         * @param item The item to remove
+         * @return this <code>MapValuesWrapper</code>
+         */
+        public MapValuesWrapper removeAll(Object item) {
+            items.removeIf(x -> this.matches(x, item));
+            itemsByClass.values().forEach(x -> x.removeIf(y -> this.matches(y, item)));
             return this;
         }
 
@@ -78,14 +169,72 @@ public class MultiMap<V> {
          * @return If this wrapper contains <code>item</code>
          */
         public boolean contains(Object item) {
-            return this.items.contains(item);
+            return this.indexOf(items, item) >= 0;
+        }
+
+        private boolean matches(Object stored, Object item) {
+            return identity ? stored == item : Objects.equals(stored, item);
+        }
+
+        private int indexOf(ArrayList<Object> list, Object item) {
+            if(!identity) {
+                return list.indexOf(item);
+            }
+
+            for(int i = 0; i < list.size(); i++) {
+                if(list.get(i) == item) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Creates the bucket for a runtime class seen for the first time
+         * and records it against every cached class it is assignable to
+         */
+        private ArrayList<Object> addBucket(Class<?> cls) {
+            assignableClasses.forEach((query, classes) -> {
+                if(query.isAssignableFrom(cls)) {
+                    classes.add(cls);
+                }
+            });
+
+            return new ArrayList<>();
+        }
+
+        private ArrayList<Class<?>> findAssignableClasses(Class<?> query) {
+            ArrayList<Class<?>> classes = new ArrayList<>();
+
+            for(Class<?> cls : itemsByClass.keySet()) {
+                if(query.isAssignableFrom(cls)) {
+                    classes.add(cls);
+                }
+            }
+
+            return classes;
         }
     }
 
     private final HashMap<V, MapValuesWrapper> values;
+    private final Map<Object, HashSet<V>> keysByValue;
+    private final boolean identity;
 
     public MultiMap() {
-        values = new HashMap<>();
+        this(false);
+    }
+
+    /**
+     * Constructs a map
+     *
+     * @param identity If values are matched by reference (<code>==</code>)
+     *                 instead of <code>equals</code> when they are removed
+     */
+    public MultiMap(boolean identity) {
+        this.values = new HashMap<>();
+        this.keysByValue = identity ? new IdentityHashMap<>() : new HashMap<>();
+        this.identity = identity;
     }
 
     /**
@@ -96,11 +245,8 @@ public class MultiMap<V> {
      * @param value The value
      */
     public void put(V key, Object value) {
-        if(this.containsKey(key)) {
-            values.get(key).addItem(value);
-        } else {
-            this.values.put(key, new MapValuesWrapper().addItem(value));
-        }
+        this.values.computeIfAbsent(key, k -> new MapValuesWrapper(identity)).addItem(value);
+        this.keysByValue.computeIfAbsent(value, v -> new HashSet<>()).add(key);
     }
 
     /**
@@ -121,17 +267,36 @@ public class MultiMap<V> {
      * @param key The key to remove
      */
     public void remove(V key) {
-        values.remove(key);
+        MapValuesWrapper wrapper = values.remove(key);
+
+        if(wrapper == null) {
+            return;
+        }
+
+        for(Object item : wrapper.getItems()) {
+            HashSet<V> keys = keysByValue.get(item);
+
+            if(keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByValue.remove(item);
+            }
+        }
     }
 
     /**
-     * Removes a value from any key it is associated with
+     * Removes a value from any key it is associated with.
+     * Only visits the keys that hold the value.
      *
      * @param value The value
      */
     public void removeValue(Object value) {
-        for(V key : this.keySet()) {
-            this.get(key).remove(value);
+        HashSet<V> keys = keysByValue.remove(value);
+
+        if(keys == null) {
+            return;
+        }
+
+        for(V key : keys) {
+            values.get(key).removeAll(value);
         }
     }
 
@@ -167,24 +332,23 @@ public class MultiMap<V> {
     }
 
     /**
-     * Retrieves items of a specific class mapped to a value
+     * Retrieves items of a specific class mapped to a value.
+     * Does not copy the key's values.
      *
      * @param key The key
      * @param cls The class of the items to retrieve
-     * @return A list of items of type <code>T</code>
+     * @return A read-only list of items of type <code>T</code>, empty if
+     * the key is not in the map
      * @param <T> The type of the items to retrieve
      */
-    public final <T> ArrayList<T> getValuesByClass(V key, Class<T> cls) {
-        ArrayList<T> items = new ArrayList<>();
-        ArrayList<Object> values = this.get(key);
+    public final <T> List<T> getValuesByClass(V key, Class<T> cls) {
+        MapValuesWrapper wrapper = this.values.get(key);
 
-        for(final Object object : values) {
-            if(cls.isAssignableFrom(object.getClass())) {
-                items.add((T) object);
-            }
+        if(wrapper == null) {
+            return Collections.emptyList();
         }
 
-        return items;
+        return wrapper.getValuesByClass(cls);
     }
 
     /**
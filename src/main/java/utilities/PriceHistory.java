@@ -0,0 +1,302 @@
+package utilities;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed-capacity history of timestamped prices.
+ *
+ * <p>
+ * Prices and their timestamps are kept in primitive ring buffers. The
+ * buffers start small and double as prices are recorded until they reach
+ * the capacity, so a short-lived asset does not pay for a full history.
+ * Once the history is full, recording a price never allocates and the
+ * oldest price is overwritten by the newest one.
+ * </p>
+ *
+ * Indexes run from the oldest retained price (<code>0</code>)
+ * to the most recent one (<code>size() - 1</code>).
+ *
+ * A history is not thread-safe. An <code>Asset</code> writes to its
+ * history while holding its own monitor.
+ */
+public class PriceHistory {
+
+    /**
+     * The number of prices retained when no capacity is given
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The number of prices the buffers hold before they first grow
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    private final int capacity;
+    private double[] prices;
+    private long[] timestamps;
+    private int head;
+    private int size;
+    private List<Double> view;
+
+    /**
+     * Constructs a history that retains
+     * {@value #DEFAULT_CAPACITY} prices
+     */
+    public PriceHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a history
+     *
+     * @param capacity The maximum number of prices to retain
+     */
+    public PriceHistory(int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.capacity = capacity;
+        this.prices = new double[Math.min(capacity, INITIAL_LENGTH)];
+        this.timestamps = new long[prices.length];
+    }
+
+    /**
+     * The maximum number of prices this history retains
+     *
+     * @return The capacity of this history
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of prices currently retained
+     *
+     * @return The number of prices in this history
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines if this history has no prices
+     *
+     * @return If this history is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Records a price. Overwrites the oldest price
+     * if the history is full.
+     *
+     * @param price The price
+     * @param timestamp The time of the price in epoch nanoseconds
+     */
+    public void add(double price, long timestamp) {
+        if(size == prices.length && size < capacity) {
+            // Nothing has been overwritten yet, so the prices are in order from index 0
+            int length = (int) Math.min(capacity, 2L * size);
+            prices = Arrays.copyOf(prices, length);
+            timestamps = Arrays.copyOf(timestamps, length);
+            head = size;
+        }
+
+        prices[head] = price;
+        timestamps[head] = timestamp;
+
+        if(++head == prices.length) {
+            head = 0;
+        }
+
+        if(size < prices.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes all prices from this history
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * The price at <code>index</code>
+     *
+     * @param index The index, <code>0</code> being the oldest price
+     * @return The price at <code>index</code>
+     */
+    public double getPrice(int index) {
+        return prices[physicalIndex(index)];
+    }
+
+    /**
+     * The timestamp of the price at <code>index</code>
+     *
+     * @param index The index, <code>0</code> being the oldest price
+     * @return The timestamp of the price at <code>index</code> in epoch nanoseconds
+     */
+    public long getTimestamp(int index) {
+        return timestamps[physicalIndex(index)];
+    }
+
+    /**
+     * The most recent price
+     *
+     * @return The most recent price
+     */
+    public double latestPrice() {
+        return getPrice(size - 1);
+    }
+
+    /**
+     * Copies prices into <code>dest</code>
+     *
+     * @param from The index of the first price to copy
+     * @param dest The array to copy into
+     * @param destPos The position in <code>dest</code> to start at
+     * @param length The number of prices to copy
+     */
+    public void copyPrices(int from, double[] dest, int destPos, int length) {
+        checkRange(from, length);
+
+        int start = physicalStart(from);
+        int firstPart = Math.min(length, prices.length - start);
+
+        System.arraycopy(prices, start, dest, destPos, firstPart);
+        System.arraycopy(prices, 0, dest, destPos + firstPart, length - firstPart);
+    }
+
+    /**
+     * Copies timestamps into <code>dest</code>
+     *
+     * @param from The index of the first timestamp to copy
+     * @param dest The array to copy into
+     * @param destPos The position in <code>dest</code> to start at
+     * @param length The number of timestamps to copy
+     */
+    public void copyTimestamps(int from, long[] dest, int destPos, int length) {
+        checkRange(from, length);
+
+        int start = physicalStart(from);
+        int firstPart = Math.min(length, timestamps.length - start);
+
+        System.arraycopy(timestamps, start, dest, destPos, firstPart);
+        System.arraycopy(timestamps, 0, dest, destPos + firstPart, length - firstPart);
+    }
+
+    /**
+     * The most recent <code>count</code> prices, oldest first.
+     * Returns fewer prices if the history holds fewer.
+     *
+     * @param count The number of prices, must not be negative
+     * @return An array of the most recent prices
+     */
+    public double[] lastPrices(int count) {
+        if(count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+
+        int length = Math.min(count, size);
+        double[] window = new double[length];
+
+        copyPrices(size - length, window, 0, length);
+        return window;
+    }
+
+    /**
+     * Finds the index of the first price recorded at or after
+     * <code>timestamp</code>. Assumes prices were recorded in time order.
+     *
+     * @param timestamp The timestamp in epoch nanoseconds
+     * @return The index of the first price at or after <code>timestamp</code>,
+     * or <code>size()</code> if there is none
+     */
+    public int indexOf(long timestamp) {
+        int low = 0;
+        int high = size;
+
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+
+            if(getTimestamp(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Copies the prices recorded in <code>[from, to)</code> into <code>dest</code>.
+     * Copies no more than <code>dest</code> can hold.
+     *
+     * @param from The start of the window in epoch nanoseconds, inclusive
+     * @param to The end of the window in epoch nanoseconds, exclusive
+     * @param dest The array to copy into
+     * @return The number of prices copied
+     */
+    public int copyWindow(long from, long to, double[] dest) {
+        int start = indexOf(from);
+        int length = Math.min(indexOf(to) - start, dest.length);
+
+        if(length <= 0) {
+            return 0;
+        }
+
+        copyPrices(start, dest, 0, length);
+        return length;
+    }
+
+    /**
+     * A read-only <code>List</code> view of the prices in this history.
+     * The view reflects later changes to the history.
+     *
+     * @return A view of the prices, oldest first
+     */
+    public List<Double> asList() {
+        if(view == null) {
+            view = new AbstractList<>() {
+                @Override
+                public Double get(int index) {
+                    return getPrice(index);
+                }
+
+                @Override
+                public int size() {
+                    return PriceHistory.this.size;
+                }
+            };
+        }
+
+        return view;
+    }
+
+    private int physicalStart(int index) {
+        int start = head - size + index;
+        return start < 0 ? start + prices.length : start;
+    }
+
+    private int physicalIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+
+        return physicalStart(index);
+    }
+
+    private void checkRange(int from, int length) {
+        if(from < 0 || length < 0 || from + length > size) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + (from + length)
+                    + ") out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package utilities;
+
+/**
+ * The side of a trade
+ */
+public enum Side {
+
+    /**
+     * Buying an asset
+     */
+    BUY,
+
+    /**
+     * Selling an asset
+     */
+    SELL
+}
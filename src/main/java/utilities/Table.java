@@ -1,9 +1,16 @@
 package utilities;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A table of values.
@@ -41,6 +48,14 @@ public class Table<T> {
             values = new ArrayList<>(size);
         }
 
+        /**
+         * Constructs a row that is a view over storage kept
+         * elsewhere, such as the columns of a {@link ColumnarTable}.
+         * Such a row must override the methods that read and write values.
+         */
+        protected Row() {
+        }
+
         /**
          * Row size
          *
@@ -107,7 +122,7 @@ public class Table<T> {
          * Prints the row's values
          */
         public void print() {
-            for(T value : values) {
+            for(T value : getValues()) {
                 if(value == null) {
                     System.out.println("No Value\t\t\t");
                 }
@@ -124,7 +139,7 @@ public class Table<T> {
          * @param format The string formatting to use for each item
          */
         public void print(String format) {
-            for(T value : values) {
+            for(T value : getValues()) {
                 if(value == null) {
                     System.out.println("No Value\t\t\t");
                 }
@@ -192,11 +207,29 @@ public class Table<T> {
          */
         public static <V> Table<V> build(int rows, int cols) {
             Table<V> table = new Table<>(rows, cols);
+            table.addColumns(Collections.nCopies(cols, "Title"));
 
-            for(int i = 0; i < cols; i++) {
-                table.addColumn("Title");
+            for(int i = 0; i < rows; i++) {
+                table.addRow();
             }
 
+            return table;
+        }
+
+        /**
+         * Builds a {@link ColumnarTable} of dimensions
+         * <code>rows * cols</code> where every column
+         * holds <code>type</code>
+         *
+         * @param rows The number of rows
+         * @param cols The number of columns
+         * @param type The primitive type stored in the columns
+         * @return A columnar table of dimensions <code>rows * cols</code>
+         */
+        public static ColumnarTable buildColumnar(int rows, int cols, ColumnarTable.ColumnType type) {
+            ColumnarTable table = new ColumnarTable(rows, cols);
+            table.addColumns(Collections.nCopies(cols, "Title"), type);
+
             for(int i = 0; i < rows; i++) {
                 table.addRow();
             }
@@ -205,8 +238,99 @@ public class Table<T> {
         }
     }
 
+    /**
+     * Iterates over a table's values row by row. Splits
+     * by halving the remaining range of rows. The offsets of
+     * the rows are taken up front, so every split knows its
+     * exact size.
+     *
+     * @param <T> The type stored in the table's rows
+     */
+    private static final class TableSpliterator<T> implements Spliterator<T> {
+        private final Table<T> table;
+        private final int[] offsets;
+        private int rowIndex;
+        private final int endRow;
+        private Row<T> row;
+        private int colIndex;
+
+        private TableSpliterator(Table<T> table, int[] offsets, int rowIndex, int endRow) {
+            this.table = table;
+            this.offsets = offsets;
+            this.rowIndex = rowIndex;
+            this.endRow = endRow;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while(row == null || colIndex >= row.getSize()) {
+                if(rowIndex >= endRow) {
+                    return false;
+                }
+
+                row = table.getRow(rowIndex++);
+                colIndex = 0;
+            }
+
+            action.accept(row.getItem(colIndex++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if(row != null) {
+                while(colIndex < row.getSize()) {
+                    action.accept(row.getItem(colIndex++));
+                }
+            }
+
+            for(; rowIndex < endRow; rowIndex++) {
+                row = table.getRow(rowIndex);
+
+                for(colIndex = 0; colIndex < row.getSize(); colIndex++) {
+                    action.accept(row.getItem(colIndex));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if(row != null && colIndex < row.getSize()) {
+                return null;
+            }
+
+            int mid = (rowIndex + endRow) >>> 1;
+
+            if(mid <= rowIndex) {
+                return null;
+            }
+
+            TableSpliterator<T> prefix = new TableSpliterator<>(table, offsets, rowIndex, mid);
+            rowIndex = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = offsets[endRow] - offsets[rowIndex];
+            return row == null ? size : size + row.getSize() - colIndex;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * The number of rows at which bulk operations
+     * switch to running in parallel by default
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
     private final ArrayList<Column> columns;
-    private ArrayList<Row<T>> rows;
+    private final ArrayList<Row<T>> rows;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
     /**
      * Constructs a table with no rows or columns
@@ -255,6 +379,37 @@ public class Table<T> {
         return this.rows.get(rowIndex);
     }
 
+    /**
+     * The number of rows at which {@link #filter(Predicate)}
+     * and {@link #map(Function)} run on the common fork-join pool
+     *
+     * @return The parallel row threshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the number of rows at which bulk operations
+     * run on the common fork-join pool
+     *
+     * @param parallelThreshold The parallel row threshold
+     * @return The table
+     */
+    public Table<T> setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    /**
+     * Determines if bulk operations on this table should run in parallel
+     *
+     * @return If the table has at least as many rows as the parallel threshold
+     */
+    protected boolean isParallel() {
+        return this.getRowCount() >= this.parallelThreshold;
+    }
+
     /**
      * Gets the column at <code>index</code>
      *
@@ -266,20 +421,34 @@ public class Table<T> {
     }
 
     /**
-     * Adds a column to this table. Automatically syncs rows
-     * to match the new amount of columns
+     * Adds a column to this table. Rows are not copied;
+     * they grow as values are added to them.
      *
      * @param title The tile of the new column
      * @return The table
      */
     public Table<T> addColumn(String title) {
         this.columns.add(new Column(title));
+        return this;
+    }
+
+    /**
+     * Adds several columns to this table at once. Each existing
+     * row reserves room for the new columns a single time.
+     *
+     * @param titles The titles of the new columns
+     * @return The table
+     */
+    public Table<T> addColumns(List<String> titles) {
+        this.columns.ensureCapacity(this.columns.size() + titles.size());
+
+        for(String title : titles) {
+            this.columns.add(new Column(title));
+        }
 
-        this.rows.forEach(x -> {
-            ArrayList<T> newRow = new ArrayList<>(this.columns.size());
-            newRow.addAll(x.getValues());
-            x.setValues(newRow);
-        });
+        for(Row<T> row : this.rows) {
+            row.values.ensureCapacity(this.columns.size());
+        }
 
         return this;
     }
@@ -304,8 +473,8 @@ public class Table<T> {
 
         System.out.println();
 
-        for(Row<T> row : rows) {
-            row.print();
+        for(int i = 0; i < this.getRowCount(); i++) {
+            this.getRow(i).print();
         }
     }
 
@@ -322,8 +491,8 @@ public class Table<T> {
 
         System.out.println();
 
-        for(Row<T> row : rows) {
-            row.print(format);
+        for(int i = 0; i < this.getRowCount(); i++) {
+            this.getRow(i).print(format);
         }
     }
 
@@ -344,8 +513,8 @@ public class Table<T> {
 
         System.out.println();
 
-        for(Row<T> row : rows) {
-            row.print();
+        for(int i = 0; i < this.getRowCount(); i++) {
+            this.getRow(i).print();
         }
     }
 
@@ -368,8 +537,8 @@ public class Table<T> {
         System.out.println();
         System.out.println();
 
-        for(Row<T> row : rows) {
-            row.print(format);
+        for(int i = 0; i < this.getRowCount(); i++) {
+            this.getRow(i).print(format);
         }
     }
 
@@ -406,22 +575,37 @@ public class Table<T> {
      * @return The table
      */
     public Table<T> addValueToRow(T item, int rowIndex) {
-        if(this.getRow(rowIndex).getSize() >= this.columns.size()) {
+        Row<T> row = this.getRow(rowIndex);
+
+        if(row.getSize() >= this.columns.size()) {
             throw new IllegalStateException("Row length cannot exceed number of columns");
         }
 
-        this.rows.get(rowIndex).addItem(item);
+        row.addItem(item);
         return this;
     }
 
     /**
-     * Flattens the table into an <code>ArrayList</code> of its rows' values
+     * Flattens the table into an <code>ArrayList</code> of its rows' values.
+     * Values are appended straight into a list sized for the whole table,
+     * on the calling thread, since filling the list from several threads
+     * would take a second buffer as large as the list.
      *
      * @return An <code>ArrayList</code> of the table's values from all rows
+     * @throws ArithmeticException If the table holds more values than a list can
      */
     public ArrayList<T> flatten() {
-        ArrayList<T> items = new ArrayList<>();
-        this.rows.forEach(x -> items.addAll(x.getValues()));
+        int rowCount = this.getRowCount();
+        int[] offsets = this.rowOffsets();
+        ArrayList<T> items = new ArrayList<>(offsets[rowCount]);
+
+        for(int i = 0; i < rowCount; i++) {
+            Row<T> row = this.getRow(i);
+
+            for(int j = 0; j < row.getSize(); j++) {
+                items.add(row.getItem(j));
+            }
+        }
 
         return items;
     }
@@ -433,14 +617,75 @@ public class Table<T> {
      * @return An <code>ArrayList</code> of filtered values
      */
     public ArrayList<T> filter(Predicate<T> predicate) {
+        if(this.isParallel()) {
+            return this.parallelStream().filter(predicate)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+
         ArrayList<T> items = new ArrayList<>();
 
-        this.rows.forEach(x -> items.addAll(x.getValues().stream()
-                .filter(predicate).collect(Collectors.toCollection(ArrayList::new))));
+        for(int i = 0; i < this.getRowCount(); i++) {
+            Row<T> row = this.getRow(i);
+
+            for(int j = 0; j < row.getSize(); j++) {
+                T item = row.getItem(j);
+
+                if(predicate.test(item)) {
+                    items.add(item);
+                }
+            }
+        }
 
         return items;
     }
 
+    /**
+     * A sequential stream of the table's values, row by row.
+     * Values are read lazily as the stream is consumed.
+     *
+     * @return A stream of the table's values
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * A parallel stream of the table's values. Work is
+     * split between threads by ranges of rows.
+     *
+     * @return A parallel stream of the table's values
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * A <code>Spliterator</code> over the table's values that
+     * splits by ranges of rows
+     *
+     * @return A spliterator over the table's values
+     */
+    public Spliterator<T> spliterator() {
+        return new TableSpliterator<>(this, this.rowOffsets(), 0, this.getRowCount());
+    }
+
+    /**
+     * The index each row's values start at when the table is flattened,
+     * followed by the total number of values
+     *
+     * @throws ArithmeticException If the table holds more values than an array can
+     */
+    private int[] rowOffsets() {
+        int rowCount = this.getRowCount();
+        int[] offsets = new int[rowCount + 1];
+
+        for(int i = 0; i < rowCount; i++) {
+            offsets[i + 1] = Math.addExact(offsets[i], this.getRow(i).getSize());
+        }
+
+        return offsets;
+    }
+
     /**
      * Sets the titles of columns using an <code>ArrayList</code>
      *
@@ -464,22 +709,19 @@ public class Table<T> {
 
     /**
      * Applies a function to all the values
-     * in each row of the table
+     * in each row of the table. Rows are
+     * updated in place.
      *
      * @param function The function to apply
      */
     public void map(Function<T, T> function) {
-        ArrayList<Row<T>> rows = new ArrayList<>();
-
-        for(Row<T> row : this.rows) {
-            ArrayList<T> mappedRow = row.getValues().stream().map(function)
-                    .collect(Collectors.toCollection(ArrayList::new));
-            Row<T> r = new Row<>(row.getSize());
-            r.setValues(mappedRow);
-
-            rows.add(row);
+        if(this.isParallel()) {
+            IntStream.range(0, this.getRowCount()).parallel()
+                    .forEach(i -> this.rows.get(i).getValues().replaceAll(function::apply));
+        } else {
+            for(Row<T> row : this.rows) {
+                row.getValues().replaceAll(function::apply);
+            }
         }
-
-        this.rows = rows;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package utilities;
+
+/**
+ * Works out the {@link Status} of a price from its recent trend.
+ *
+ * <p>
+ * The detector keeps an exponential moving average of the price and a
+ * smoothed slope of that average, relative to the price. The status turns
+ * {@link Status#INCREASING} or {@link Status#DECREASING} once the slope
+ * passes the entry threshold in that direction, and only returns to
+ * {@link Status#STATIC} once the slope falls back inside the smaller exit
+ * threshold, or flips straight over if the slope passes the opposite entry
+ * threshold. The gap between the two thresholds is a hysteresis band that
+ * stops noise around one threshold from flipping the status back and forth.
+ * </p>
+ *
+ * Each update takes constant time and keeps no history. A
+ * detector is not thread-safe; an <code>Asset</code> updates
+ * its detector while holding its own monitor.
+ */
+public class TrendDetector {
+
+    /**
+     * The number of prices the average spans by default
+     */
+    public static final int DEFAULT_LENGTH = 20;
+
+    /**
+     * The slope, as a fraction of the price per update,
+     * that starts a trend by default
+     */
+    public static final double DEFAULT_ENTRY_THRESHOLD = 0.0005;
+
+    /**
+     * The slope, as a fraction of the price per update,
+     * inside which a trend ends by default
+     */
+    public static final double DEFAULT_EXIT_THRESHOLD = 0.0001;
+
+    private final double alpha;
+    private final double entryThreshold;
+    private final double exitThreshold;
+    private double average;
+    private double slope;
+    private boolean started;
+    private Status status;
+
+    /**
+     * Constructs a detector with the default length and thresholds
+     */
+    public TrendDetector() {
+        this(DEFAULT_LENGTH, DEFAULT_ENTRY_THRESHOLD, DEFAULT_EXIT_THRESHOLD);
+    }
+
+    /**
+     * Constructs a detector
+     *
+     * @param length The number of prices the average and slope span
+     * @param entryThreshold The slope, as a fraction of the price per update,
+     *                       past which a trend starts
+     * @param exitThreshold The slope, as a fraction of the price per update,
+     *                      inside which a trend ends; no more than <code>entryThreshold</code>
+     */
+    public TrendDetector(int length, double entryThreshold, double exitThreshold) {
+        if(length <= 0) {
+            throw new IllegalArgumentException("Length must be positive");
+        }
+
+        if(exitThreshold < 0 || exitThreshold > entryThreshold) {
+            throw new IllegalArgumentException("Exit threshold must be between 0 and the entry threshold");
+        }
+
+        this.alpha = 2.0 / (length + 1);
+        this.entryThreshold = entryThreshold;
+        this.exitThreshold = exitThreshold;
+        this.status = Status.STATIC;
+    }
+
+    /**
+     * Adds a price and works out the status
+     *
+     * @param price The price in micro-units
+     * @return The status after the price
+     */
+    public Status update(long price) {
+        double value = price;
+
+        if(!started) {
+            average = value;
+            started = true;
+            return status;
+        }
+
+        double previous = average;
+        average += alpha * (value - average);
+
+        double change = previous == 0 ? 0 : (average - previous) / previous;
+        slope += alpha * (change - slope);
+
+        status = switch(status) {
+            case INCREASING -> slope < exitThreshold ? this.enter() : Status.INCREASING;
+            case DECREASING -> slope > -exitThreshold ? this.enter() : Status.DECREASING;
+            case STATIC -> this.enter();
+        };
+
+        return status;
+    }
+
+    /**
+     * The status after the last price
+     *
+     * @return The status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * The smoothed slope of the average
+     *
+     * @return The slope as a fraction of the price per update
+     */
+    public double getSlope() {
+        return slope;
+    }
+
+    /**
+     * Forgets every price added so far
+     */
+    public void reset() {
+        average = 0;
+        slope = 0;
+        started = false;
+        status = Status.STATIC;
+    }
+
+    /**
+     * The status for the current slope, as if there were no trend yet
+     */
+    private Status enter() {
+        if(slope >= entryThreshold) {
+            return Status.INCREASING;
+        }
+
+        if(slope <= -entryThreshold) {
+            return Status.DECREASING;
+        }
+
+        return Status.STATIC;
+    }
+}
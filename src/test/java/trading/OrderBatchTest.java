@@ -0,0 +1,132 @@
+package trading;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import trading.markets.OrderBookMarket;
+import utilities.Money;
+import utilities.Side;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static trading.Stocks.stock;
+
+class OrderBatchTest {
+
+    @Test
+    void appliesTheWholeBatch() {
+        TradingBot bot = new TradingBot(100);
+        Stock apple = stock("AAPL", 10, 2);
+        Stock microsoft = stock("MSFT", 30, 1);
+        bot.buyAsset(apple);
+
+        byte[] results = bot.submitBatch(List.of(Order.sell(apple), Order.buy(microsoft)));
+
+        assertArrayEquals(new byte[] {Order.FILLED, Order.FILLED}, results);
+        assertEquals(70, bot.getCurrentCash());
+        assertEquals(0, bot.getPortfolio().amountOf(apple));
+        assertEquals(1, bot.getPortfolio().amountOf(microsoft));
+    }
+
+    @Test
+    void countsSalesOfOneSymbolAcrossTheBatch() {
+        TradingBot bot = new TradingBot(10);
+        Stock apple = stock("AAPL", 10, 1);
+        bot.buyAsset(apple);
+
+        byte[] results = bot.submitBatch(List.of(Order.sell(apple), Order.sell(apple)));
+
+        assertArrayEquals(new byte[] {Order.NOT_APPLIED, Order.NOT_HELD}, results);
+        assertEquals(0, bot.getCurrentCash());
+        assertEquals(1, bot.getPortfolio().amountOf(apple));
+    }
+
+    @Test
+    void appliesNothingWhenUnaffordable() {
+        TradingBot bot = new TradingBot(10);
+        Stock apple = stock("AAPL", 10, 1);
+        Stock microsoft = stock("MSFT", 30, 1);
+        bot.buyAsset(apple);
+
+        byte[] results = bot.submitBatch(List.of(Order.sell(apple), Order.buy(microsoft)));
+
+        assertArrayEquals(new byte[] {Order.INSUFFICIENT_FUNDS, Order.INSUFFICIENT_FUNDS}, results);
+        assertEquals(0, bot.getCurrentCash());
+        assertEquals(1, bot.getPortfolio().amountOf(apple));
+        assertEquals(0, bot.getPortfolio().amountOf(microsoft));
+    }
+
+    @Test
+    void salesProceedsFundPurchases() {
+        TradingBot bot = new TradingBot(0);
+        bot.getPortfolio().addAsset(stock("AAPL", 10, 3));
+
+        byte[] results = bot.submitBatch(List.of(Order.buy(stock("MSFT", 30, 1)), Order.sell(stock("AAPL", 10, 3))));
+
+        assertArrayEquals(new byte[] {Order.FILLED, Order.FILLED}, results);
+        assertEquals(0, bot.getCurrentCash());
+    }
+
+    @Test
+    void rejectsNonPositiveAmounts() {
+        TradingBot bot = new TradingBot(100);
+
+        byte[] results = bot.submitBatch(List.of(Order.buy(stock("AAPL", 10, 1)), Order.buy(stock("MSFT", 10, 0))));
+
+        assertArrayEquals(new byte[] {Order.NOT_APPLIED, Order.INVALID}, results);
+        assertEquals(100, bot.getCurrentCash());
+    }
+
+    @Test
+    void undoneSalesFollowTheOriginalAsset() {
+        TradingBot bot = new TradingBot(10);
+        Stock market = stock("AAPL", 10, 1);
+        Stock other = stock("AAPL", 10, 1);
+        bot.buyAsset(market);
+
+        byte[] results = bot.submitBatch(List.of(Order.sell(other), Order.buy(stock("MSFT", 30, 1))));
+
+        assertArrayEquals(new byte[] {Order.INSUFFICIENT_FUNDS, Order.INSUFFICIENT_FUNDS}, results);
+        assertEquals(1, bot.getPortfolio().amountOf(market));
+
+        other.setPrice(5);
+        market.setPrice(20);
+        assertEquals(20, bot.getPortfolio().value());
+        assertEquals(10, bot.getInitialBuyPrice(market));
+    }
+
+    @Test
+    void batchSalesAndSellOrdersNeverOversell() throws InterruptedException {
+        for(int round = 0; round < 200; round++) {
+            TradingBot bot = new TradingBot(100);
+            OrderBookMarket<Stock> market = new OrderBookMarket<>();
+            Stock stock = stock("AAPL", 10, 10);
+            bot.buyAsset(stock);
+
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean placed = new AtomicBoolean();
+            Thread seller = new Thread(() -> {
+                try {
+                    start.await();
+                    bot.placeOrder(market, stock, Side.SELL, Money.of(20), 10);
+                    placed.set(true);
+                } catch(InterruptedException | IllegalStateException e) {
+                    // Nothing left to sell
+                }
+            });
+
+            seller.start();
+            start.countDown();
+            byte[] results = bot.submitBatch(List.of(Order.sell(stock)));
+            seller.join();
+
+            assertNotEquals(placed.get(), results[0] == Order.FILLED);
+            assertEquals(placed.get() ? 10 : 0, bot.getPortfolio().amountOf(stock));
+            assertEquals(placed.get() ? 0 : 100, bot.getCurrentCash());
+        }
+    }
+}
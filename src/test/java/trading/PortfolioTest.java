@@ -0,0 +1,119 @@
+package trading;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import trading.markets.MarketSnapshot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static trading.Stocks.stock;
+
+class PortfolioTest {
+
+    @Test
+    void mergesBySymbolWithoutChangingCallersAssets() {
+        Portfolio portfolio = new Portfolio();
+        Stock first = stock("AAPL", 10, 3);
+        Stock second = stock("AAPL", 10, 2);
+
+        portfolio.addAsset(first);
+        portfolio.addAsset(second);
+
+        assertNotSame(first, portfolio.getAssets().iterator().next());
+        assertEquals(5, portfolio.getPosition("AAPL"));
+        assertEquals(3, first.getAmount());
+        assertEquals(2, second.getAmount());
+        assertEquals(50, portfolio.value());
+    }
+
+    @Test
+    void sharedAssetsDoNotLeakBetweenPortfolios() {
+        Portfolio one = new Portfolio();
+        Portfolio two = new Portfolio();
+        Stock shared = stock("MSFT", 20, 1);
+
+        one.addAsset(shared);
+        two.addAsset(shared);
+        two.addAsset(shared);
+
+        assertEquals(1, one.amountOf(shared));
+        assertEquals(2, two.amountOf(shared));
+        assertEquals(20, one.value());
+    }
+
+    @Test
+    void removesOnlyWhatIsHeld() {
+        Portfolio portfolio = new Portfolio();
+        Stock stock = stock("IBM", 5, 4);
+        portfolio.addAsset(stock);
+
+        assertEquals(1, portfolio.removeAsset(stock, 1));
+        assertEquals(3, portfolio.amountOf(stock));
+        assertEquals(3, portfolio.removeAsset(stock));
+        assertFalse(portfolio.holds(stock));
+        assertEquals(0, portfolio.removeAsset(stock));
+        assertEquals(0, portfolio.valueMicros());
+    }
+
+    @Test
+    void positionsFollowTheOpeningAssetsPrice() {
+        Portfolio portfolio = new Portfolio();
+        Stock market = stock("TSLA", 100, 2);
+        portfolio.addAsset(market);
+
+        market.setPrice(110);
+
+        assertEquals(220, portfolio.value());
+        assertEquals(portfolio.recalculateValue(), portfolio.valueMicros());
+
+        portfolio.removeAsset(market);
+        market.setPrice(120);
+        assertEquals(0, portfolio.valueMicros());
+    }
+
+    @Test
+    void positionsFollowOnlyTheFirstAssetAdded() {
+        Portfolio portfolio = new Portfolio();
+        Stock first = stock("AAPL", 10, 3);
+        Stock second = stock("AAPL", 10, 2);
+
+        portfolio.addAsset(first);
+        portfolio.addAsset(second);
+
+        second.setPrice(20);
+        assertEquals(50, portfolio.value());
+
+        first.setPrice(12);
+        assertEquals(60, portfolio.value());
+        assertEquals(portfolio.recalculateValue(), portfolio.valueMicros());
+    }
+
+    @Test
+    void valuesAtSnapshotPrices() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAsset(stock("A", 10, 2));
+        portfolio.addAsset(stock("B", 1, 5));
+
+        MarketSnapshot snapshot = MarketSnapshot.of(List.of("A"), new long[] {12_000_000}, 0);
+
+        assertEquals(29_000_000, portfolio.valueMicrosAt(snapshot));
+    }
+
+    @Test
+    void assetsWithoutSymbolsAreSeparatePositions() {
+        Portfolio portfolio = new Portfolio();
+        Stock first = stock(null, 1, 1);
+        Stock second = stock(null, 1, 1);
+
+        portfolio.addAsset(first);
+        portfolio.addAsset(second);
+
+        assertEquals(2, portfolio.getAssets().size());
+        assertTrue(portfolio.holds(first));
+        assertEquals(0, portfolio.getPosition(null));
+    }
+}
@@ -0,0 +1,22 @@
+package trading;
+
+import trading.assets.Stock;
+
+/**
+ * Builds stocks for tests
+ */
+final class Stocks {
+
+    private Stocks() {
+    }
+
+    /**
+     * A stock at a price, holding an amount
+     */
+    static Stock stock(String symbol, double price, int amount) {
+        Stock stock = new Stock(symbol);
+        stock.setPrice(price);
+        stock.setAmount(amount);
+        return stock;
+    }
+}
@@ -0,0 +1,245 @@
+package trading;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import trading.markets.ImmediateMarket;
+import trading.markets.OrderBookMarket;
+import trading.metrics.Metrics;
+import trading.metrics.Timer;
+import utilities.Asset;
+import utilities.AssetListener;
+import utilities.Money;
+import utilities.Side;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static trading.Stocks.stock;
+
+class TradingBotTest {
+
+    @Test
+    void buysAndSellsTheAssetsAmount() {
+        TradingBot bot = new TradingBot(100);
+        Stock stock = stock("AAPL", 10, 3);
+
+        bot.buyAsset(stock);
+        assertEquals(70, bot.getCurrentCash());
+        assertEquals(100, bot.netWorth());
+
+        stock.setPrice(12);
+        assertEquals(106, bot.netWorth());
+
+        assertEquals(3, bot.sellAsset(stock));
+        assertEquals(106, bot.getCurrentCash());
+        assertEquals(6, bot.profit());
+    }
+
+    @Test
+    void sellingTwiceDoesNotCreateCash() {
+        TradingBot bot = new TradingBot(10);
+        Stock stock = stock("AAPL", 10, 1);
+
+        bot.buyAsset(stock);
+        bot.sellAsset(stock);
+
+        assertEquals(0, bot.sellAsset(stock));
+        assertEquals(10, bot.getCurrentCash());
+    }
+
+    @Test
+    void neverOverdrawsUnderConcurrentBuys() {
+        TradingBot bot = new TradingBot(1_000);
+        Stock stock = stock("AAPL", 1, 1);
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            try {
+                bot.buyAsset(stock);
+            } catch(RuntimeException e) {
+                // Out of cash
+            }
+        });
+
+        assertEquals(0, bot.getCurrentCashMicros());
+        assertEquals(1_000, bot.getPortfolio().amountOf(stock));
+    }
+
+    @Test
+    void concurrentSalesOnlyPayForWhatIsHeld() {
+        TradingBot bot = new TradingBot(1_000);
+        Stock stock = stock("AAPL", 1, 1);
+
+        for(int i = 0; i < 1_000; i++) {
+            bot.buyAsset(stock);
+        }
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> bot.sellAsset(stock));
+
+        assertEquals(1_000, bot.getCurrentCash());
+        assertEquals(0, bot.getPortfolio().amountOf(stock));
+    }
+
+    @Test
+    void timesPurchasesThatFail() {
+        Timer timer = Metrics.timer("tradingBot.buyAsset");
+        long before = timer.latency().getCount();
+
+        assertThrows(RuntimeException.class, () -> new TradingBot(0).buyAsset(stock("AAPL", 1, 1)));
+        assertEquals(before + 1, timer.latency().getCount());
+    }
+
+    @Test
+    void rejectsEmptyPurchases() {
+        assertThrows(IllegalArgumentException.class, () -> new TradingBot(10).buyAsset(stock("AAPL", 1, 0)));
+    }
+
+    @Test
+    void listenersCanTradeWhileOtherThreadsTrade() {
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            TradingBot bot = new TradingBot(1_000_000);
+            Stock stock = stock("AAPL", 1, 1);
+            CountDownLatch done = new CountDownLatch(2);
+
+            // Buys from inside the asset's price callback, under its monitor
+            stock.addListener(new AssetListener() {
+                @Override
+                public void onPriceChange(Asset asset, long oldPrice, long newPrice) {
+                    bot.buyAsset(asset);
+                }
+            });
+
+            Thread prices = new Thread(() -> {
+                for(int i = 0; i < 20_000; i++) {
+                    stock.setPriceMicros(1_000_000 + i % 2);
+                }
+
+                done.countDown();
+            });
+            Thread trades = new Thread(() -> {
+                for(int i = 0; i < 20_000; i++) {
+                    bot.buyAsset(stock);
+                    bot.sellAsset(stock);
+                }
+
+                done.countDown();
+            });
+
+            prices.start();
+            trades.start();
+            done.await();
+        });
+    }
+
+    @Test
+    void sellsAssetsWithoutASymbolThroughAMarket() {
+        TradingBot bot = new TradingBot(10);
+        Stock stock = stock(null, 10, 1);
+
+        bot.buyAsset(stock);
+        bot.placeOrder(new ImmediateMarket<>(), stock, Side.SELL, 0, 1);
+
+        assertEquals(10, bot.getCurrentCash());
+        assertFalse(bot.getPortfolio().holds(stock));
+    }
+
+    @Test
+    void openSellsReserveWhatTheySell() {
+        TradingBot bot = new TradingBot(30);
+        OrderBookMarket<Stock> market = new OrderBookMarket<>();
+        Stock stock = stock("AAPL", 10, 3);
+
+        bot.buyAsset(stock);
+        long id = bot.placeOrder(market, stock, Side.SELL, Money.of(20), 2);
+
+        assertEquals(1, bot.available(stock));
+        assertThrows(IllegalStateException.class, () -> bot.placeOrder(market, stock, Side.SELL, Money.of(20), 2));
+
+        // Only the unreserved share can be sold at the current price
+        assertEquals(1, bot.sellAsset(stock));
+        assertEquals(2, bot.getPortfolio().amountOf(stock));
+
+        market.cancel(id);
+        assertEquals(2, bot.available(stock));
+    }
+
+    @Test
+    void sellFillsReleaseTheirReservation() {
+        TradingBot bot = new TradingBot(30);
+        OrderBookMarket<Stock> market = new OrderBookMarket<>();
+        Stock stock = stock("AAPL", 10, 3);
+
+        bot.buyAsset(stock);
+        bot.placeOrder(market, stock, Side.SELL, Money.of(20), 3);
+        market.submit(null, stock, Side.BUY, Money.of(20), 3);
+
+        assertEquals(60, bot.getCurrentCash());
+        assertEquals(0, bot.available(stock));
+        assertFalse(bot.getPortfolio().holds(stock));
+    }
+
+    @Test
+    void refusedOrdersReturnTheirReservation() {
+        TradingBot bot = new TradingBot(10);
+        OrderBookMarket<Stock> market = new OrderBookMarket<>();
+        Stock stock = stock(null, 10, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> bot.placeOrder(market, stock, Side.BUY, Money.of(10), 1));
+        assertEquals(10, bot.getCurrentCash());
+
+        bot.buyAsset(stock);
+        assertThrows(IllegalArgumentException.class, () -> bot.placeOrder(market, stock, Side.SELL, Money.of(10), 1));
+        assertEquals(1, bot.available(stock));
+    }
+
+    @Test
+    void forgetsTheBuyPriceOfClosedPositions() {
+        TradingBot bot = new TradingBot(100);
+        Stock stock = stock("AAPL", 10, 1);
+
+        bot.buyAsset(stock);
+        stock.setPrice(12);
+        bot.buyAsset(stock);
+        assertEquals(10, bot.getInitialBuyPrice(stock));
+
+        stock.setAmount(2);
+        bot.sellAsset(stock);
+        assertEquals(0, bot.getInitialBuyPrice(stock));
+    }
+
+    @Test
+    void rejectsNonPositiveOrderQuantities() {
+        TradingBot bot = new TradingBot(10);
+        Stock stock = stock("AAPL", 10, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> bot.placeOrder(new OrderBookMarket<>(), stock, Side.BUY, Money.of(10), 0));
+        assertThrows(IllegalArgumentException.class, () -> bot.placeOrder(new OrderBookMarket<>(), stock, Side.SELL, Money.of(10), -1));
+        assertEquals(10, bot.getCurrentCash());
+        assertEquals(0, bot.available(stock));
+    }
+
+    @Test
+    void failedOrdersReturnOnlyWhatDidNotFill() {
+        TradingBot bot = new TradingBot(55);
+        OrderBookMarket<Stock> market = new OrderBookMarket<>();
+        Stock stock = stock("AAPL", 10, 1);
+
+        market.submit(null, stock, Side.SELL, Money.of(10), 2);
+        market.submit(null, stock, Side.SELL, Money.of(11), 2);
+        stock.addListener(new AssetListener() {
+            @Override
+            public void onPriceChange(Asset asset, long oldPrice, long newPrice) {
+                throw new IllegalStateException("Failed");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> bot.placeOrder(market, stock, Side.BUY, Money.of(11), 5));
+        assertEquals(4, bot.getPortfolio().amountOf(stock));
+        assertEquals(13, bot.getCurrentCash());
+        assertEquals(0, market.getBook(stock).orderCount());
+    }
+}
@@ -0,0 +1,115 @@
+package trading.backtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.ColumnarTable;
+import utilities.Status;
+import utilities.TrendDetector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BacktestTest {
+
+    private static final String CSV = """
+            time,open,high,low,close,volume
+            1000,10,10,10,10,5
+            2000,10,11,10,11,5
+            3000,11,12,11,12,5
+            4000,12,12,9,9,5
+            """;
+
+    private static BarSeries bars(Path dir) throws IOException {
+        Path file = dir.resolve("bars.csv");
+        Files.writeString(file, CSV);
+        return BarSeries.load("AAPL", file);
+    }
+
+    /**
+     * Buys <code>size</code> shares on the first bar and sells half of them on the third
+     */
+    private static Strategy roundTrip(int size) {
+        return context -> {
+            if(context.getIndex() == 0) {
+                context.buy(size);
+            } else if(context.getIndex() == 2) {
+                context.sell(Math.max(size / 2, 1));
+            }
+        };
+    }
+
+    @Test
+    void replaysBarsFromCsv(@TempDir Path dir) throws IOException {
+        BarSeries bars = bars(dir);
+        Backtest.Result result = new Backtest(bars, 100).run(roundTrip(1));
+        ColumnarTable equity = result.getEquity();
+
+        assertEquals(4, bars.size());
+        assertEquals(12_000_000, bars.getHigh(2));
+        assertArrayEquals(new long[] {1_000_000_000_000L, 2_000_000_000_000L, 3_000_000_000_000L, 4_000_000_000_000L},
+                equity.getLongColumn(Backtest.TIME_COLUMN));
+        assertArrayEquals(new double[] {100, 101, 102, 102}, equity.getDoubleColumn(Backtest.EQUITY_COLUMN));
+        assertEquals(2, result.getTrades());
+        assertEquals(102, result.getFinalEquity());
+        assertEquals(0, result.getMaxDrawdown());
+    }
+
+    @Test
+    void recordsEquityAtIntervals(@TempDir Path dir) throws IOException {
+        Backtest.Result result = new Backtest(bars(dir), 100).setEquityInterval(2).run(context -> context.buy(1));
+
+        assertArrayEquals(new double[] {100, 103, 94}, result.getEquity().getDoubleColumn(Backtest.EQUITY_COLUMN));
+        assertEquals(4, result.getTrades());
+        assertEquals(9.0 / 103, result.getMaxDrawdown(), 1e-12);
+    }
+
+    @Test
+    void statusChangesSeePositionsMarkedToTheClose(@TempDir Path dir) throws IOException {
+        List<String> changes = new ArrayList<>();
+        Strategy strategy = new Strategy() {
+            @Override
+            public void onStart(Backtest.Context context) {
+                context.getStock().setTrendDetector(new TrendDetector(1, 0.01, 0.002));
+            }
+
+            @Override
+            public void onStatusChange(Backtest.Context context, Status oldStatus, Status newStatus) {
+                changes.add(context.getIndex() + " " + newStatus + " " + context.getBot().netWorth());
+            }
+
+            @Override
+            public void onBar(Backtest.Context context) {
+                if(context.getIndex() == 0) {
+                    context.buy(1);
+                }
+            }
+        };
+
+        new Backtest(bars(dir), 100).run(strategy);
+
+        assertEquals(List.of("1 INCREASING 101.0", "3 DECREASING 99.0"), changes);
+    }
+
+    @Test
+    void parallelSweepsMatchSequentialRuns(@TempDir Path dir) throws IOException {
+        Backtest backtest = new Backtest(bars(dir), 100);
+        List<Integer> sizes = IntStream.rangeClosed(1, 16).boxed().toList();
+
+        List<Backtest.Result> swept = backtest.sweep(sizes, BacktestTest::roundTrip);
+
+        for(int i = 0; i < sizes.size(); i++) {
+            Backtest.Result run = backtest.run(roundTrip(sizes.get(i)));
+
+            assertEquals(run.getFinalEquityMicros(), swept.get(i).getFinalEquityMicros());
+            assertEquals(run.getTrades(), swept.get(i).getTrades());
+            assertEquals(run.getEquity().flatten(), swept.get(i).getEquity().flatten());
+        }
+    }
+}
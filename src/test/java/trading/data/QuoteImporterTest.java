@@ -0,0 +1,143 @@
+package trading.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuoteImporterTest {
+
+    private final SymbolTable symbols = new SymbolTable();
+    private final List<String> quotes = new ArrayList<>();
+    private final QuoteImporter importer = new QuoteImporter(symbols, (symbolId, timestamp, price, size) ->
+            quotes.add(symbols.getSymbol(symbolId) + " " + timestamp + " " + price + " " + size));
+
+    private int parse(String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return importer.parseFinnhub(bytes, 0, bytes.length);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parsesEveryTradeOfAMessage() throws IOException {
+        int trades = parse("{\"data\":[{\"p\":7296.89,\"s\":\"BINANCE:BTCUSDT\",\"t\":1575526691134,\"v\":0.011467},"
+                + "{\"p\":1,\"s\":\"AAPL\",\"t\":2,\"v\":3}],\"type\":\"trade\"}");
+
+        assertEquals(2, trades);
+        assertEquals(List.of("BINANCE:BTCUSDT 1575526691134000000 7296890000 11467", "AAPL 2000000 1000000 3000000"), quotes);
+    }
+
+    @Test
+    void skipsMessagesWithoutData() throws IOException {
+        assertEquals(0, parse("{\"type\":\"ping\"}"));
+        assertEquals(0, parse("{\"data\":null}"));
+        assertEquals(0, parse(""));
+    }
+
+    @Test
+    void skipsUnknownFieldsAndWhitespace() throws IOException {
+        parse("{ \"data\" : [ { \"c\" : [\"1\\\"]\", [\"]\"], {\"x\":{}}], \"s\" : \"AB\" ,\n"
+                + "\"p\" : 2.5 , \"t\" : 1 , \"v\" : 1 } ] }");
+
+        assertEquals(List.of("AB 1000000 2500000 1000000"), quotes);
+    }
+
+    @Test
+    void parsesExponentsAndRoundsHalfUp() throws IOException {
+        parse("{\"data\":[{\"s\":\"A\",\"p\":1.5e2,\"t\":1E3,\"v\":5e-7},{\"s\":\"B\",\"p\":0.0000004,\"t\":0,\"v\":-1.25}]}");
+
+        assertEquals(List.of("A 1000000000 150000000 1", "B 0 0 -1250000"), quotes);
+    }
+
+    @Test
+    void keepsTheTradesBeforeATruncatedOne() throws IOException {
+        assertEquals(1, parse("{\"data\":[{\"s\":\"A\",\"p\":1,\"t\":1,\"v\":1},{\"s\":\"B\",\"p\":"));
+        assertEquals(1, quotes.size());
+    }
+
+    @Test
+    void skipsTradesWithValuesThatAreNotNumbers() throws IOException {
+        int trades = parse("{\"data\":[{\"s\":\"A\",\"p\":null,\"t\":1,\"v\":1},"
+                + "{\"s\":\"B\",\"p\":1,\"t\":\"2\",\"v\":1},"
+                + "{\"s\":\"C\",\"p\":1,\"t\":3,\"v\":-},"
+                + "{\"s\":\"D\",\"p\":4,\"t\":4,\"v\":4}]}");
+
+        assertEquals(1, trades);
+        assertEquals(List.of("D 4000000 4000000 4000000"), quotes);
+        assertEquals(3, importer.getMalformed());
+    }
+
+    @Test
+    void skipsTradesWithMissingFields() throws IOException {
+        int trades = parse("{\"data\":[{\"s\":\"A\",\"t\":1,\"v\":1},{\"p\":1,\"t\":1,\"v\":1},"
+                + "{\"s\":null,\"p\":1,\"t\":1,\"v\":1}]}");
+
+        assertEquals(0, trades);
+        assertEquals(List.of(), quotes);
+        assertEquals(3, importer.getMalformed());
+    }
+
+    @Test
+    void rejectsNumbersTooLargeForALong() {
+        assertThrows(ArithmeticException.class, () -> parse("{\"data\":[{\"s\":\"A\",\"p\":1e20}]}"));
+    }
+
+    @Test
+    void readsFeedsWithCarriageReturnsAndNoFinalNewline() throws IOException {
+        long trades = importer.importFinnhub(stream("{\"data\":[{\"s\":\"A\",\"p\":1,\"t\":1,\"v\":1}]}\r\n"
+                + "{\"type\":\"ping\"}\n"
+                + "{\"data\":[{\"s\":\"B\",\"p\":2,\"t\":2,\"v\":2}]}"));
+
+        assertEquals(2, trades);
+        assertEquals(2, symbols.size());
+    }
+
+    @Test
+    void readsLinesLongerThanTheBuffer() throws IOException {
+        String padding = "\"x\":\"" + "a".repeat(200_000) + "\",";
+        long trades = importer.importFinnhub(stream("{\"data\":[{" + padding + "\"s\":\"A\",\"p\":1,\"t\":1,\"v\":1}]}\n"
+                + "{\"data\":[{\"s\":\"B\",\"p\":2,\"t\":2,\"v\":2}]}\n"));
+
+        assertEquals(2, trades);
+        assertEquals(List.of("A 1000000 1000000 1000000", "B 2000000 2000000 2000000"), quotes);
+    }
+
+    @Test
+    void importsBarsAndSkipsTheHeader() throws IOException {
+        List<String> bars = new ArrayList<>();
+        long count = importer.importBars(stream("time,open,high,low,close,volume\r\n"
+                        + "1600000000,10.5,11,10,10.75,1200\r\n"
+                        + "\n"
+                        + "1600000060,10.75,10.8,10.7,10.7,300"),
+                (time, open, high, low, close, volume) -> bars.add(time + " " + open + " " + high + " " + low + " " + close + " " + volume));
+
+        assertEquals(2, count);
+        assertEquals(List.of("1600000000000000000 10500000 11000000 10000000 10750000 1200",
+                "1600000060000000000 10750000 10800000 10700000 10700000 300"), bars);
+    }
+
+    @Test
+    void skipsBarsWithoutExactlySixNumbers() throws IOException {
+        List<Long> times = new ArrayList<>();
+        long count = importer.importBars(stream("1,10,11,10,10\n"
+                        + "2,10,x,10,10,5\n"
+                        + "3,10,11,10,10,5,7\n"
+                        + "4,10,11,,10,5\n"
+                        + "5,10,11,10,10,\n"
+                        + "6,10,11,10,10,5\n"),
+                (time, open, high, low, close, volume) -> times.add(time));
+
+        assertEquals(1, count);
+        assertEquals(List.of(6_000_000_000L), times);
+        assertEquals(5, importer.getMalformed());
+    }
+}
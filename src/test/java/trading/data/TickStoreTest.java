@@ -0,0 +1,100 @@
+package trading.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopensWithEveryTickAndSymbol() throws IOException {
+        Path file = directory.resolve("ticks");
+
+        // Enough ticks to span several segments
+        try(TickStore store = TickStore.open(file)) {
+            int apple = store.addSymbol("AAPL");
+            int google = store.addSymbol("GOOG");
+
+            for(int i = 0; i < 5_000; i++) {
+                store.append(i % 3 == 0 ? google : apple, i, i * 10L, 1);
+            }
+        }
+
+        try(TickStore store = TickStore.open(file)) {
+            assertEquals(5_000, store.size());
+            assertEquals(List.of("AAPL", "GOOG"), store.getSymbols());
+            assertEquals(1_667, store.size(store.getSymbolId("GOOG")));
+            assertEquals(3_333, store.size(store.getSymbolId("AAPL")));
+
+            List<Long> prices = new ArrayList<>();
+            int visited = store.scan(store.getSymbolId("GOOG"), 3_000, 3_010,
+                    (symbolId, timestamp, price, size, flags) -> prices.add(price));
+
+            assertEquals(4, visited);
+            assertEquals(List.of(30_000L, 30_030L, 30_060L, 30_090L), prices);
+            assertEquals(49_990, store.getPrice(4_999));
+        }
+    }
+
+    @Test
+    void keepsAppendingInTimeOrderAfterReopening() throws IOException {
+        Path file = directory.resolve("ticks");
+
+        try(TickStore store = TickStore.open(file)) {
+            store.append(store.addSymbol("AAPL"), 100, 1, 1);
+        }
+
+        try(TickStore store = TickStore.open(file)) {
+            int apple = store.getSymbolId("AAPL");
+
+            assertThrows(IllegalArgumentException.class, () -> store.append(apple, 99, 1, 1));
+            store.append(apple, 101, 2, 1);
+            assertEquals(2, store.size(apple));
+        }
+    }
+
+    @Test
+    void aSmallStoreMakesASmallFile() throws IOException {
+        Path file = directory.resolve("ticks");
+
+        try(TickStore store = TickStore.open(file)) {
+            store.append(store.addSymbol("AAPL"), 1, 1, 1);
+        }
+
+        assertTrue(Files.size(file) < 1 << 16);
+    }
+
+    @Test
+    void reportsAMissingSymbolsFileAsCorrupt() throws IOException {
+        Path file = directory.resolve("ticks");
+
+        try(TickStore store = TickStore.open(file)) {
+            store.append(store.addSymbol("AAPL"), 1, 1, 1);
+        }
+
+        Files.delete(directory.resolve("ticks.symbols"));
+
+        IOException e = assertThrows(IOException.class, () -> TickStore.open(file));
+        assertTrue(e.getMessage().startsWith("Corrupt tick store"));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotStores() throws IOException {
+        Path file = directory.resolve("ticks");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> TickStore.open(file));
+    }
+}
@@ -0,0 +1,39 @@
+package trading.indicators;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BollingerBandsTest {
+
+    @Test
+    void bandsTheAverageByStandardDeviations() {
+        BollingerBands bands = new BollingerBands(4, 2);
+        bands.evaluate(new double[]{2, 4, 4, 6});
+
+        assertEquals(4, bands.value());
+        assertEquals(Math.sqrt(2), bands.standardDeviation(), 1e-12);
+        assertEquals(4 + 2 * Math.sqrt(2), bands.upper(), 1e-12);
+        assertEquals(4 - 2 * Math.sqrt(2), bands.lower(), 1e-12);
+        assertEquals(0.5, bands.percentB(4), 1e-12);
+        assertEquals(1, bands.percentB(bands.upper()), 1e-12);
+    }
+
+    @Test
+    void flatPricesHaveNoPercentB() {
+        BollingerBands bands = new BollingerBands(3, 2);
+        bands.evaluate(new double[]{5, 5, 5});
+
+        assertEquals(0, bands.standardDeviation());
+        assertEquals(Double.NaN, bands.percentB(5));
+    }
+
+    @Test
+    void isNotReadyUntilTheWindowFills() {
+        BollingerBands bands = new BollingerBands(3, 2);
+        bands.update(1);
+
+        assertEquals(Double.NaN, bands.upper());
+        assertEquals(Double.NaN, bands.lower());
+    }
+}
@@ -0,0 +1,30 @@
+package trading.indicators;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExponentialMovingAverageTest {
+
+    @Test
+    void startsAtTheFirstPriceAndWeightsRecentPrices() {
+        // A length of 3 gives a smoothing factor of 0.5
+        double[] values = new ExponentialMovingAverage(3).evaluate(new double[]{10, 20, 30, 30});
+
+        assertArrayEquals(new double[]{Double.NaN, Double.NaN, 22.5, 26.25}, values);
+    }
+
+    @Test
+    void evaluatingResetsFirst() {
+        ExponentialMovingAverage average = new ExponentialMovingAverage(1);
+        average.update(100);
+
+        assertArrayEquals(new double[]{5}, average.evaluate(new double[]{5}));
+    }
+
+    @Test
+    void rejectsNonPositiveLengths() {
+        assertThrows(IllegalArgumentException.class, () -> new ExponentialMovingAverage(0));
+    }
+}
@@ -0,0 +1,30 @@
+package trading.indicators;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RelativeStrengthIndexTest {
+
+    @Test
+    void averagesTheFirstMovesThenSmooths() {
+        double[] values = new RelativeStrengthIndex(2).evaluate(new double[]{10, 12, 11, 13});
+
+        // Gains 2, 0 and losses 0, 1 average to 1 and 0.5, then smooth to 1.5 and 0.25
+        assertArrayEquals(new double[]{Double.NaN, Double.NaN, 100 - 100 / 3.0, 100 - 100 / 7.0}, values, 1e-9);
+    }
+
+    @Test
+    void readsFullStrengthWithoutLossesAndHalfWhenFlat() {
+        assertEquals(100, new RelativeStrengthIndex(2).evaluate(new double[]{1, 2, 3})[2]);
+        assertEquals(50, new RelativeStrengthIndex(2).evaluate(new double[]{1, 1, 1})[2]);
+        assertEquals(0, new RelativeStrengthIndex(2).evaluate(new double[]{3, 2, 1})[2]);
+    }
+
+    @Test
+    void rejectsNonPositiveLengths() {
+        assertThrows(IllegalArgumentException.class, () -> new RelativeStrengthIndex(0));
+    }
+}
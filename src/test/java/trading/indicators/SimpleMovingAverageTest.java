@@ -0,0 +1,60 @@
+package trading.indicators;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimpleMovingAverageTest {
+
+    @Test
+    void averagesTheLastPrices() {
+        double[] values = new SimpleMovingAverage(3).evaluate(new double[]{1, 2, 3, 4, 5});
+
+        assertArrayEquals(new double[]{Double.NaN, Double.NaN, 2, 3, 4}, values);
+    }
+
+    @Test
+    void staysExactOverLongSeries() {
+        SimpleMovingAverage average = new SimpleMovingAverage(7);
+
+        for(int i = 0; i < 1_000_000; i++) {
+            average.update(1e6 + (i % 13) * 0.1);
+        }
+
+        double expected = 0;
+
+        for(int i = 1_000_000 - 7; i < 1_000_000; i++) {
+            expected += 1e6 + (i % 13) * 0.1;
+        }
+
+        assertEquals(expected / 7, average.value(), 1e-9);
+    }
+
+    @Test
+    void followsAnAssetAndResets() {
+        SimpleMovingAverage average = new SimpleMovingAverage(2);
+        Stock stock = new Stock("AAPL");
+        stock.addListener(average);
+
+        stock.setPrice(10);
+        assertFalse(average.isReady());
+
+        stock.setPrice(20);
+        assertTrue(average.isReady());
+        assertEquals(15, average.value());
+
+        average.reset();
+        assertFalse(average.isReady());
+        assertEquals(Double.NaN, average.value());
+    }
+
+    @Test
+    void rejectsNonPositiveLengths() {
+        assertThrows(IllegalArgumentException.class, () -> new SimpleMovingAverage(0));
+    }
+}
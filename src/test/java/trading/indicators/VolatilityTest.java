@@ -0,0 +1,29 @@
+package trading.indicators;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class VolatilityTest {
+
+    @Test
+    void measuresTheSpreadOfLogReturns() {
+        Volatility volatility = new Volatility(2);
+        volatility.evaluate(new double[]{100, 110, 99});
+
+        double expected = Math.abs(Math.log(1.1) - Math.log(0.9)) / 2;
+        assertEquals(expected, volatility.value(), 1e-12);
+        assertEquals(2 * expected, volatility.annualized(4), 1e-12);
+    }
+
+    @Test
+    void skipsReturnsToAndFromZero() {
+        Volatility volatility = new Volatility(2);
+        volatility.evaluate(new double[]{100, 0, 100, 100});
+
+        assertFalse(volatility.isReady());
+        volatility.update(100);
+        assertEquals(0, volatility.value());
+    }
+}
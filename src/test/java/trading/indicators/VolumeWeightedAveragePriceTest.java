@@ -0,0 +1,24 @@
+package trading.indicators;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VolumeWeightedAveragePriceTest {
+
+    @Test
+    void weightsPricesByVolume() {
+        double[] out = new double[3];
+        new VolumeWeightedAveragePrice().evaluate(new double[]{10, 20, 30}, new double[]{0, 1, 3}, out);
+
+        assertArrayEquals(new double[]{Double.NaN, 20, 27.5}, out);
+    }
+
+    @Test
+    void countsEachPriceOnceWithoutVolumes() {
+        VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice();
+
+        assertEquals(15, vwap.evaluate(new double[]{10, 20})[1]);
+    }
+}
@@ -0,0 +1,88 @@
+package trading.markets;
+
+import org.junit.jupiter.api.Test;
+import utilities.Side;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandRingTest {
+
+    @Test
+    void keepsOrderAcrossManyWraparounds() {
+        CommandRing ring = new CommandRing(4);
+
+        for(long id = 1; id <= 100; id += 3) {
+            ring.offerSubmit(id, null, null, Side.BUY, id * 10, 1);
+            ring.offerCancel(id + 1);
+            ring.offerSubmit(id + 2, null, null, Side.SELL, id * 20, 2);
+
+            for(long expected = id; expected < id + 3; expected++) {
+                CommandRing.Command command = ring.poll();
+                assertEquals(expected, command.id);
+                assertEquals(expected == id + 1 ? CommandRing.CANCEL : CommandRing.SUBMIT, command.type);
+                ring.release();
+            }
+
+            assertNull(ring.poll());
+        }
+    }
+
+    @Test
+    void producersWaitForAFreeSlot() throws Exception {
+        CommandRing ring = new CommandRing(2);
+        ring.offerCancel(1);
+        ring.offerCancel(2);
+
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> ring.offerCancel(3));
+        Thread.sleep(50);
+        assertFalse(producer.isDone());
+
+        assertEquals(1, ring.poll().id);
+        ring.release();
+        producer.get();
+
+        assertEquals(2, ring.poll().id);
+        ring.release();
+        assertEquals(3, ring.poll().id);
+    }
+
+    @Test
+    void refusesCommandsOnceClosed() {
+        CommandRing ring = new CommandRing(4);
+        ring.offerCancel(1);
+        ring.close();
+
+        assertThrows(IllegalStateException.class, () -> ring.offerCancel(2));
+        assertFalse(ring.isDrained());
+
+        assertEquals(1, ring.poll().id);
+        ring.release();
+        assertTrue(ring.isDrained());
+    }
+
+    @Test
+    void closingReleasesProducersWaitingOnAFullRing() {
+        CommandRing ring = new CommandRing(2);
+        ring.offerCancel(1);
+        ring.offerCancel(2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> ring.offerCancel(3));
+            Thread.sleep(50);
+            ring.close();
+
+            ExecutionException e = assertThrows(ExecutionException.class, producer::get);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package trading.markets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MarketSnapshotTest {
+
+    @Test
+    void nextSnapshotsLeaveEarlierOnesAlone() {
+        long[] prices = {10, 20, 30};
+        MarketSnapshot first = MarketSnapshot.of(List.of("A", "B", "C"), prices, 1);
+        prices[0] = 99;
+
+        MarketSnapshot second = first.next(1, 21, 2);
+        MarketSnapshot third = second.next(new int[]{0, 2}, new long[]{11, 31}, 3);
+        MarketSnapshot fourth = third.next(new long[]{1, 2, 3}, 4);
+
+        assertArrayEquals(new long[]{10, 20, 30}, first.copyPrices());
+        assertArrayEquals(new long[]{10, 21, 30}, second.copyPrices());
+        assertArrayEquals(new long[]{11, 21, 31}, third.copyPrices());
+        assertArrayEquals(new long[]{1, 2, 3}, fourth.copyPrices());
+        assertEquals(3, fourth.getEpoch());
+        assertEquals(4, fourth.getTimestamp());
+    }
+
+    @Test
+    void looksUpSymbols() {
+        MarketSnapshot snapshot = MarketSnapshot.of(List.of("A", "B"), new long[]{10, 20}, 0);
+
+        assertEquals(1, snapshot.indexOf("B"));
+        assertEquals(-1, snapshot.indexOf("Z"));
+        assertEquals("A", snapshot.getSymbol(0));
+        assertEquals(20, snapshot.getPrice(1));
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void rejectsMismatchedPricesAndDuplicateSymbols() {
+        MarketSnapshot snapshot = MarketSnapshot.of(List.of("A", "B"), new long[]{10, 20}, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> MarketSnapshot.of(List.of("A", "A"), new long[]{1, 2}, 0));
+        assertThrows(IllegalArgumentException.class, () -> MarketSnapshot.of(List.of("A"), new long[]{1, 2}, 0));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.next(new long[]{1}, 1));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.next(new int[]{0}, new long[]{1, 2}, 1));
+    }
+}
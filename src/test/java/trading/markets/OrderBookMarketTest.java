@@ -0,0 +1,48 @@
+package trading.markets;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import utilities.Money;
+import utilities.Side;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookMarketTest {
+
+    @Test
+    void routesOrdersToTheBookOfTheirSymbol() {
+        OrderBookMarket<Stock> market = new OrderBookMarket<>();
+        Stock apple = new Stock("AAPL");
+        Stock google = new Stock("GOOG");
+
+        long id = market.submit(null, apple, Side.BUY, Money.of(10), 1);
+        market.submit(null, google, Side.BUY, Money.of(20), 1);
+
+        assertEquals(Money.of(10), market.getBook(apple).bestBid());
+        assertEquals(Money.of(20), market.getBook(google).bestBid());
+        assertTrue(market.cancel(id));
+        assertEquals(0, market.getBook(apple).orderCount());
+    }
+
+    @Test
+    void ignoresIdsItNeverIssued() {
+        OrderBookMarket<Stock> market = new OrderBookMarket<>();
+        Stock apple = new Stock("AAPL");
+        market.submit(null, apple, Side.BUY, Money.of(10), 1);
+
+        assertFalse(market.cancel(0));
+        assertFalse(market.cancel(-1));
+        assertFalse(market.cancel(Long.MAX_VALUE));
+        assertEquals(1, market.getBook(apple).orderCount());
+    }
+
+    @Test
+    void rejectsAssetsWithoutASymbol() {
+        OrderBookMarket<Stock> market = new OrderBookMarket<>();
+
+        assertThrows(IllegalArgumentException.class, () -> market.submit(null, new Stock(), Side.BUY, Money.of(10), 1));
+    }
+}
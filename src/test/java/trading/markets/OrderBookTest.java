@@ -0,0 +1,142 @@
+package trading.markets;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import utilities.Asset;
+import utilities.Market;
+import utilities.Money;
+import utilities.Side;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+
+    /**
+     * Records what a book reports to it
+     */
+    private static final class Recorder implements Market.Participant {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onFill(Asset asset, Side side, long limitPrice, long price, int quantity) {
+            events.add("fill " + side + " " + Money.toDouble(price) + " x" + quantity);
+        }
+
+        @Override
+        public void onCancel(Asset asset, Side side, long limitPrice, int quantity) {
+            events.add("cancel " + side + " x" + quantity);
+        }
+    }
+
+    @Test
+    void restsOrdersThatDoNotCross() {
+        OrderBook book = new OrderBook(new Stock("AAPL"));
+
+        book.submit(1, null, Side.BUY, Money.of(10), 5);
+        book.submit(2, null, Side.SELL, Money.of(11), 3);
+
+        assertEquals(Money.of(10), book.bestBid());
+        assertEquals(Money.of(11), book.bestAsk());
+        assertEquals(5, book.depth(Side.BUY, Money.of(10)));
+        assertEquals(3, book.depth(Side.SELL, Money.of(11)));
+        assertEquals(2, book.orderCount());
+    }
+
+    @Test
+    void matchesAtTheRestingPriceInPriceTimeOrder() {
+        Stock stock = new Stock("AAPL");
+        OrderBook book = new OrderBook(stock);
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        Recorder better = new Recorder();
+        Recorder taker = new Recorder();
+
+        book.submit(1, first, Side.SELL, Money.of(11), 2);
+        book.submit(2, second, Side.SELL, Money.of(11), 2);
+        book.submit(3, better, Side.SELL, Money.of(10), 1);
+        book.submit(4, taker, Side.BUY, Money.of(11), 4);
+
+        assertEquals(List.of("fill SELL 10.0 x1"), better.events);
+        assertEquals(List.of("fill SELL 11.0 x2"), first.events);
+        assertEquals(List.of("fill SELL 11.0 x1"), second.events);
+        assertEquals(List.of("fill BUY 10.0 x1", "fill BUY 11.0 x2", "fill BUY 11.0 x1"), taker.events);
+        assertEquals(1, book.depth(Side.SELL, Money.of(11)));
+        assertEquals(Money.of(11), stock.getPriceMicros());
+    }
+
+    @Test
+    void restsWhatIsLeftOfAPartialFill() {
+        OrderBook book = new OrderBook(new Stock("AAPL"));
+
+        book.submit(1, null, Side.BUY, Money.of(10), 2);
+        book.submit(2, null, Side.SELL, Money.of(9), 5);
+
+        assertEquals(OrderBook.NO_PRICE, book.bestBid());
+        assertEquals(Money.of(9), book.bestAsk());
+        assertEquals(3, book.depth(Side.SELL, Money.of(9)));
+        assertEquals(1, book.orderCount());
+    }
+
+    @Test
+    void cancelsWhatIsLeftOnce() {
+        OrderBook book = new OrderBook(new Stock("AAPL"));
+        Recorder maker = new Recorder();
+
+        book.submit(1, maker, Side.BUY, Money.of(10), 5);
+        book.submit(2, null, Side.SELL, Money.of(10), 2);
+
+        assertTrue(book.cancel(1));
+        assertFalse(book.cancel(1));
+        assertFalse(book.cancel(0));
+        assertEquals(List.of("fill BUY 10.0 x2", "cancel BUY x3"), maker.events);
+        assertEquals(OrderBook.NO_PRICE, book.bestBid());
+        assertEquals(0, book.orderCount());
+    }
+
+    @Test
+    void rejectsNonPositiveQuantities() {
+        OrderBook book = new OrderBook(new Stock("AAPL"));
+
+        assertThrows(IllegalArgumentException.class, () -> book.submit(1, null, Side.BUY, Money.of(10), 0));
+    }
+
+    @Test
+    void rejectsInvalidIdsBeforeMatching() {
+        OrderBook book = new OrderBook(new Stock("AAPL"));
+        Recorder maker = new Recorder();
+
+        book.submit(1, maker, Side.SELL, Money.of(10), 2);
+
+        assertThrows(IllegalArgumentException.class, () -> book.submit(1, null, Side.BUY, Money.of(10), 1));
+        assertThrows(IllegalArgumentException.class, () -> book.submit(0, null, Side.BUY, Money.of(10), 1));
+        assertTrue(maker.events.isEmpty());
+        assertEquals(2, book.depth(Side.SELL, Money.of(10)));
+    }
+
+    @Test
+    void failingParticipantsLeaveTheBookConsistent() {
+        OrderBook book = new OrderBook(new Stock("AAPL"));
+        Recorder taker = new Recorder();
+        Market.Participant failing = (asset, side, limitPrice, price, quantity) -> {
+            throw new IllegalStateException("Failed");
+        };
+
+        book.submit(1, failing, Side.SELL, Money.of(10), 2);
+        book.submit(2, null, Side.SELL, Money.of(11), 2);
+
+        assertThrows(IllegalStateException.class, () -> book.submit(3, taker, Side.BUY, Money.of(11), 5));
+        assertEquals(List.of("cancel BUY x3"), taker.events);
+        assertEquals(Money.of(11), book.bestAsk());
+        assertEquals(OrderBook.NO_PRICE, book.bestBid());
+        assertEquals(1, book.orderCount());
+
+        book.submit(4, taker, Side.BUY, Money.of(11), 2);
+        assertEquals(0, book.orderCount());
+    }
+}
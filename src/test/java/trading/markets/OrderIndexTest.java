@@ -0,0 +1,73 @@
+package trading.markets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderIndexTest {
+
+    @Test
+    void putsGetsAndRemoves() {
+        OrderIndex<String> index = new OrderIndex<>(8);
+
+        index.put(1, "a");
+        index.put(2, "b");
+
+        assertEquals("a", index.get(1));
+        assertEquals("b", index.remove(2));
+        assertNull(index.get(2));
+        assertNull(index.remove(2));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rejectsNonPositiveAndDuplicateIds() {
+        OrderIndex<String> index = new OrderIndex<>(8);
+        index.put(1, "a");
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(0, "b"));
+        assertThrows(IllegalArgumentException.class, () -> index.put(-1, "b"));
+        assertThrows(IllegalArgumentException.class, () -> index.put(1, "b"));
+    }
+
+    @Test
+    void removingNonPositiveIdsLeavesTheIndexAlone() {
+        OrderIndex<String> index = new OrderIndex<>(8);
+        index.put(1, "a");
+
+        assertNull(index.remove(0));
+        assertNull(index.remove(-1));
+        assertEquals(1, index.size());
+        assertEquals("a", index.get(1));
+    }
+
+    @Test
+    void backwardShiftKeepsEveryRemainingIdReachable() {
+        OrderIndex<Long> index = new OrderIndex<>(8);
+        HashMap<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Grows several times and removes from the middle of long probe runs
+        for(int round = 0; round < 20_000; round++) {
+            long key = 1 + random.nextInt(4_096);
+
+            if(expected.containsKey(key)) {
+                assertEquals(expected.remove(key), index.remove(key));
+            } else {
+                index.put(key, key * 7);
+                expected.put(key, key * 7);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+
+        for(long key = 1; key <= 4_096; key++) {
+            assertEquals(expected.get(key), index.get(key));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package trading.markets;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import utilities.Asset;
+import utilities.Market;
+import utilities.Money;
+import utilities.Side;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedMarketTest {
+
+    /**
+     * Counts filled quantity, optionally throwing from the first fill
+     */
+    private static final class Counting implements Market.Participant {
+        private final AtomicInteger filled = new AtomicInteger();
+        private final boolean failFirst;
+
+        private Counting(boolean failFirst) {
+            this.failFirst = failFirst;
+        }
+
+        @Override
+        public void onFill(Asset asset, Side side, long limitPrice, long price, int quantity) {
+            if(filled.getAndAdd(quantity) == 0 && failFirst) {
+                throw new IllegalStateException("failed on purpose");
+            }
+        }
+    }
+
+    @Test
+    void matchesEverySymbolOnItsShard() {
+        Counting buyer = new Counting(false);
+        Counting seller = new Counting(false);
+
+        try(ShardedMarket<Stock> market = new ShardedMarket<>(3, 16)) {
+            for(int i = 0; i < 1_000; i++) {
+                Stock stock = new Stock("S" + i % 10);
+                market.submit(seller, stock, Side.SELL, Money.of(10), 1);
+                market.submit(buyer, stock, Side.BUY, Money.of(10), 1);
+            }
+        }
+
+        assertEquals(1_000, buyer.filled.get());
+        assertEquals(1_000, seller.filled.get());
+    }
+
+    @Test
+    void keepsMatchingAfterACommandThrows() {
+        Counting buyer = new Counting(true);
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        AtomicInteger reported = new AtomicInteger();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> reported.incrementAndGet());
+
+        try(ShardedMarket<Stock> market = new ShardedMarket<>(1, 4)) {
+            Stock stock = new Stock("AAPL");
+
+            for(int i = 0; i < 100; i++) {
+                market.submit(null, stock, Side.SELL, Money.of(10), 1);
+                market.submit(buyer, stock, Side.BUY, Money.of(10), 1);
+            }
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+
+        assertEquals(100, buyer.filled.get());
+        assertEquals(1, reported.get());
+    }
+
+    @Test
+    void refusesOrdersOnceClosed() {
+        ShardedMarket<Stock> market = new ShardedMarket<>(2, 4);
+        Stock stock = new Stock("AAPL");
+        long id = market.submit(null, stock, Side.BUY, Money.of(10), 1);
+        market.close();
+
+        assertThrows(IllegalStateException.class, () -> market.submit(null, stock, Side.BUY, Money.of(10), 1));
+        assertThrows(IllegalStateException.class, () -> market.cancel(id));
+        assertFalse(market.cancel(0));
+    }
+}
@@ -0,0 +1,69 @@
+package trading.markets;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import utilities.Money;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotPublisherTest {
+
+    private static Stock stock(String symbol, double price) {
+        Stock stock = new Stock(symbol);
+        stock.setPrice(price);
+        return stock;
+    }
+
+    @Test
+    void followsAssetPricesUntilClosed() {
+        Stock apple = stock("AAPL", 10);
+        Stock google = stock("GOOG", 20);
+        SnapshotPublisher publisher = new SnapshotPublisher(List.of(apple, google));
+
+        assertEquals(List.of("AAPL", "GOOG"), publisher.current().getSymbols());
+        assertEquals(Money.of(20), publisher.current().getPrice(1));
+
+        google.setPriceMicros(Money.of(21), 5);
+        assertEquals(Money.of(21), publisher.current().getPrice(1));
+        assertEquals(5, publisher.current().getTimestamp());
+        assertEquals(1, publisher.current().getEpoch());
+
+        publisher.close();
+        apple.setPrice(11);
+        assertEquals(Money.of(10), publisher.current().getPrice(0));
+    }
+
+    @Test
+    void rejectsAssetsWithoutASymbol() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new SnapshotPublisher(List.of(stock("AAPL", 10), new Stock())));
+
+        assertEquals("Asset 1 has no symbol", e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnapshotPublisher(Arrays.asList(stock("AAPL", 10), null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnapshotPublisher(List.of(stock("AAPL", 10), stock("AAPL", 11))));
+    }
+
+    @Test
+    void losesNoConcurrentUpdates() {
+        int symbols = 64;
+        SnapshotPublisher publisher = new SnapshotPublisher(MarketSnapshot.of(
+                IntStream.range(0, symbols).mapToObj(i -> "S" + i).toList(), new long[symbols], 0));
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> publisher.update(i % symbols, i, i));
+
+        MarketSnapshot last = publisher.current();
+        assertEquals(10_000, last.getEpoch());
+
+        for(int i = 0; i < symbols; i++) {
+            assertTrue(last.getPrice(i) % symbols == i);
+        }
+    }
+}
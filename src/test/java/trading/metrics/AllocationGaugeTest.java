@@ -0,0 +1,29 @@
+package trading.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AllocationGaugeTest {
+
+    @Test
+    void countsTheCurrentThreadsAllocations() {
+        assertEquals(AllocationGauge.isSupported(), AllocationGauge.enable());
+
+        if(!AllocationGauge.isSupported()) {
+            return;
+        }
+
+        long before = AllocationGauge.currentThreadAllocatedBytes();
+        byte[][] garbage = new byte[100][];
+
+        for(int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[10_000];
+        }
+
+        assertTrue(AllocationGauge.currentThreadAllocatedBytes() - before >= 1_000_000);
+        assertTrue(Metrics.allocationGauge().totalBytes() > 0);
+        assertEquals(100, garbage.length);
+    }
+}
@@ -0,0 +1,25 @@
+package trading.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CounterTest {
+
+    @Test
+    void sumsEveryStripe() {
+        Counter counter = new Counter();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> counter.increment());
+        counter.add(-10);
+
+        assertEquals(99_990, counter.sum());
+    }
+
+    @Test
+    void registersEachNameOnce() {
+        assertEquals(Metrics.counter("counterTest.name"), Metrics.counter("counterTest.name"));
+    }
+}
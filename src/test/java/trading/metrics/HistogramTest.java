@@ -0,0 +1,68 @@
+package trading.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void bucketsHoldTheirValuesWithinSixPercent() {
+        int previous = -1;
+
+        for(long value = 0; value < 1L << 40; value = value * 9 / 8 + 1) {
+            int bucket = Histogram.bucket(value);
+            long highest = Histogram.highestValue(bucket);
+
+            assertTrue(bucket >= previous);
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 16, "value " + value);
+            previous = bucket;
+        }
+
+        assertEquals(Long.MAX_VALUE, Histogram.highestValue(Histogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void summarizesWhatIsRecorded() {
+        Histogram histogram = new Histogram();
+
+        for(int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        histogram.record(-5);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(101, snapshot.getCount());
+        assertEquals(100_000, snapshot.getMax());
+        assertEquals(5_050_000 / 101.0, snapshot.getMean(), 1e-9);
+        assertEquals(0, snapshot.getPercentile(0));
+        assertEquals(100_000, snapshot.getPercentile(100));
+
+        long median = snapshot.getPercentile(50);
+        assertTrue(median >= 50_000 && median <= 50_000 * 17 / 16, "median " + median);
+    }
+
+    @Test
+    void anEmptyHistogramReadsAsZero() {
+        Histogram.Snapshot snapshot = new Histogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean());
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+
+    @Test
+    void countsEveryConcurrentRecord() {
+        Histogram histogram = new Histogram();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i % 100));
+
+        assertEquals(100_000, histogram.snapshot().getCount());
+        assertEquals(99, histogram.snapshot().getMax());
+    }
+}
@@ -0,0 +1,67 @@
+package trading.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CorrelationTest {
+
+    @Test
+    void factorsAPairOfAssets() {
+        Correlation correlation = Correlation.uniform(2, 0.6);
+        double[] out = new double[2];
+
+        correlation.correlate(new double[]{1, 0}, out);
+        assertArrayEquals(new double[]{1, 0.6}, out, 1e-12);
+
+        correlation.correlate(new double[]{0, 1}, out);
+        assertArrayEquals(new double[]{0, 0.8}, out, 1e-12);
+    }
+
+    @Test
+    void correlatesDraws() {
+        Correlation correlation = Correlation.of(new double[][]{
+                {1, 0.5, -0.3},
+                {0.5, 1, 0.2},
+                {-0.3, 0.2, 1}
+        });
+        SplittableRandom random = new SplittableRandom(1);
+        double[] independent = new double[3];
+        double[] correlated = new double[3];
+        double[][] products = new double[3][3];
+        int draws = 200_000;
+
+        for(int n = 0; n < draws; n++) {
+            for(int i = 0; i < 3; i++) {
+                independent[i] = random.nextGaussian();
+            }
+
+            correlation.correlate(independent, correlated);
+
+            for(int i = 0; i < 3; i++) {
+                for(int j = 0; j < 3; j++) {
+                    products[i][j] += correlated[i] * correlated[j] / draws;
+                }
+            }
+        }
+
+        assertEquals(1, products[0][0], 0.02);
+        assertEquals(0.5, products[0][1], 0.02);
+        assertEquals(-0.3, products[0][2], 0.02);
+        assertEquals(0.2, products[1][2], 0.02);
+        assertEquals(1, products[2][2], 0.02);
+    }
+
+    @Test
+    void rejectsMatricesThatAreNotCorrelations() {
+        assertThrows(IllegalArgumentException.class, () -> Correlation.of(new double[][]{{1, 0.5}, {0.4, 1}}));
+        assertThrows(IllegalArgumentException.class, () -> Correlation.of(new double[][]{{2, 0}, {0, 1}}));
+        assertThrows(IllegalArgumentException.class, () -> Correlation.of(new double[][]{{1, 0}}));
+        assertThrows(IllegalArgumentException.class, () -> Correlation.uniform(2, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> Correlation.uniform(3, -0.9));
+    }
+}
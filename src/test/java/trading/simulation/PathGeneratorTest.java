@@ -0,0 +1,134 @@
+package trading.simulation;
+
+import org.junit.jupiter.api.Test;
+import trading.assets.Stock;
+import utilities.Money;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PathGeneratorTest {
+
+    // Jumps draw extra numbers from the path's stream, so they test it too
+    private static final PriceModel MODEL = new JumpDiffusion(0.05, 0.2, 10, -0.05, 0.1, PriceModel.TRADING_DAY);
+    private static final long START = Money.of(100);
+
+    private static long[][] paths(int count, int length) {
+        return new long[count][length];
+    }
+
+    /**
+     * Runs a task on a pool of a given size, so its parallel streams use that many threads
+     */
+    private static void onThreads(int threads, Runnable task) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            pool.submit(task).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void pathsDoNotDependOnTheNumberOfThreads() throws Exception {
+        PathGenerator generator = new PathGenerator(42);
+        long[][] single = paths(64, 100);
+        long[][] many = paths(64, 100);
+
+        onThreads(1, () -> generator.fill(MODEL, START, single));
+        onThreads(8, () -> generator.fill(MODEL, START, many));
+
+        assertArrayEquals(single, many);
+    }
+
+    @Test
+    void scenariosDoNotDependOnTheNumberOfThreads() throws Exception {
+        PathGenerator generator = new PathGenerator(42);
+        PriceModel[] models = {MODEL, new GeometricBrownianMotion(0.05, 0.3, PriceModel.TRADING_DAY)};
+        long[] starts = {START, Money.of(50)};
+        long[][][] single = new long[16][2][50];
+        long[][][] many = new long[16][2][50];
+
+        onThreads(1, () -> generator.fill(models, starts, Correlation.uniform(2, 0.5), single));
+        onThreads(8, () -> generator.fill(models, starts, Correlation.uniform(2, 0.5), many));
+
+        assertArrayEquals(single, many);
+    }
+
+    @Test
+    void finalPricesDoNotDependOnTheNumberOfThreads() throws Exception {
+        PathGenerator generator = new PathGenerator(42);
+        long[] single = new long[64];
+        long[] many = new long[64];
+
+        onThreads(1, () -> generator.fillFinal(MODEL, START, 99, single));
+        onThreads(8, () -> generator.fillFinal(MODEL, START, 99, many));
+
+        assertArrayEquals(single, many);
+    }
+
+    @Test
+    void anyPathCanBeRegeneratedAlone() {
+        PathGenerator generator = new PathGenerator(7);
+        long[][] paths = paths(32, 100);
+        long[] finals = new long[32];
+        long[] alone = new long[100];
+
+        generator.fill(MODEL, START, paths);
+        generator.fillFinal(MODEL, START, 99, finals);
+        generator.fill(MODEL, START, 17, alone);
+
+        assertArrayEquals(paths[17], alone);
+        assertEquals(START, alone[0]);
+
+        for(int i = 0; i < paths.length; i++) {
+            assertEquals(paths[i][99], finals[i]);
+        }
+    }
+
+    @Test
+    void fillsAnAssetWithTheSamePath() {
+        PathGenerator generator = new PathGenerator(7);
+        long[] path = new long[11];
+        Stock stock = new Stock("AAPL");
+        stock.setPriceMicros(START);
+
+        generator.fill(MODEL, START, 3, path);
+        generator.fill(MODEL, stock, 3, 10, 0, 1);
+
+        assertEquals(path[10], stock.getPriceMicros());
+    }
+
+    @Test
+    void uncorrelatedScenariosMatchIndependentOnes() {
+        PathGenerator generator = new PathGenerator(7);
+        PriceModel[] models = {MODEL, MODEL};
+        long[] starts = {START, START};
+        long[][][] independent = new long[4][2][20];
+        long[][][] uncorrelated = new long[4][2][20];
+
+        generator.fill(models, starts, null, independent);
+        generator.fill(models, starts, Correlation.uniform(2, 0), uncorrelated);
+
+        assertArrayEquals(independent, uncorrelated);
+    }
+
+    @Test
+    void seedsAndPathNumbersGiveDifferentPaths() {
+        long[] first = new long[20];
+        long[] second = new long[20];
+        long[] otherSeed = new long[20];
+
+        new PathGenerator(1).fill(MODEL, START, 0, first);
+        new PathGenerator(1).fill(MODEL, START, 1, second);
+        new PathGenerator(2).fill(MODEL, START, 0, otherSeed);
+
+        assertFalse(Arrays.equals(first, second));
+        assertFalse(Arrays.equals(first, otherSeed));
+    }
+}
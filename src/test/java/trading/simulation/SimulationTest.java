@@ -0,0 +1,150 @@
+package trading.simulation;
+
+import org.junit.jupiter.api.Test;
+import trading.TradingBot;
+import trading.markets.MarketSnapshot;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulationTest {
+
+    private static MarketSnapshot snapshot() {
+        return MarketSnapshot.of(List.of("AAPL"), new long[]{1_000_000}, 0);
+    }
+
+    @Test
+    void callsEveryBotWithTheLatestSnapshot() throws InterruptedException {
+        CountDownLatch called = new CountDownLatch(3);
+
+        try(Simulation simulation = new Simulation(1, TimeUnit.SECONDS, 0)) {
+            for(int i = 0; i < 3; i++) {
+                simulation.addBot(new TradingBot(100), context -> called.countDown());
+            }
+
+            simulation.start();
+            simulation.publish(snapshot());
+
+            assertTrue(called.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void startsEachBotOnceWhenAddedDuringStart() throws InterruptedException {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger calls = new AtomicInteger();
+
+        try(Simulation simulation = new Simulation(1, TimeUnit.SECONDS, 0)) {
+            IntStream.range(0, 2_000).parallel().forEach(i -> {
+                if(i == 1_000) {
+                    simulation.start();
+                }
+
+                simulation.addBot(new TradingBot(100), context -> {
+                    threads.add(Thread.currentThread());
+                    calls.incrementAndGet();
+                });
+            });
+
+            simulation.start();
+            simulation.publish(snapshot());
+
+            Set<Integer> ids = simulation.getBots().stream().map(SimulatedBot::getId).collect(Collectors.toSet());
+            assertEquals(2_000, ids.size());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            while(calls.get() < 2_000 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+
+        assertEquals(2_000, calls.get());
+        assertEquals(2_000, threads.size());
+    }
+
+    @Test
+    void disqualifiesBotsThatWillNotStop() {
+        CountDownLatch running = new CountDownLatch(1);
+        AtomicInteger stop = new AtomicInteger();
+        Simulation simulation = new Simulation(1, TimeUnit.SECONDS, 0);
+
+        // Swallows interrupts until told to stop
+        SimulatedBot stubborn = simulation.addBot(new TradingBot(100), context -> {
+            running.countDown();
+
+            while(stop.get() == 0) {
+                try {
+                    Thread.sleep(1);
+                } catch(InterruptedException ignored) {
+                }
+            }
+        });
+        SimulatedBot polite = simulation.addBot(new TradingBot(100), context -> Thread.sleep(60_000));
+
+        simulation.start();
+        simulation.publish(snapshot());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            running.await();
+            simulation.close(50, TimeUnit.MILLISECONDS);
+        });
+
+        assertTrue(stubborn.isDisqualified());
+        assertFalse(polite.isDisqualified());
+        stop.set(1);
+    }
+
+    @Test
+    void keepsTheNewestSnapshotWhenPublishedConcurrently() throws InterruptedException {
+        Simulation simulation = new Simulation(1, TimeUnit.SECONDS, 0);
+        MarketSnapshot[] snapshots = new MarketSnapshot[64];
+        snapshots[0] = snapshot();
+
+        for(int i = 1; i < snapshots.length; i++) {
+            snapshots[i] = snapshots[i - 1].next(new long[]{1_000_000 + i}, i);
+        }
+
+        Thread[] publishers = new Thread[4];
+
+        for(int t = 0; t < publishers.length; t++) {
+            publishers[t] = Thread.ofPlatform().start(() -> {
+                for(MarketSnapshot snapshot : snapshots) {
+                    try {
+                        simulation.publish(snapshot);
+                    } catch(IllegalArgumentException ignored) {
+                    }
+                }
+            });
+        }
+
+        for(Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertEquals(snapshots[snapshots.length - 1], simulation.getSnapshot());
+        assertThrows(IllegalArgumentException.class, () -> simulation.publish(snapshots[1]));
+        simulation.close();
+    }
+
+    @Test
+    void refusesBotsOnceClosed() {
+        Simulation simulation = new Simulation(1, TimeUnit.SECONDS, 0);
+        simulation.close();
+
+        assertThrows(IllegalStateException.class, () -> simulation.addBot(new TradingBot(100), context -> {}));
+    }
+}
@@ -0,0 +1,161 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+import utilities.ColumnarTable.ColumnType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarTableTest {
+
+    /**
+     * A table with a <code>double</code>, a <code>long</code>
+     * and an <code>int</code> column
+     */
+    private static ColumnarTable columnar(int rows, int parallelThreshold) {
+        ColumnarTable table = new ColumnarTable();
+        table.setParallelThreshold(parallelThreshold);
+        table.addColumn("Price").addColumn("Time", ColumnType.LONG).addColumn("Volume", ColumnType.INT);
+
+        for(int i = 0; i < rows; i++) {
+            table.addRow();
+            table.setDouble(i + 0.5, i, 0).setLong(i * 10L, i, 1).setInt(i % 4, i, 2);
+        }
+
+        return table;
+    }
+
+    /**
+     * A row table holding the same values as {@link #columnar}
+     */
+    private static Table<Number> rows(int rows) {
+        Table<Number> table = Table.TableBuilder.build(rows, 3);
+
+        for(int i = 0; i < rows; i++) {
+            table.addValueToRow(i + 0.5, i);
+            table.addValueToRow(i * 10L, i);
+            table.addValueToRow(i % 4, i);
+        }
+
+        return table;
+    }
+
+    @Test
+    void readsAndWritesEachColumnType() {
+        ColumnarTable table = columnar(3, Integer.MAX_VALUE);
+
+        assertEquals(ColumnType.DOUBLE, table.getColumnType(0));
+        assertEquals(ColumnType.LONG, table.getColumnType(1));
+        assertEquals(ColumnType.INT, table.getColumnType(2));
+
+        table.setDouble(7.25, 1, 0).setLong(Long.MAX_VALUE, 1, 1).setInt(-3, 1, 2);
+
+        assertEquals(7.25, table.getDouble(1, 0));
+        assertEquals(7, table.getLong(1, 0));
+        assertEquals(Long.MAX_VALUE, table.getLong(1, 1));
+        assertEquals(-3, table.getInt(1, 2));
+        assertEquals(-3, table.getDouble(1, 2));
+    }
+
+    @Test
+    void rejectsMismatchedTypes() {
+        ColumnarTable table = columnar(2, Integer.MAX_VALUE);
+
+        assertThrows(IllegalArgumentException.class, () -> table.setLong(1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.setInt(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> table.setDouble(1, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> table.getInt(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.getDoubleColumn(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getDouble(2, 0));
+    }
+
+    @Test
+    void growsAsRowsAreAdded() {
+        ColumnarTable table = columnar(1000, Integer.MAX_VALUE);
+
+        assertEquals(1000, table.getRowCount());
+        assertEquals(999.5, table.getDouble(999, 0));
+        assertEquals(9990, table.getLong(999, 1));
+
+        table.addColumn("Extra", ColumnType.LONG);
+        table.addRow();
+
+        assertEquals(0, table.getLong(999, 3));
+        assertEquals(0, table.getDouble(1000, 0));
+    }
+
+    @Test
+    void rowsReadAndWriteThrough() {
+        ColumnarTable table = columnar(2, Integer.MAX_VALUE);
+        Table.Row<Number> row = table.getRow(1);
+
+        assertEquals(List.of(1.5, 10L, 1), row.getValues());
+
+        row.setItem(4, 0);
+        row.setValues(new ArrayList<>(List.of(2.0, 20, 5.9)));
+
+        assertEquals(2.0, table.getDouble(1, 0));
+        assertEquals(20, table.getLong(1, 1));
+        assertEquals(5, table.getInt(1, 2));
+        assertThrows(IllegalStateException.class, () -> row.addItem(1));
+        assertThrows(IllegalArgumentException.class, () -> row.setValues(new ArrayList<>(List.of(1))));
+    }
+
+    @Test
+    void flattensLikeRowTable() {
+        assertEquals(rows(100).flatten(), columnar(100, Integer.MAX_VALUE).flatten());
+        assertEquals(rows(100).flatten(), columnar(100, 1).flatten());
+        assertEquals(List.of(), new ColumnarTable().flatten());
+    }
+
+    @Test
+    void filtersLikeRowTable() {
+        List<Number> expected = rows(500).filter(n -> n.doubleValue() % 3 == 0);
+
+        assertEquals(expected, columnar(500, Integer.MAX_VALUE).filter(n -> n.doubleValue() % 3 == 0));
+        assertEquals(expected, columnar(500, 1).filter(n -> n.doubleValue() % 3 == 0));
+    }
+
+    @Test
+    void mapsIntoEachColumnType() {
+        ColumnarTable sequential = columnar(50, Integer.MAX_VALUE);
+        ColumnarTable parallel = columnar(50, 1);
+
+        sequential.map(n -> n.doubleValue() * 2);
+        parallel.map(n -> n.doubleValue() * 2);
+
+        assertEquals(sequential.flatten(), parallel.flatten());
+        assertEquals(3.0, sequential.getDouble(1, 0));
+        assertEquals(20, sequential.getLong(1, 1));
+        assertEquals(2, sequential.getInt(1, 2));
+    }
+
+    @Test
+    void scansColumns() {
+        ColumnarTable table = columnar(8, Integer.MAX_VALUE);
+
+        assertEquals(32, table.sumColumn(0));
+        assertEquals(280, table.sumColumn(1));
+        assertEquals(12, table.sumColumn(2));
+        assertArrayEquals(new double[] {5.5, 6.5, 7.5}, table.filterDoubleColumn(0, d -> d > 5));
+    }
+
+    @Test
+    void mapsColumnsInPlace() {
+        for(int threshold : new int[] {Integer.MAX_VALUE, 1}) {
+            ColumnarTable table = columnar(5, threshold);
+
+            table.mapDoubleColumn(0, d -> d * 2);
+            table.mapLongColumn(1, l -> l + 1);
+            table.mapIntColumn(2, i -> -i);
+
+            assertArrayEquals(new double[] {1, 3, 5, 7, 9}, table.getDoubleColumn(0));
+            assertArrayEquals(new long[] {1, 11, 21, 31, 41}, table.getLongColumn(1));
+            assertArrayEquals(new int[] {0, -1, -2, -3, 0}, table.getIntColumn(2));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentMultiMapTest {
+
+    @Test
+    void keepsEveryValuePutConcurrently() {
+        ConcurrentMultiMap<Integer> map = new ConcurrentMultiMap<>();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> map.put(i % 16, i));
+
+        int total = 0;
+
+        for(int key = 0; key < 16; key++) {
+            total += map.get(key).size();
+        }
+
+        assertEquals(100_000, total);
+    }
+
+    @Test
+    void earlierReadsDoNotSeeLaterWrites() {
+        ConcurrentMultiMap<String> map = new ConcurrentMultiMap<>();
+        map.put("a", 1);
+        map.put("a", 2);
+
+        ArrayList<Object> before = map.get("a");
+        map.put("a", 3);
+        map.removeValue(1);
+
+        assertEquals(List.of(1, 2), before);
+        assertEquals(List.of(2, 3), map.get("a"));
+    }
+
+    @Test
+    void removesNullValues() {
+        ConcurrentMultiMap<String> map = new ConcurrentMultiMap<>();
+        map.put("a", (Object) null);
+        map.put("a", "x");
+
+        map.removeValue(null);
+
+        assertEquals(List.of("x"), map.get("a"));
+    }
+
+    @Test
+    void filtersByClassAndPredicate() {
+        ConcurrentMultiMap<String> map = new ConcurrentMultiMap<>();
+        map.put("a", new ArrayList<>(Arrays.asList(1, "two", 3L, 4)));
+
+        assertEquals(List.of(1, 4), map.getValuesByClass("a", Integer.class));
+        assertEquals(List.of("two"), map.get("a", v -> v instanceof String));
+        assertTrue(map.getValuesByClass("missing", Integer.class).isEmpty());
+
+        map.remove("a");
+        assertFalse(map.containsKey("a"));
+    }
+}
@@ -0,0 +1,58 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DateTest {
+
+    @Test
+    void epochDaysMatchLocalDate() {
+        for(long day = LocalDate.of(1600, 1, 1).toEpochDay(); day <= LocalDate.of(2400, 12, 31).toEpochDay(); day += 7) {
+            LocalDate expected = LocalDate.ofEpochDay(day);
+            Date date = Date.ofEpochDay(day);
+
+            assertEquals(expected, date.toLocalDate());
+            assertEquals(day, date.toEpochDay());
+            assertEquals(date, Date.from(expected));
+        }
+    }
+
+    @Test
+    void packsAsYearMonthDay() {
+        Date date = Date.of(Date.Month.MARCH, 9, 2024);
+
+        assertEquals(20240309, date.toPacked());
+        assertEquals(date, Date.ofPacked(20240309));
+        assertEquals(Date.Month.MARCH, date.getMonth());
+        assertEquals("3/9/2024", date.toString());
+    }
+
+    @Test
+    void comparesInTimeOrder() {
+        Date earlier = Date.of(Date.Month.DECEMBER, 31, 1999);
+        Date later = Date.of(Date.Month.JANUARY, 1, 2000);
+
+        assertTrue(earlier.compareTo(later) < 0);
+        assertEquals(later, earlier.plusDays(1));
+        assertEquals(earlier, later.plusDays(-1));
+    }
+
+    @Test
+    void validatesLeapDays() {
+        assertEquals(Date.of(Date.Month.MARCH, 1, 2000), Date.of(Date.Month.FEBRUARY, 29, 2000).plusDays(1));
+        assertThrows(IllegalArgumentException.class, () -> Date.of(Date.Month.FEBRUARY, 29, 1900));
+        assertThrows(IllegalArgumentException.class, () -> Date.of(Date.Month.APRIL, 31, 2024));
+        assertThrows(IllegalArgumentException.class, () -> Date.ofPacked(20241301));
+    }
+
+    @Test
+    void reusesCachedDates() {
+        assertSame(Date.of(Date.Month.JULY, 4, 2020), Date.ofEpochDay(LocalDate.of(2020, 7, 4).toEpochDay()));
+    }
+}
@@ -0,0 +1,50 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void convertsToNearestMicroUnit() {
+        assertEquals(1_250_000, Money.of(1.25));
+        assertEquals(100_000, Money.of(0.1));
+        assertEquals(1, Money.of(0.0000005));
+        assertEquals(-1_000_001, Money.of(-1.0000006));
+        assertEquals(0.1, Money.toDouble(Money.of(0.1)));
+    }
+
+    @Test
+    void sumsWithoutDrift() {
+        long total = 0;
+
+        for(int i = 0; i < 1_000_000; i++) {
+            total += Money.of(0.1);
+        }
+
+        assertEquals(100_000 * Money.SCALE, total);
+    }
+
+    @Test
+    void multipliesWithOverflowCheck() {
+        assertEquals(3_750_000, Money.times(1_250_000, 3));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+
+    @Test
+    void roundsToNearestTick() {
+        assertEquals(10_000, Money.roundToTick(12_345, 10_000));
+        assertEquals(20_000, Money.roundToTick(15_000, 10_000));
+        assertEquals(-10_000, Money.roundToTick(-12_345, 10_000));
+    }
+
+    @Test
+    void formatsWithSixDecimals() {
+        assertEquals("1.250000", Money.toString(1_250_000));
+        assertEquals("-0.000001", Money.toString(-1));
+        assertEquals("0.000000", Money.toString(0));
+        assertEquals("-9223372036854.775808", Money.toString(Long.MIN_VALUE));
+    }
+}
@@ -0,0 +1,107 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiMapTest {
+
+    @Test
+    void getsValuesOfOneClass() {
+        MultiMap<String> map = new MultiMap<>();
+        map.put("a", 1);
+        map.put("a", "two");
+        map.put("a", 3);
+
+        assertEquals(List.of(1, 3), map.getValuesByClass("a", Integer.class));
+        assertEquals(List.of("two"), map.getValuesByClass("a", String.class));
+        assertTrue(map.getValuesByClass("missing", Integer.class).isEmpty());
+    }
+
+    @Test
+    void getsValuesOfSubclassesGroupedByClass() {
+        MultiMap<String> map = new MultiMap<>();
+        map.put("a", 1);
+        map.put("a", 2L);
+        map.put("a", 3);
+        map.put("a", "four");
+
+        List<Number> numbers = map.getValuesByClass("a", Number.class);
+
+        assertEquals(3, numbers.size());
+        assertTrue(numbers.containsAll(List.of(1, 2L, 3)));
+        assertThrows(IndexOutOfBoundsException.class, () -> numbers.get(3));
+    }
+
+    @Test
+    void classViewsReflectLaterChanges() {
+        MultiMap<String> map = new MultiMap<>();
+        map.put("a", 1);
+
+        List<Integer> integers = map.getValuesByClass("a", Integer.class);
+        map.put("a", 2);
+
+        assertEquals(List.of(1, 2), integers);
+        assertThrows(UnsupportedOperationException.class, () -> integers.add(3));
+    }
+
+    @Test
+    void classViewsPickUpSubclassesAddedLater() {
+        MultiMap<String> map = new MultiMap<>();
+        map.put("a", 1);
+
+        List<Number> numbers = map.getValuesByClass("a", Number.class);
+        map.put("a", 2L);
+        map.put("a", "three");
+
+        assertEquals(List.of(1, 2L), numbers);
+    }
+
+    @Test
+    void removesValueFromEveryKey() {
+        MultiMap<String> map = new MultiMap<>();
+        map.put("a", "x");
+        map.put("a", "y");
+        map.put("b", "x");
+        map.put("c", "z");
+
+        map.removeValue("x");
+
+        assertEquals(List.of("y"), map.get("a"));
+        assertTrue(map.get("b").isEmpty());
+        assertEquals(List.of("z"), map.get("c"));
+    }
+
+    @Test
+    void forgetsValuesOfRemovedKeys() {
+        MultiMap<String> map = new MultiMap<>();
+        map.put("a", "x");
+        map.put("b", "x");
+
+        map.remove("a");
+        map.removeValue("x");
+
+        assertTrue(map.get("b").isEmpty());
+        assertEquals(Set.of("b"), map.keySet());
+    }
+
+    @Test
+    void identityMapsRemoveOnlyTheSameObject() {
+        MultiMap<String> map = new MultiMap<>(true);
+        String first = new String("x");
+        String second = new String("x");
+        map.put("a", first);
+        map.put("a", second);
+
+        map.removeValue(second);
+
+        assertEquals(1, map.get("a").size());
+        assertSame(first, map.get("a").get(0));
+    }
+}
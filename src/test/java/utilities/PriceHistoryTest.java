@@ -0,0 +1,108 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriceHistoryTest {
+
+    @Test
+    void growsUntilCapacityThenOverwritesOldest() {
+        PriceHistory history = new PriceHistory(40);
+
+        for(int i = 0; i < 100; i++) {
+            history.add(i, i * 10L);
+        }
+
+        assertEquals(40, history.size());
+        assertEquals(40, history.getCapacity());
+        assertEquals(60, history.getPrice(0));
+        assertEquals(99, history.latestPrice());
+        assertEquals(990, history.getTimestamp(39));
+    }
+
+    @Test
+    void keepsOrderAcrossGrowth() {
+        PriceHistory history = new PriceHistory();
+
+        for(int i = 0; i < 1000; i++) {
+            history.add(i, i);
+        }
+
+        assertEquals(1000, history.size());
+
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(i, history.getPrice(i));
+        }
+    }
+
+    @Test
+    void lastPricesReturnsNewestOldestFirst() {
+        PriceHistory history = new PriceHistory(4);
+
+        for(int i = 1; i <= 6; i++) {
+            history.add(i, i);
+        }
+
+        assertArrayEquals(new double[] {4, 5, 6}, history.lastPrices(3));
+        assertArrayEquals(new double[] {3, 4, 5, 6}, history.lastPrices(10));
+        assertThrows(IllegalArgumentException.class, () -> history.lastPrices(-1));
+    }
+
+    @Test
+    void copiesWindowByTimestamp() {
+        PriceHistory history = new PriceHistory(8);
+
+        for(int i = 0; i < 12; i++) {
+            history.add(i, i * 100L);
+        }
+
+        double[] window = new double[8];
+        int copied = history.copyWindow(500, 800, window);
+
+        assertEquals(3, copied);
+        assertEquals(5, window[0]);
+        assertEquals(7, window[2]);
+        assertEquals(history.size(), history.indexOf(5_000));
+    }
+
+    @Test
+    void rejectsOutOfRangeIndex() {
+        PriceHistory history = new PriceHistory(4);
+        history.add(1, 1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getPrice(1));
+        assertThrows(IllegalArgumentException.class, () -> new PriceHistory(0));
+    }
+
+    @Test
+    void assetHandsOutCopiesOfItsHistory() {
+        Asset asset = new Asset(4) {
+            @Override
+            public long calculateValue() {
+                return Money.times(this.getPriceMicros(), this.getAmount());
+            }
+
+            @Override
+            public Asset newLot(int amount) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        assertEquals(-1, asset.getLastTimestamp());
+
+        asset.setPrice(1, 10);
+        asset.setPrice(2, 20);
+        List<Double> previous = asset.getPreviousPrices();
+        asset.setPrice(3, 30);
+
+        assertEquals(List.of(1.0, 2.0), previous);
+        assertArrayEquals(new double[] {2, 3}, asset.lastPrices(2));
+        assertEquals(30, asset.getLastTimestamp());
+        assertThrows(UnsupportedOperationException.class, () -> previous.add(4.0));
+    }
+}
@@ -0,0 +1,93 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableTest {
+
+    private static Table<Integer> table(int rows, int parallelThreshold) {
+        Table<Integer> table = Table.TableBuilder.build(rows, 3);
+        table.setParallelThreshold(parallelThreshold);
+
+        for(int i = 0; i < rows; i++) {
+            for(int j = 0; j < 3; j++) {
+                table.addValueToRow(i * 3 + j, i);
+            }
+        }
+
+        return table;
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> values = new ArrayList<>(count);
+
+        for(int i = 0; i < count; i++) {
+            values.add(i);
+        }
+
+        return values;
+    }
+
+    @Test
+    void flattensInRowOrder() {
+        assertEquals(range(300), table(100, Integer.MAX_VALUE).flatten());
+        assertEquals(range(300), table(100, 1).flatten());
+    }
+
+    @Test
+    void parallelFilterMatchesSequential() {
+        List<Integer> sequential = table(1000, Integer.MAX_VALUE).filter(i -> i % 7 == 0);
+        List<Integer> parallel = table(1000, 1).filter(i -> i % 7 == 0);
+
+        assertEquals(sequential, parallel);
+        assertEquals(429, parallel.size());
+    }
+
+    @Test
+    void mapsInPlace() {
+        Table<Integer> table = table(50, 1);
+        table.map(i -> i * 2);
+
+        assertEquals(8, table.getRow(1).getItem(1));
+        assertEquals(298, table.flatten().get(149));
+    }
+
+    @Test
+    void addsColumnsWithoutCopyingRows() {
+        Table<Integer> table = table(10, Integer.MAX_VALUE);
+        table.addColumn("Extra").addColumns(List.of("A", "B"));
+        table.addValueToRow(99, 0);
+
+        assertEquals(6, table.getColCount());
+        assertEquals(99, table.getRow(0).getItem(3));
+    }
+
+    @Test
+    void spliteratorKnowsItsExactSize() {
+        Table<Integer> table = table(10, Integer.MAX_VALUE);
+        table.addColumn("Extra").addValueToRow(30, 9);
+
+        Spliterator<Integer> spliterator = table.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        assertEquals(31, spliterator.getExactSizeIfKnown());
+
+        spliterator.tryAdvance(i -> {});
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertNull(prefix);
+        assertEquals(30, spliterator.estimateSize());
+
+        spliterator.tryAdvance(i -> {});
+        spliterator.tryAdvance(i -> {});
+        prefix = spliterator.trySplit();
+        assertEquals(12, prefix.estimateSize());
+        assertEquals(16, spliterator.estimateSize());
+        assertEquals(range(31), table.parallelStream().toList());
+    }
+}
@@ -0,0 +1,83 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrendDetectorTest {
+
+    /**
+     * A length of 1 makes the average the price and the slope the
+     * last change, so each status follows from the prices alone
+     */
+    private static TrendDetector detector() {
+        return new TrendDetector(1, 0.01, 0.002);
+    }
+
+    @Test
+    void startsStatic() {
+        TrendDetector detector = detector();
+
+        assertEquals(Status.STATIC, detector.update(Money.of(100)));
+        assertEquals(Status.STATIC, detector.getStatus());
+    }
+
+    @Test
+    void entersATrendPastTheEntryThreshold() {
+        TrendDetector detector = detector();
+        detector.update(Money.of(100));
+
+        assertEquals(Status.STATIC, detector.update(Money.of(100.5)));
+        assertEquals(Status.INCREASING, detector.update(Money.of(102)));
+    }
+
+    @Test
+    void entersADowntrendPastTheEntryThreshold() {
+        TrendDetector detector = detector();
+        detector.update(Money.of(100));
+
+        assertEquals(Status.DECREASING, detector.update(Money.of(98)));
+    }
+
+    @Test
+    void staysInATrendInsideTheHysteresisBand() {
+        TrendDetector detector = detector();
+        detector.update(Money.of(100));
+        detector.update(Money.of(102));
+
+        // A 0.5% rise would not start a trend, but does not end one
+        assertEquals(Status.INCREASING, detector.update(Money.of(102.51)));
+        assertEquals(Status.STATIC, detector.update(Money.of(102.6)));
+    }
+
+    @Test
+    void flipsStraightOverPastTheOppositeEntryThreshold() {
+        TrendDetector detector = detector();
+        detector.update(Money.of(100));
+        detector.update(Money.of(102));
+
+        assertEquals(Status.DECREASING, detector.update(Money.of(99)));
+        assertEquals(Status.DECREASING, detector.update(Money.of(98.6)));
+        assertEquals(Status.STATIC, detector.update(Money.of(98.55)));
+    }
+
+    @Test
+    void resetForgetsThePrices() {
+        TrendDetector detector = detector();
+        detector.update(Money.of(100));
+        detector.update(Money.of(102));
+        detector.reset();
+
+        assertEquals(Status.STATIC, detector.getStatus());
+        assertEquals(0, detector.getSlope());
+        assertEquals(Status.STATIC, detector.update(Money.of(50)));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TrendDetector(0, 0.01, 0.002));
+        assertThrows(IllegalArgumentException.class, () -> new TrendDetector(1, 0.01, 0.02));
+        assertThrows(IllegalArgumentException.class, () -> new TrendDetector(1, 0.01, -0.001));
+    }
+}